@@ -91,6 +91,7 @@ CREATE TABLE IF NOT EXISTS bills (
     manager_id INTEGER NOT NULL,
     total_amount DECIMAL(10,2) NOT NULL,
     bill_date DATETIME DEFAULT CURRENT_TIMESTAMP,
+    bill_day INTEGER, -- local epoch day of bill_date, for indexed date ranges
     status TEXT DEFAULT 'COMPLETED' CHECK(status IN ('COMPLETED', 'CANCELLED')),
     FOREIGN KEY (cashier_id) REFERENCES users(id) ON DELETE CASCADE,
     FOREIGN KEY (manager_id) REFERENCES users(id) ON DELETE CASCADE
@@ -99,6 +100,43 @@ CREATE TABLE IF NOT EXISTS bills (
 CREATE INDEX IF NOT EXISTS idx_bills_cashier_id ON bills(cashier_id);
 CREATE INDEX IF NOT EXISTS idx_bills_manager_id ON bills(manager_id);
 CREATE INDEX IF NOT EXISTS idx_bills_bill_date ON bills(bill_date);
+CREATE INDEX IF NOT EXISTS idx_bills_manager_status_total ON bills(manager_id, status, total_amount);
+CREATE INDEX IF NOT EXISTS idx_bills_manager_day ON bills(manager_id, bill_day);
+CREATE INDEX IF NOT EXISTS idx_bills_cashier_date ON bills(cashier_id, bill_date);
+
+-- 6b. Bill number blocks reserved per manager (store)
+CREATE TABLE IF NOT EXISTS bill_sequence (
+    manager_id INTEGER PRIMARY KEY,
+    next_value INTEGER NOT NULL DEFAULT 1
+);
+
+-- 6c. Daily sales rollup (one row per day, manager and cashier; see SalesSummaryDAO)
+CREATE TABLE IF NOT EXISTS daily_sales_summary (
+    sale_day INTEGER NOT NULL,
+    manager_id INTEGER NOT NULL,
+    cashier_id INTEGER NOT NULL,
+    revenue DECIMAL(12,2) NOT NULL DEFAULT 0,
+    cogs DECIMAL(12,2) NOT NULL DEFAULT 0,
+    bill_count INTEGER NOT NULL DEFAULT 0,
+    units INTEGER NOT NULL DEFAULT 0,
+    PRIMARY KEY (sale_day, manager_id, cashier_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_daily_sales_summary_manager_day ON daily_sales_summary(manager_id, sale_day);
+CREATE INDEX IF NOT EXISTS idx_daily_sales_summary_cashier ON daily_sales_summary(cashier_id);
+
+-- 6d. Daily sales per product and store (see ProductSalesDAO)
+CREATE TABLE IF NOT EXISTS product_daily_sales (
+    sale_day INTEGER NOT NULL,
+    manager_id INTEGER NOT NULL,
+    ceo_inventory_id INTEGER NOT NULL,
+    units INTEGER NOT NULL DEFAULT 0,
+    revenue DECIMAL(12,2) NOT NULL DEFAULT 0,
+    cost DECIMAL(12,2) NOT NULL DEFAULT 0,
+    PRIMARY KEY (sale_day, manager_id, ceo_inventory_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_product_daily_sales_manager_day ON product_daily_sales(manager_id, sale_day);
 
 -- 7. Bill Items
 CREATE TABLE IF NOT EXISTS bill_items (
@@ -122,11 +160,16 @@ CREATE TABLE IF NOT EXISTS expenses (
     amount DECIMAL(10,2) NOT NULL,
     category TEXT NOT NULL CHECK(category IN ('UTILITIES', 'SALARIES', 'RENT', 'MAINTENANCE', 'OTHER')),
     expense_date DATE DEFAULT CURRENT_DATE,
+    expense_day INTEGER, -- local epoch day of expense_date, for indexed date ranges
     recorded_date DATETIME DEFAULT CURRENT_TIMESTAMP,
     FOREIGN KEY (manager_id) REFERENCES users(id) ON DELETE CASCADE
 );
 
 CREATE INDEX IF NOT EXISTS idx_expenses_manager_id ON expenses(manager_id);
+CREATE INDEX IF NOT EXISTS idx_expenses_manager_amount ON expenses(manager_id, amount);
+CREATE INDEX IF NOT EXISTS idx_expenses_manager_day ON expenses(manager_id, expense_day, amount);
+CREATE INDEX IF NOT EXISTS idx_expenses_day ON expenses(expense_day);
+CREATE INDEX IF NOT EXISTS idx_expenses_category_day ON expenses(category, expense_day);
 CREATE INDEX IF NOT EXISTS idx_expenses_expense_date ON expenses(expense_date);
 
 -- 9. Stock Transfer table (for tracking stock movements)
@@ -138,10 +181,45 @@ CREATE TABLE IF NOT EXISTS stock_transfer (
     quantity INTEGER NOT NULL,
     transfer_date DATETIME DEFAULT CURRENT_TIMESTAMP,
     status TEXT DEFAULT 'COMPLETED' CHECK(status IN ('PENDING', 'COMPLETED', 'REJECTED')),
+    ceo_inventory_id INTEGER,
     FOREIGN KEY (from_manager_id) REFERENCES users(id) ON DELETE SET NULL,
     FOREIGN KEY (to_manager_id) REFERENCES users(id) ON DELETE SET NULL
 );
 
+CREATE INDEX IF NOT EXISTS idx_stock_transfer_from_status ON stock_transfer(from_manager_id, status);
+CREATE INDEX IF NOT EXISTS idx_stock_transfer_to_status ON stock_transfer(to_manager_id, status);
+
+-- 9b. Inventory movement ledger (append-only; see InventoryLedgerDAO)
+-- manager_id 0 is the CEO's master inventory; quantity_change is signed
+CREATE TABLE IF NOT EXISTS inventory_movements (
+    id INTEGER PRIMARY KEY AUTOINCREMENT,
+    manager_id INTEGER NOT NULL,
+    ceo_inventory_id INTEGER NOT NULL,
+    quantity_change INTEGER NOT NULL,
+    movement_type TEXT NOT NULL CHECK(movement_type IN ('OPENING', 'RECEIPT', 'TRANSFER', 'SALE', 'ADJUSTMENT', 'RETURN')),
+    reference TEXT,
+    moved_at DATETIME DEFAULT CURRENT_TIMESTAMP,
+    movement_day INTEGER NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_inventory_movements_day ON inventory_movements(movement_day);
+CREATE INDEX IF NOT EXISTS idx_inventory_movements_location_day ON inventory_movements(manager_id, movement_day);
+
+-- 9c. Stock per location and product at the end of a snapshot day (zero rows left out)
+CREATE TABLE IF NOT EXISTS inventory_snapshots (
+    snapshot_day INTEGER NOT NULL,
+    manager_id INTEGER NOT NULL,
+    ceo_inventory_id INTEGER NOT NULL,
+    quantity INTEGER NOT NULL,
+    PRIMARY KEY (snapshot_day, manager_id, ceo_inventory_id)
+);
+
+-- 9d. Days a snapshot was taken for
+CREATE TABLE IF NOT EXISTS inventory_snapshot_runs (
+    snapshot_day INTEGER PRIMARY KEY,
+    created_at DATETIME DEFAULT CURRENT_TIMESTAMP
+);
+
 -- 10. Notifications Table
 CREATE TABLE IF NOT EXISTS notifications (
     id INTEGER PRIMARY KEY AUTOINCREMENT,
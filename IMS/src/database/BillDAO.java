@@ -9,7 +9,7 @@ import java.util.List;
 // ============= BILL DATA ACCESS LAYER =============
 public class BillDAO {
 
-    // Get total revenue from all bills
+    // Get total revenue from all bills (summed from the daily rollup)
     public static double getTotalRevenue() {
         Connection conn = null;
         PreparedStatement ps = null;
@@ -17,7 +17,7 @@ public class BillDAO {
 
         try {
             conn = DatabaseConnection.getConnection();
-            String sql = "SELECT SUM(total_amount) as total FROM bills WHERE status = 'COMPLETED'";
+            String sql = "SELECT SUM(revenue) as total FROM daily_sales_summary";
             ps = conn.prepareStatement(sql);
             rs = ps.executeQuery();
 
@@ -41,8 +41,8 @@ public class BillDAO {
 
         try {
             conn = DatabaseConnection.getConnection();
-            String sql = "SELECT manager_id, SUM(total_amount) as total FROM bills " +
-                    "WHERE status = 'COMPLETED' GROUP BY manager_id";
+            String sql = "SELECT manager_id, SUM(revenue) as total FROM daily_sales_summary " +
+                    "GROUP BY manager_id";
             ps = conn.prepareStatement(sql);
             rs = ps.executeQuery();
 
@@ -96,6 +96,144 @@ public class BillDAO {
         return bills;
     }
 
+    // ============= PAGED BILL HISTORY =============
+
+    // One page of all bills, newest first: the rows after the cursor, or (with a null cursor)
+    // the rows from offset on
+    public static Page<Bill> getBillsPage(Page.Cursor after, int offset, int limit) {
+        return queryBillsPage(null, 0, after, offset, limit);
+    }
+
+    // Number of bills of any status
+    public static int countBills() {
+        return queryBillCount(null, 0);
+    }
+
+    // Number and value of all completed bills (from the daily rollup)
+    public static Page.Totals getBillTotals() {
+        return queryBillTotals(null, 0);
+    }
+
+    // Bills ordered by (bill_date, id) descending, starting after the cursor, or at offset when
+    // there is none (a jump into the middle of the list; skipping rows costs more than seeking).
+    // Fetches one row more than the limit to know whether another page follows.
+    static Page<Bill> queryBillsPage(String filterColumn, int filterValue, Page.Cursor after, int offset, int limit) {
+        Connection conn = null;
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+        List<Bill> bills = new ArrayList<>();
+        Page.Cursor next = null;
+
+        try {
+            conn = DatabaseConnection.getConnection();
+            String sql = "SELECT b.*, u.name as cashier_name, m.name as manager_name " +
+                    "FROM bills b " +
+                    "JOIN users u ON b.cashier_id = u.id " +
+                    "JOIN users m ON b.manager_id = m.id " +
+                    "WHERE 1 = 1 " +
+                    (filterColumn != null ? "AND b." + filterColumn + " = ? " : "") +
+                    (after != null ? "AND (b.bill_date, b.id) < (?, ?) " : "") +
+                    "ORDER BY b.bill_date DESC, b.id DESC " +
+                    "LIMIT ?" +
+                    (after == null && offset > 0 ? " OFFSET ?" : "");
+            ps = conn.prepareStatement(sql);
+            int i = 1;
+            if (filterColumn != null) {
+                ps.setInt(i++, filterValue);
+            }
+            if (after != null) {
+                ps.setObject(i++, after.sortValue);
+                ps.setInt(i++, after.id);
+            }
+            ps.setInt(i++, limit + 1);
+            if (after == null && offset > 0) {
+                ps.setInt(i, offset);
+            }
+            rs = ps.executeQuery();
+
+            Object lastSortValue = null;
+            while (rs.next()) {
+                if (bills.size() == limit) {
+                    Bill last = bills.get(bills.size() - 1);
+                    next = new Page.Cursor(lastSortValue, last.getId());
+                    break;
+                }
+                lastSortValue = rs.getObject("bill_date");
+                Bill bill = new Bill(
+                        rs.getInt("id"),
+                        rs.getString("bill_number"),
+                        rs.getInt("cashier_id"),
+                        rs.getInt("manager_id"),
+                        rs.getDouble("total_amount"),
+                        rs.getTimestamp("bill_date"),
+                        rs.getString("status"),
+                        rs.getString("cashier_name"),
+                        rs.getString("manager_name")
+                );
+                bills.add(bill);
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        } finally {
+            DatabaseConnection.closeResources(rs, ps, conn);
+        }
+        return new Page<>(bills, next);
+    }
+
+    // Number of bills of any status (the rows queryBillsPage lists), counted on an index
+    static int queryBillCount(String filterColumn, int filterValue) {
+        Connection conn = null;
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+
+        try {
+            conn = DatabaseConnection.getConnection();
+            String sql = "SELECT COUNT(*) FROM bills" +
+                    (filterColumn != null ? " WHERE " + filterColumn + " = ?" : "");
+            ps = conn.prepareStatement(sql);
+            if (filterColumn != null) {
+                ps.setInt(1, filterValue);
+            }
+            rs = ps.executeQuery();
+
+            if (rs.next()) {
+                return rs.getInt(1);
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        } finally {
+            DatabaseConnection.closeResources(rs, ps, conn);
+        }
+        return 0;
+    }
+
+    static Page.Totals queryBillTotals(String filterColumn, int filterValue) {
+        Connection conn = null;
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+
+        try {
+            conn = DatabaseConnection.getConnection();
+            String sql = "SELECT COALESCE(SUM(bill_count), 0) as bills, COALESCE(SUM(revenue), 0) as total " +
+                    "FROM daily_sales_summary" +
+                    (filterColumn != null ? " WHERE " + filterColumn + " = ?" : "");
+            ps = conn.prepareStatement(sql);
+            if (filterColumn != null) {
+                ps.setInt(1, filterValue);
+            }
+            rs = ps.executeQuery();
+
+            if (rs.next()) {
+                return new Page.Totals(rs.getInt("bills"), rs.getDouble("total"));
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        } finally {
+            DatabaseConnection.closeResources(rs, ps, conn);
+        }
+        return new Page.Totals(0, 0);
+    }
+
     // Get bill items by bill number
     public static List<BillItemDetail> getBillItems(String billNumber) {
         Connection conn = null;
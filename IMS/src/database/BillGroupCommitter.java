@@ -0,0 +1,167 @@
+package database;
+
+import database.CashierInventoryDAO.BillResult;
+import models.BillItem;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+// ============= GROUP COMMIT FOR BILLS =============
+// Bills that arrive within a short window (or until the batch is full) are written by the
+// writer thread in one transaction, so a busy checkout pays one fsync per batch instead of
+// one per bill. Each bill runs inside its own savepoint: a bill that is short of stock is
+// rolled back on its own and the others still commit. Every caller gets its own result:
+// the bill number, or which product was short of stock.
+class BillGroupCommitter {
+
+    // Settings (override with -Dims.bill.groupCommit.windowMs=5 etc.)
+    private static final boolean ENABLED = Boolean.parseBoolean(
+            System.getProperty("ims.bill.groupCommit.enabled", "true"));
+    private static final long WINDOW_MS = Long.getLong("ims.bill.groupCommit.windowMs", 2L);
+    private static final int MAX_BATCH = Integer.getInteger("ims.bill.groupCommit.maxBatch", 32);
+
+    private static final LinkedBlockingQueue<PendingBill> queue = new LinkedBlockingQueue<>();
+    private static Thread collector;
+
+    // A bill waiting for the next group commit
+    private static class PendingBill {
+        final int cashierId;
+        final int managerId;
+        final List<BillItem> items;
+        final double totalAmount;
+        final CompletableFuture<BillResult> result = new CompletableFuture<>();
+
+        PendingBill(int cashierId, int managerId, List<BillItem> items, double totalAmount) {
+            this.cashierId = cashierId;
+            this.managerId = managerId;
+            this.items = items;
+            this.totalAmount = totalAmount;
+        }
+    }
+
+    // Group commit needs the single writer thread, so it is only used in WAL mode
+    static boolean isEnabled() {
+        return ENABLED && DatabaseConnection.isWalMode();
+    }
+
+    // Queue a bill for the next group commit and wait for its outcome
+    static BillResult submit(int cashierId, int managerId, List<BillItem> items, double totalAmount) {
+        startCollector();
+        PendingBill bill = new PendingBill(cashierId, managerId, items, totalAmount);
+        queue.add(bill);
+        try {
+            return bill.result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            e.printStackTrace();
+        } catch (ExecutionException e) {
+            e.printStackTrace();
+        }
+        return BillResult.failed();
+    }
+
+    private static synchronized void startCollector() {
+        if (collector != null) {
+            return;
+        }
+        collector = new Thread(BillGroupCommitter::collectLoop, "BillGroupCommitter");
+        collector.setDaemon(true);
+        collector.start();
+    }
+
+    // Gather bills into batches and hand each batch to the writer thread
+    private static void collectLoop() {
+        while (true) {
+            List<PendingBill> batch = new ArrayList<>();
+            try {
+                batch.add(queue.take());
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(WINDOW_MS);
+                while (batch.size() < MAX_BATCH) {
+                    long remaining = deadline - System.nanoTime();
+                    PendingBill next = remaining > 0
+                            ? queue.poll(remaining, TimeUnit.NANOSECONDS)
+                            : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                failAll(batch);
+                return;
+            }
+
+            try {
+                DatabaseConnection.executeWrite(() -> {
+                    writeBatch(batch);
+                    return null;
+                }, null);
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+            // Anything not completed by writeBatch failed
+            failAll(batch);
+        }
+    }
+
+    // Runs on the writer thread: one transaction, one savepoint per bill
+    private static void writeBatch(List<PendingBill> batch) {
+        Connection conn = null;
+        BillResult[] results = new BillResult[batch.size()];
+
+        try {
+            conn = DatabaseConnection.getConnection();
+
+            // Bill numbers are reserved before the group transaction starts
+            String[] billNumbers = new String[batch.size()];
+            for (int i = 0; i < batch.size(); i++) {
+                billNumbers[i] = BillNumberAllocator.next(conn, batch.get(i).managerId);
+            }
+
+            conn.setAutoCommit(false);
+
+            for (int i = 0; i < batch.size(); i++) {
+                PendingBill bill = batch.get(i);
+                Savepoint savepoint = conn.setSavepoint();
+                try {
+                    results[i] = CashierInventoryDAO.insertBill(conn, billNumbers[i], bill.cashierId, bill.managerId,
+                            bill.items, bill.totalAmount);
+                } catch (SQLException e) {
+                    e.printStackTrace();
+                    results[i] = BillResult.failed();
+                }
+                if (!results[i].isSuccess()) {
+                    // Not enough stock (or a failed insert): undo only this bill
+                    conn.rollback(savepoint);
+                }
+                conn.releaseSavepoint(savepoint);
+            }
+
+            conn.commit();
+
+            // Results are only published once the whole group is durable
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).result.complete(results[i]);
+            }
+        } catch (SQLException e) {
+            try {
+                if (conn != null) conn.rollback();
+            } catch (SQLException ex) {
+                ex.printStackTrace();
+            }
+            e.printStackTrace();
+        } finally {
+            DatabaseConnection.closeResources(null, null, conn);
+        }
+    }
+
+    private static void failAll(List<PendingBill> batch) {
+        for (PendingBill bill : batch) {
+            bill.result.complete(BillResult.failed());
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package database;
+
+import java.sql.*;
+import java.util.HashMap;
+import java.util.Map;
+
+// ============= BILL NUMBER ALLOCATOR =============
+// Hands out bill numbers from blocks reserved per manager (store) in bill_sequence.
+// Reserving a block is one short transaction; the following numbers come from memory,
+// so most bills need no extra round trip. Blocks never overlap between terminals, so
+// numbers never collide, and within a terminal they increase monotonically per store.
+// Numbers look like "<managerId>-<sequence>", e.g. "3-1042".
+class BillNumberAllocator {
+
+    private static final int BLOCK_SIZE = Math.max(1, Integer.getInteger("ims.bill.numberBlockSize", 100));
+
+    // Unused part of the current block for each manager
+    private static class Block {
+        long next;
+        long end; // exclusive
+    }
+
+    private static final Map<Integer, Block> blocks = new HashMap<>();
+
+    // Next bill number for this manager. Must be called outside an open transaction:
+    // a reserved block is committed on its own so a rolled-back bill cannot release it.
+    static synchronized String next(Connection conn, int managerId) throws SQLException {
+        Block block = blocks.get(managerId);
+        if (block == null || block.next >= block.end) {
+            block = reserveBlock(conn, managerId);
+            blocks.put(managerId, block);
+        }
+        return managerId + "-" + (block.next++);
+    }
+
+    private static Block reserveBlock(Connection conn, int managerId) throws SQLException {
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+
+        try {
+            conn.setAutoCommit(false);
+
+            String updateSql = "UPDATE bill_sequence SET next_value = next_value + ? WHERE manager_id = ?";
+            ps = conn.prepareStatement(updateSql);
+            ps.setInt(1, BLOCK_SIZE);
+            ps.setInt(2, managerId);
+            int updated = ps.executeUpdate();
+            ps.close();
+
+            if (updated == 0) {
+                // First bill for this store
+                String insertSql = "INSERT INTO bill_sequence (manager_id, next_value) VALUES (?, ?)";
+                ps = conn.prepareStatement(insertSql);
+                ps.setInt(1, managerId);
+                ps.setLong(2, 1 + BLOCK_SIZE);
+                ps.executeUpdate();
+                ps.close();
+            }
+
+            ps = conn.prepareStatement("SELECT next_value FROM bill_sequence WHERE manager_id = ?");
+            ps.setInt(1, managerId);
+            rs = ps.executeQuery();
+            if (!rs.next()) {
+                throw new SQLException("Bill sequence missing for manager " + managerId);
+            }
+
+            Block block = new Block();
+            block.end = rs.getLong(1);
+            block.next = block.end - BLOCK_SIZE;
+
+            conn.commit();
+            return block;
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            DatabaseConnection.closeResources(rs, ps, null);
+            conn.setAutoCommit(true);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package database;
+
+import java.sql.*;
+
+// ============= CEO DATA ACCESS LAYER =============
+public class CEODAO {
+
+    // How long the summary may be served from memory (same setting as the manager dashboard)
+    private static final long SUMMARY_TTL_MS = Long.getLong("ims.dashboard.statsTtlMs", 5000L);
+    private static volatile CEOSummary cachedSummary;
+
+    // Counts and totals for the CEO home screen, served from the cache while it is fresh
+    public static CEOSummary getCEOSummary() {
+        return getCEOSummary(false);
+    }
+
+    // Counts and totals for the CEO home screen; forceRefresh skips the cache (Refresh button)
+    public static CEOSummary getCEOSummary(boolean forceRefresh) {
+        CEOSummary cached = cachedSummary;
+        if (!forceRefresh && SUMMARY_TTL_MS > 0 && cached != null
+                && System.currentTimeMillis() - cached.getComputedAt() < SUMMARY_TTL_MS) {
+            return cached;
+        }
+        CEOSummary summary = loadCEOSummary();
+        if (summary != null && SUMMARY_TTL_MS > 0) {
+            cachedSummary = summary;
+        }
+        return summary;
+    }
+
+    // Drop the cached summary after a write that changes the CEO's figures
+    public static void invalidateCEOSummary() {
+        cachedSummary = null;
+    }
+
+    // Every figure is counted or summed in SQL in one statement, so no rows are
+    // materialized and all cards read the same database state
+    private static CEOSummary loadCEOSummary() {
+        Connection conn = null;
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+
+        try {
+            conn = DatabaseConnection.getConnection();
+            String sql = "SELECT " +
+                    "(SELECT COUNT(*) FROM users u JOIN manager_ceo mc ON u.id = mc.manager_id " +
+                    " WHERE u.role = 'MANAGER' AND u.status = 'ACTIVE') as managers, " +
+                    "(SELECT COUNT(*) FROM ceo_inventory) as products, " +
+                    "(SELECT COUNT(*) FROM ceo_inventory " +
+                    " WHERE total_quantity <= min_stock_level) as low_stock, " +
+                    "(SELECT COUNT(*) FROM cashier_manager cm " +
+                    " JOIN users u ON cm.cashier_id = u.id " +
+                    " JOIN users m ON cm.manager_id = m.id " +
+                    " WHERE cm.status = 'PENDING_APPROVAL') as pending_requests, " +
+                    "(SELECT COALESCE(SUM(revenue), 0) FROM daily_sales_summary) as revenue, " +
+                    "(SELECT COALESCE(SUM(amount), 0) FROM expenses) as expenses";
+            ps = conn.prepareStatement(sql);
+            rs = ps.executeQuery();
+
+            if (rs.next()) {
+                return new CEOSummary(rs.getInt("managers"), rs.getInt("products"),
+                        rs.getInt("low_stock"), rs.getInt("pending_requests"),
+                        rs.getDouble("revenue"), rs.getDouble("expenses"));
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        } finally {
+            DatabaseConnection.closeResources(rs, ps, conn);
+        }
+        return null;
+    }
+
+    public static class CEOSummary {
+        private final int managersCount;
+        private final int productsCount;
+        private final int lowStockCount;
+        private final int pendingRequestsCount;
+        private final double totalRevenue;
+        private final double totalExpenses;
+        private final long computedAt;
+
+        public CEOSummary(int managersCount, int productsCount, int lowStockCount,
+                          int pendingRequestsCount, double totalRevenue, double totalExpenses) {
+            this.managersCount = managersCount;
+            this.productsCount = productsCount;
+            this.lowStockCount = lowStockCount;
+            this.pendingRequestsCount = pendingRequestsCount;
+            this.totalRevenue = totalRevenue;
+            this.totalExpenses = totalExpenses;
+            this.computedAt = System.currentTimeMillis();
+        }
+
+        public int getManagersCount() { return managersCount; }
+        public int getProductsCount() { return productsCount; }
+        public int getLowStockCount() { return lowStockCount; }
+        public int getPendingRequestsCount() { return pendingRequestsCount; }
+        public double getTotalRevenue() { return totalRevenue; }
+        public double getTotalExpenses() { return totalExpenses; }
+        public double getNetProfit() { return totalRevenue - totalExpenses; }
+        public long getComputedAt() { return computedAt; }
+    }
+}
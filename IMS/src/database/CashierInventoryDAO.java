@@ -6,7 +6,9 @@ import models.BillItemDetail;
 import models.ManagerInventory;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 // ============= CASHIER INVENTORY DATA ACCESS LAYER =============
 public class CashierInventoryDAO {
@@ -81,99 +83,235 @@ public class CashierInventoryDAO {
         return inventory;
     }
 
+    // Outcome of a bill write: the bill number, or which product was short of stock
+    public static class BillResult {
+        private final String billNumber;
+        private final int failedInventoryId;
+
+        private BillResult(String billNumber, int failedInventoryId) {
+            this.billNumber = billNumber;
+            this.failedInventoryId = failedInventoryId;
+        }
+
+        static BillResult created(String billNumber) { return new BillResult(billNumber, -1); }
+        static BillResult outOfStock(int managerInventoryId) { return new BillResult(null, managerInventoryId); }
+        static BillResult failed() { return new BillResult(null, -1); }
+
+        public boolean isSuccess() { return billNumber != null; }
+        public String getBillNumber() { return billNumber; }
+        // manager_inventory_id of the line that was short of stock, or -1
+        public int getFailedInventoryId() { return failedInventoryId; }
+    }
+
+    // Max cart lines per set-based stock statement (2 bound parameters each, well under
+    // SQLite's 999 host parameter limit)
+    private static final int STOCK_CHUNK_SIZE = 400;
+
     // Create a new bill with items (transaction)
     public static String createBill(int cashierId, int managerId,
                                      List<BillItem> items, double totalAmount) {
+        return placeBill(cashierId, managerId, items, totalAmount).getBillNumber();
+    }
+
+    // Create a new bill, reporting which product failed if stock ran out
+    public static BillResult placeBill(int cashierId, int managerId,
+                                       List<BillItem> items, double totalAmount) {
+        if (BillGroupCommitter.isEnabled()) {
+            // Shares one transaction with other bills arriving at the same moment
+            return BillGroupCommitter.submit(cashierId, managerId, items, totalAmount);
+        }
+        return DatabaseConnection.executeWrite(() -> doPlaceBill(cashierId, managerId, items, totalAmount),
+                BillResult.failed());
+    }
+
+    private static BillResult doPlaceBill(int cashierId, int managerId,
+                                          List<BillItem> items, double totalAmount) {
         Connection conn = null;
-        PreparedStatement ps1 = null;
-        PreparedStatement ps2 = null;
-        PreparedStatement ps3 = null;
-        ResultSet rs = null;
 
         try {
             conn = DatabaseConnection.getConnection();
+            // Reserved outside the bill transaction (see BillNumberAllocator)
+            String billNumber = BillNumberAllocator.next(conn, managerId);
             conn.setAutoCommit(false);
 
-            // Generate bill number
-            String billNumber = generateBillNumber();
+            BillResult result = insertBill(conn, billNumber, cashierId, managerId, items, totalAmount);
+            if (!result.isSuccess()) {
+                conn.rollback();
+                return result;
+            }
+
+            conn.commit();
+            return result;
+        } catch (SQLException e) {
+            try {
+                if (conn != null) conn.rollback();
+            } catch (SQLException ex) {
+                ex.printStackTrace();
+            }
+            e.printStackTrace();
+        } finally {
+            DatabaseConnection.closeResources(null, null, conn);
+        }
+        return BillResult.failed();
+    }
+
+    // Write one bill and its items inside the caller's transaction.
+    // On a stock shortage nothing is written and the failing product is reported.
+    static BillResult insertBill(Connection conn, String billNumber, int cashierId, int managerId,
+                                 List<BillItem> items, double totalAmount) throws SQLException {
+        // Quantity per product; the same product may appear on several cart lines
+        Map<Integer, Integer> quantities = new LinkedHashMap<>();
+        for (BillItem item : items) {
+            quantities.merge(item.getManagerInventoryId(), item.getQuantity(), Integer::sum);
+        }
+
+        // 1. Take the stock first so a short bill fails before anything else is written
+        int shortInventoryId = decrementStock(conn, quantities);
+        if (shortInventoryId != -1) {
+            return BillResult.outOfStock(shortInventoryId);
+        }
+
+        PreparedStatement ps1 = null;
+        PreparedStatement ps2 = null;
+        ResultSet rs = null;
 
-            // 1. Insert bill
-            String sql1 = "INSERT INTO bills (bill_number, cashier_id, manager_id, total_amount, status) " +
-                    "VALUES (?, ?, ?, ?, 'COMPLETED')";
+        try {
+            // 2. Insert bill
+            // bill_day is the local day of the CURRENT_TIMESTAMP bill_date default
+            String sql1 = "INSERT INTO bills (bill_number, cashier_id, manager_id, total_amount, status, bill_day) " +
+                    "VALUES (?, ?, ?, ?, 'COMPLETED', ?)";
             ps1 = conn.prepareStatement(sql1, Statement.RETURN_GENERATED_KEYS);
             ps1.setString(1, billNumber);
             ps1.setInt(2, cashierId);
             ps1.setInt(3, managerId);
             ps1.setDouble(4, totalAmount);
+            ps1.setLong(5, LocalDay.today());
 
             int billRows = ps1.executeUpdate();
             if (billRows == 0) {
-                conn.rollback();
-                return null;
+                return BillResult.failed();
             }
 
             rs = ps1.getGeneratedKeys();
             if (!rs.next()) {
-                conn.rollback();
-                return null;
+                return BillResult.failed();
             }
             int billId = rs.getInt(1);
 
-            // 2. Insert bill items and update inventory
+            // 3. Insert all bill items in one batch
             String sql2 = "INSERT INTO bill_items (bill_id, manager_inventory_id, quantity, unit_price, subtotal) " +
                     "VALUES (?, ?, ?, ?, ?)";
-            String sql3 = "UPDATE manager_inventory SET current_quantity = current_quantity - ?, " +
-                    "last_updated = CURRENT_TIMESTAMP WHERE id = ? AND current_quantity >= ?";
-
             ps2 = conn.prepareStatement(sql2);
-            ps3 = conn.prepareStatement(sql3);
 
             for (BillItem item : items) {
-                // Insert bill item
                 ps2.setInt(1, billId);
                 ps2.setInt(2, item.getManagerInventoryId());
                 ps2.setInt(3, item.getQuantity());
                 ps2.setDouble(4, item.getUnitPrice());
                 ps2.setDouble(5, item.getSubtotal());
-                ps2.executeUpdate();
-
-                // Update inventory
-                ps3.setInt(1, item.getQuantity());
-                ps3.setInt(2, item.getManagerInventoryId());
-                ps3.setInt(3, item.getQuantity());
-                int updateRows = ps3.executeUpdate();
-
-                if (updateRows == 0) {
-                    // Not enough stock
-                    conn.rollback();
-                    return null;
-                }
+                ps2.addBatch();
             }
+            ps2.executeBatch();
 
-            conn.commit();
-            return billNumber; // Return bill number on success
-        } catch (SQLException e) {
-            try {
-                if (conn != null) conn.rollback();
-            } catch (SQLException ex) {
-                ex.printStackTrace();
-            }
-            e.printStackTrace();
+            // 4. Add the bill to the daily sales rollups and the movement ledger
+            SalesSummaryDAO.recordBill(conn, billId);
+            ProductSalesDAO.recordBill(conn, billId);
+            InventoryLedgerDAO.recordBill(conn, billId);
+
+            return BillResult.created(billNumber);
         } finally {
-            DatabaseConnection.closeResources(rs, ps1, conn);
+            DatabaseConnection.closeResources(rs, ps1, null);
             if (ps2 != null) {
                 try { ps2.close(); } catch (SQLException e) { e.printStackTrace(); }
             }
-            if (ps3 != null) {
-                try { ps3.close(); } catch (SQLException e) { e.printStackTrace(); }
+        }
+    }
+
+    // Decrement stock for every product with one guarded UPDATE per chunk of lines.
+    // Returns -1 on success, otherwise the manager_inventory_id that was short of stock
+    // (with the stock left untouched).
+    private static int decrementStock(Connection conn, Map<Integer, Integer> quantities) throws SQLException {
+        List<Map.Entry<Integer, Integer>> lines = new ArrayList<>(quantities.entrySet());
+        Savepoint savepoint = conn.setSavepoint();
+
+        for (int from = 0; from < lines.size(); from += STOCK_CHUNK_SIZE) {
+            List<Map.Entry<Integer, Integer>> chunk = lines.subList(from, Math.min(lines.size(), from + STOCK_CHUNK_SIZE));
+            String values = requestedValues(chunk.size());
+
+            String sql = "WITH req(id, qty) AS (VALUES " + values + ") " +
+                    "UPDATE manager_inventory SET " +
+                    "current_quantity = current_quantity - (SELECT qty FROM req WHERE req.id = manager_inventory.id), " +
+                    "last_updated = CURRENT_TIMESTAMP " +
+                    "WHERE id IN (SELECT id FROM req) " +
+                    "AND current_quantity >= (SELECT qty FROM req WHERE req.id = manager_inventory.id)";
+
+            int updated;
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                bindRequested(ps, chunk);
+                updated = ps.executeUpdate();
+            }
+
+            if (updated != chunk.size()) {
+                // Some line was short: undo this bill's decrements and find out which one
+                conn.rollback(savepoint);
+                conn.releaseSavepoint(savepoint);
+                return findShortLine(conn, lines);
+            }
+        }
+
+        conn.releaseSavepoint(savepoint);
+        return -1;
+    }
+
+    // First product (in cart order) whose stock does not cover the requested quantity
+    private static int findShortLine(Connection conn, List<Map.Entry<Integer, Integer>> lines) throws SQLException {
+        for (int from = 0; from < lines.size(); from += STOCK_CHUNK_SIZE) {
+            List<Map.Entry<Integer, Integer>> chunk = lines.subList(from, Math.min(lines.size(), from + STOCK_CHUNK_SIZE));
+            String sql = "WITH req(pos, id, qty) AS (VALUES " + positionedValues(chunk.size()) + ") " +
+                    "SELECT req.id FROM req " +
+                    "LEFT JOIN manager_inventory mi ON mi.id = req.id " +
+                    "WHERE mi.id IS NULL OR mi.current_quantity < req.qty " +
+                    "ORDER BY req.pos LIMIT 1";
+
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                int index = 1;
+                for (int i = 0; i < chunk.size(); i++) {
+                    ps.setInt(index++, i);
+                    ps.setInt(index++, chunk.get(i).getKey());
+                    ps.setInt(index++, chunk.get(i).getValue());
+                }
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (rs.next()) {
+                        return rs.getInt(1);
+                    }
+                }
             }
         }
-        return null;
+        throw new SQLException("Stock update did not match the requested lines");
+    }
+
+    private static String requestedValues(int count) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            sb.append(i == 0 ? "(?, ?)" : ", (?, ?)");
+        }
+        return sb.toString();
     }
 
-    // Generate unique bill number
-    private static String generateBillNumber() {
-        return "BILL-" + System.currentTimeMillis();
+    private static String positionedValues(int count) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            sb.append(i == 0 ? "(?, ?, ?)" : ", (?, ?, ?)");
+        }
+        return sb.toString();
+    }
+
+    private static void bindRequested(PreparedStatement ps, List<Map.Entry<Integer, Integer>> chunk) throws SQLException {
+        int index = 1;
+        for (Map.Entry<Integer, Integer> line : chunk) {
+            ps.setInt(index++, line.getKey());
+            ps.setInt(index++, line.getValue());
+        }
     }
 
     // Get bills for a specific cashier
@@ -217,6 +355,22 @@ public class CashierInventoryDAO {
         return bills;
     }
 
+    // One page of a cashier's bills, newest first: the rows after the cursor, or (with a null
+    // cursor) the rows from offset on
+    public static Page<Bill> getCashierBillsPage(int cashierId, Page.Cursor after, int offset, int limit) {
+        return BillDAO.queryBillsPage("cashier_id", cashierId, after, offset, limit);
+    }
+
+    // Number of a cashier's bills of any status
+    public static int countCashierBills(int cashierId) {
+        return BillDAO.queryBillCount("cashier_id", cashierId);
+    }
+
+    // Number and value of a cashier's completed bills (from the daily rollup)
+    public static Page.Totals getCashierBillTotals(int cashierId) {
+        return BillDAO.queryBillTotals("cashier_id", cashierId);
+    }
+
     // Get bill items for a specific bill
     public static List<BillItemDetail> getBillItems(int billId) {
         Connection conn = null;
@@ -0,0 +1,152 @@
+package database;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+// ============= BOUNDED SQLITE CONNECTION POOL =============
+// Keeps a small set of open SQLite connections so DAO calls skip the driver connect and
+// PRAGMA setup. At most maxSize connections are borrowed at once; extra callers wait up to
+// borrowTimeoutMs. Idle connections beyond minIdle are closed after idleTimeoutMs.
+class ConnectionPool implements PooledConnection.Owner {
+
+    // Opens a fully configured physical connection
+    interface ConnectionFactory {
+        Connection open() throws SQLException;
+    }
+
+    private final ConnectionFactory factory;
+    private final int maxSize;
+    private final int minIdle;
+    private final long idleTimeoutMs;
+    private final long borrowTimeoutMs;
+    private final long validationIntervalMs;
+
+    // One permit per connection that may be handed out
+    private final Semaphore permits;
+    // Most recently returned connection first, so the warmest connection is reused
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    private final Timer evictionTimer;
+    private volatile boolean shutdown;
+
+    ConnectionPool(ConnectionFactory factory, int maxSize, int minIdle, long idleTimeoutMs,
+                   long borrowTimeoutMs, long validationIntervalMs) {
+        this.factory = factory;
+        this.maxSize = Math.max(1, maxSize);
+        this.minIdle = Math.max(0, Math.min(minIdle, this.maxSize));
+        this.idleTimeoutMs = idleTimeoutMs;
+        this.borrowTimeoutMs = borrowTimeoutMs;
+        this.validationIntervalMs = validationIntervalMs;
+        this.permits = new Semaphore(this.maxSize, true);
+
+        this.evictionTimer = new Timer("ConnectionPoolEvictor", true); // Daemon thread
+        long evictionInterval = Math.max(1000, idleTimeoutMs / 2);
+        evictionTimer.schedule(new TimerTask() {
+            @Override
+            public void run() {
+                evictIdle();
+            }
+        }, evictionInterval, evictionInterval);
+    }
+
+    // Borrow a connection, waiting if all connections are in use
+    PooledConnection borrow() throws SQLException {
+        if (shutdown) {
+            throw new SQLException("Connection pool has been shut down");
+        }
+
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new SQLException("Timed out after " + borrowTimeoutMs +
+                        "ms waiting for a database connection (pool size " + maxSize + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+
+        try {
+            PooledConnection pooled;
+            while ((pooled = idle.pollFirst()) != null) {
+                if (pooled.validate(validationIntervalMs)) {
+                    return pooled;
+                }
+                pooled.closePhysical();
+            }
+            return new PooledConnection(this, factory.open());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    // Called by a handle's close(): put the connection back for the next borrower
+    @Override
+    public void release(PooledConnection pooled) {
+        try {
+            if (!shutdown && pooled.reset()) {
+                idle.offerFirst(pooled);
+            } else {
+                pooled.closePhysical();
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    // Open connections up front so the first screens do not pay the connect cost
+    void warmUp() {
+        while (!shutdown && idle.size() < minIdle && idle.size() + getActiveCount() < maxSize) {
+            if (!permits.tryAcquire()) {
+                return; // Everything is already in use
+            }
+            try {
+                PooledConnection pooled = new PooledConnection(this, factory.open());
+                pooled.reset();
+                idle.offerLast(pooled);
+            } catch (SQLException e) {
+                System.err.println("[ConnectionPool] Warm-up failed: " + e.getMessage());
+                return;
+            } finally {
+                permits.release();
+            }
+        }
+    }
+
+    // Close connections that have sat idle too long, keeping at least minIdle open
+    private void evictIdle() {
+        Iterator<PooledConnection> it = idle.descendingIterator();
+        while (it.hasNext() && idle.size() > minIdle) {
+            PooledConnection pooled = it.next();
+            if (pooled.getIdleMillis() >= idleTimeoutMs && idle.removeLastOccurrence(pooled)) {
+                pooled.closePhysical();
+            }
+        }
+    }
+
+    void shutdown() {
+        shutdown = true;
+        evictionTimer.cancel();
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            pooled.closePhysical();
+        }
+    }
+
+    int getIdleCount() {
+        return idle.size();
+    }
+
+    int getActiveCount() {
+        return maxSize - permits.availablePermits();
+    }
+
+    int getMaxSize() {
+        return maxSize;
+    }
+}
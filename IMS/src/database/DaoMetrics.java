@@ -0,0 +1,313 @@
+package database;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.ObjectName;
+
+// ============= DAO METHOD METRICS =============
+// Records, per DAO method, the call count, a latency histogram (p50/p95/p99/max), rows
+// returned and time spent waiting for a connection. A call is attributed to the method that
+// borrowed the connection and lasts until that connection is closed, which for the DAOs
+// here is the whole body of the method. Published over JMX as ims:type=DaoMetrics and
+// dumped as text every ims.db.metrics.dumpIntervalSec seconds (0 disables the dump).
+public class DaoMetrics implements DaoMetricsMXBean {
+
+    private static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("ims.db.metrics.enabled", "true"));
+    private static final long DUMP_INTERVAL_SEC = Long.getLong("ims.db.metrics.dumpIntervalSec", 15 * 60L);
+
+    // Histogram: 4 buckets per power of two of microseconds (at most ~19% error)
+    private static final int BUCKETS = 128;
+
+    // Pool and wrapper classes are skipped when looking for the calling DAO method
+    private static final Set<String> INFRASTRUCTURE = new HashSet<>(Arrays.asList(
+            "database.DatabaseConnection", "database.ConnectionPool", "database.PooledConnection",
+            "database.WriteExecutor", "database.StatementCache", "database.InstrumentedStatement",
+            "database.DaoMetrics", "database.DaoMetrics$Call"));
+
+    private static final StackWalker WALKER = StackWalker.getInstance();
+    private static final ConcurrentHashMap<String, MethodStats> stats = new ConcurrentHashMap<>();
+    private static final DaoMetrics INSTANCE = new DaoMetrics();
+
+    static {
+        if (ENABLED) {
+            try {
+                ManagementFactory.getPlatformMBeanServer()
+                        .registerMBean(INSTANCE, new ObjectName("ims:type=DaoMetrics"));
+            } catch (Exception e) {
+                System.err.println("[DaoMetrics] Could not register JMX bean: " + e.getMessage());
+            }
+            if (DUMP_INTERVAL_SEC > 0) {
+                Timer timer = new Timer("DaoMetricsDump", true); // Daemon thread
+                long interval = DUMP_INTERVAL_SEC * 1000;
+                timer.scheduleAtFixedRate(new TimerTask() {
+                    @Override
+                    public void run() {
+                        System.out.println(INSTANCE.getReport());
+                    }
+                }, interval, interval);
+            }
+        }
+    }
+
+    private DaoMetrics() {
+    }
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    // Start timing a DAO call; null when metrics are disabled
+    public static Call begin() {
+        if (!ENABLED) {
+            return null;
+        }
+        return new Call(statsFor(resolveCaller()));
+    }
+
+    // Record a finished call directly
+    public static void record(String method, long waitNanos, long elapsedNanos, long rows) {
+        statsFor(method).record(waitNanos, elapsedNanos, rows);
+    }
+
+    // "CashierInventoryDAO.placeBill" for the first caller outside the pool classes
+    public static String resolveCaller() {
+        return WALKER.walk(frames -> frames
+                .filter(f -> !INFRASTRUCTURE.contains(f.getClassName()))
+                .findFirst()
+                .map(f -> simpleName(f.getClassName()) + "." + methodName(f.getMethodName()))
+                .orElse("unknown"));
+    }
+
+    public static DaoMetrics getInstance() {
+        return INSTANCE;
+    }
+
+    private static MethodStats statsFor(String method) {
+        MethodStats s = stats.get(method);
+        if (s == null) {
+            s = stats.computeIfAbsent(method, MethodStats::new);
+        }
+        return s;
+    }
+
+    private static String simpleName(String className) {
+        return className.substring(className.lastIndexOf('.') + 1);
+    }
+
+    // lambda$placeBill$2 -> placeBill, doPlaceBill -> placeBill
+    private static String methodName(String name) {
+        if (name.startsWith("lambda$")) {
+            int end = name.indexOf('$', 7);
+            name = end > 7 ? name.substring(7, end) : name.substring(7);
+        }
+        if (name.length() > 2 && name.startsWith("do") && Character.isUpperCase(name.charAt(2))) {
+            name = Character.toLowerCase(name.charAt(2)) + name.substring(3);
+        }
+        return name;
+    }
+
+    static int bucketFor(long micros) {
+        if (micros < 4) {
+            return (int) Math.max(0, micros);
+        }
+        int exp = 63 - Long.numberOfLeadingZeros(micros);
+        int sub = (int) ((micros >>> (exp - 2)) & 3);
+        return Math.min(BUCKETS - 1, 4 * (exp - 1) + sub);
+    }
+
+    // Largest value (in microseconds) that falls into the bucket
+    static long bucketUpperBound(int bucket) {
+        if (bucket < 4) {
+            return bucket;
+        }
+        int exp = bucket / 4 + 1;
+        int sub = bucket % 4;
+        return ((5L + sub) << (exp - 2)) - 1;
+    }
+
+    // ===== JMX / report =====
+
+    @Override
+    public List<MethodSnapshot> getMethods() {
+        List<MethodSnapshot> snapshots = new ArrayList<>();
+        for (MethodStats s : stats.values()) {
+            snapshots.add(s.snapshot());
+        }
+        snapshots.sort((a, b) -> Long.compare(b.getTotalMillis(), a.getTotalMillis()));
+        return snapshots;
+    }
+
+    @Override
+    public String getReport() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("[DaoMetrics] ").append(new java.util.Date())
+                .append(" | pool active=").append(getActiveConnections())
+                .append(" idle=").append(getIdleConnections())
+                .append(" | statement cache hits=").append(getStatementCacheHits())
+                .append(" misses=").append(getStatementCacheMisses()).append('\n');
+        sb.append(String.format("%-55s %9s %9s %9s %9s %9s %10s %10s%n",
+                "method", "calls", "p50(us)", "p95(us)", "p99(us)", "max(us)", "rows", "wait(us)"));
+        for (MethodSnapshot s : getMethods()) {
+            sb.append(String.format("%-55s %9d %9d %9d %9d %9d %10d %10d%n",
+                    s.getMethod(), s.getCalls(), s.getP50Micros(), s.getP95Micros(), s.getP99Micros(),
+                    s.getMaxMicros(), s.getRows(), s.getAvgWaitMicros()));
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public long getStatementCacheHits() {
+        return DatabaseConnection.getStatementCacheHits();
+    }
+
+    @Override
+    public long getStatementCacheMisses() {
+        return DatabaseConnection.getStatementCacheMisses();
+    }
+
+    @Override
+    public int getActiveConnections() {
+        return DatabaseConnection.getActiveConnectionCount();
+    }
+
+    @Override
+    public int getIdleConnections() {
+        return DatabaseConnection.getIdleConnectionCount();
+    }
+
+    @Override
+    public void reset() {
+        stats.clear();
+    }
+
+    // One DAO call in progress (used by a single thread)
+    public static final class Call {
+        private final MethodStats stats;
+        private final long startNanos;
+        private long acquiredNanos;
+        private long rows;
+        private boolean finished;
+
+        private Call(MethodStats stats) {
+            this.stats = stats;
+            this.startNanos = System.nanoTime();
+            this.acquiredNanos = startNanos;
+        }
+
+        public void connectionAcquired() {
+            acquiredNanos = System.nanoTime();
+        }
+
+        public void addRow() {
+            rows++;
+        }
+
+        public void finish() {
+            if (finished) {
+                return;
+            }
+            finished = true;
+            long now = System.nanoTime();
+            stats.record(acquiredNanos - startNanos, now - startNanos, rows);
+        }
+    }
+
+    // Counters for one DAO method
+    private static final class MethodStats {
+        private final String method;
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder waitNanos = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Long::max, 0);
+        private final AtomicLongArray histogram = new AtomicLongArray(BUCKETS);
+
+        MethodStats(String method) {
+            this.method = method;
+        }
+
+        void record(long wait, long elapsed, long rowCount) {
+            calls.increment();
+            rows.add(rowCount);
+            waitNanos.add(wait);
+            totalNanos.add(elapsed);
+            maxNanos.accumulate(elapsed);
+            histogram.incrementAndGet(bucketFor(elapsed / 1000));
+        }
+
+        MethodSnapshot snapshot() {
+            long[] counts = new long[BUCKETS];
+            long total = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[i] = histogram.get(i);
+                total += counts[i];
+            }
+            long callCount = calls.sum();
+            return new MethodSnapshot(method, callCount, rows.sum(),
+                    callCount > 0 ? waitNanos.sum() / callCount / 1000 : 0,
+                    percentile(counts, total, 0.50), percentile(counts, total, 0.95),
+                    percentile(counts, total, 0.99), maxNanos.get() / 1000, totalNanos.sum() / 1_000_000);
+        }
+
+        private static long percentile(long[] counts, long total, double p) {
+            if (total == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(total * p);
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return bucketUpperBound(i);
+                }
+            }
+            return bucketUpperBound(counts.length - 1);
+        }
+    }
+
+    // Point-in-time view of one DAO method (exposed over JMX)
+    public static class MethodSnapshot {
+        private final String method;
+        private final long calls;
+        private final long rows;
+        private final long avgWaitMicros;
+        private final long p50Micros;
+        private final long p95Micros;
+        private final long p99Micros;
+        private final long maxMicros;
+        private final long totalMillis;
+
+        public MethodSnapshot(String method, long calls, long rows, long avgWaitMicros, long p50Micros,
+                              long p95Micros, long p99Micros, long maxMicros, long totalMillis) {
+            this.method = method;
+            this.calls = calls;
+            this.rows = rows;
+            this.avgWaitMicros = avgWaitMicros;
+            this.p50Micros = p50Micros;
+            this.p95Micros = p95Micros;
+            this.p99Micros = p99Micros;
+            this.maxMicros = maxMicros;
+            this.totalMillis = totalMillis;
+        }
+
+        public String getMethod() { return method; }
+        public long getCalls() { return calls; }
+        public long getRows() { return rows; }
+        public long getAvgWaitMicros() { return avgWaitMicros; }
+        public long getP50Micros() { return p50Micros; }
+        public long getP95Micros() { return p95Micros; }
+        public long getP99Micros() { return p99Micros; }
+        public long getMaxMicros() { return maxMicros; }
+        public long getTotalMillis() { return totalMillis; }
+    }
+}
@@ -0,0 +1,15 @@
+package database;
+
+import java.util.List;
+
+// ============= DAO METRICS JMX INTERFACE =============
+// Published as ims:type=DaoMetrics (view with JConsole or VisualVM)
+public interface DaoMetricsMXBean {
+    List<DaoMetrics.MethodSnapshot> getMethods();
+    String getReport();
+    long getStatementCacheHits();
+    long getStatementCacheMisses();
+    int getActiveConnections();
+    int getIdleConnections();
+    void reset();
+}
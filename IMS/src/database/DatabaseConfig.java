@@ -0,0 +1,202 @@
+package database;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+// ============= DATABASE CONFIGURATION =============
+// Everything DatabaseConnection needs to open a connection, resolved once at startup:
+// the database file, the JDBC driver, pool sizes and the per-connection PRAGMAs.
+// Each setting comes from (highest first):
+//   1. a system property, e.g. -Dims.db.path=D:/shop/inventory_db.sqlite
+//   2. a properties file: -Dims.config=<file>, or ims.properties in the working directory
+//      or its app/ folder, using the same keys
+//   3. the built-in default
+// The object is immutable; call DatabaseConnection.reloadConfig() to resolve it again.
+public final class DatabaseConfig {
+
+    private static final String URL_PREFIX = "jdbc:sqlite:";
+    private static final String DB_FILE_NAME = "inventory_db.sqlite";
+
+    private static volatile DatabaseConfig current;
+
+    private final String databasePath;
+    private final String url;
+    private final String driverClass;
+    private final String driverError;       // null when the driver loaded
+    private final String configFile;        // null when no file was found
+    private final boolean walMode;
+    private final int busyTimeoutMs;
+    private final int poolSize;
+    private final int poolMinIdle;
+    private final long poolIdleTimeoutMs;
+    private final long poolBorrowTimeoutMs;
+    private final long poolValidationIntervalMs;
+    private final int statementCacheSize;
+
+    private DatabaseConfig(Properties file, String configFile) {
+        this.configFile = configFile;
+        String path = setting(file, "ims.db.path", null);
+        this.databasePath = path != null ? new File(path).getAbsolutePath() : probeDatabasePath();
+        this.url = URL_PREFIX + databasePath;
+        this.driverClass = setting(file, "ims.db.driver", "org.sqlite.JDBC");
+        this.driverError = loadDriver(driverClass);
+
+        // Storage mode: WAL (default) serializes all writes through one writer thread while reads
+        // run concurrently; ROLLBACK keeps SQLite's classic journal and writes on the caller's thread
+        this.walMode = !"ROLLBACK".equalsIgnoreCase(setting(file, "ims.db.storageMode", "WAL"));
+        this.busyTimeoutMs = intSetting(file, "ims.db.busyTimeoutMs", 5000);
+
+        this.poolSize = intSetting(file, "ims.db.pool.size", 4);
+        this.poolMinIdle = intSetting(file, "ims.db.pool.minIdle", 2);
+        this.poolIdleTimeoutMs = longSetting(file, "ims.db.pool.idleTimeoutMs", 5 * 60 * 1000L);
+        this.poolBorrowTimeoutMs = longSetting(file, "ims.db.pool.borrowTimeoutMs", 30 * 1000L);
+        this.poolValidationIntervalMs = longSetting(file, "ims.db.pool.validationIntervalMs", 5 * 1000L);
+        this.statementCacheSize = intSetting(file, "ims.db.statementCache.size", 64);
+    }
+
+    // The configuration in effect (resolved on first use)
+    public static DatabaseConfig get() {
+        DatabaseConfig c = current;
+        if (c == null) {
+            synchronized (DatabaseConfig.class) {
+                c = current;
+                if (c == null) {
+                    c = resolve();
+                    current = c;
+                }
+            }
+        }
+        return c;
+    }
+
+    // Resolve the configuration again and make it current. Connections already open keep
+    // the old settings; DatabaseConnection.reloadConfig() also restarts the pool.
+    static synchronized DatabaseConfig reload() {
+        current = resolve();
+        return current;
+    }
+
+    // Read the config file, probe for the database and load the driver
+    public static DatabaseConfig resolve() {
+        Properties file = new Properties();
+        File source = findConfigFile();
+        if (source != null) {
+            try (InputStream in = new FileInputStream(source)) {
+                file.load(in);
+            } catch (IOException e) {
+                System.err.println("[DatabaseConfig] Could not read " + source + ": " + e.getMessage());
+                source = null;
+            }
+        }
+        return new DatabaseConfig(file, source != null ? source.getAbsolutePath() : null);
+    }
+
+    // Try multiple paths for compatibility (IDE vs jpackage)
+    static String probeDatabasePath() {
+        String[] possiblePaths = {
+            "data/" + DB_FILE_NAME,                        // IDE
+            "app/data/" + DB_FILE_NAME,                    // jpackage
+            "../data/" + DB_FILE_NAME,                     // From app subfolder
+            System.getProperty("user.dir") + "/data/" + DB_FILE_NAME,
+            System.getProperty("user.dir") + "/app/data/" + DB_FILE_NAME
+        };
+
+        for (String path : possiblePaths) {
+            File f = new File(path);
+            if (f.exists()) {
+                return f.getAbsolutePath();
+            }
+        }
+
+        // Default to app/data for jpackage environment if not found
+        File appDataDir = new File(System.getProperty("user.dir"), "app/data");
+        if (appDataDir.exists() || (appDataDir.getParentFile() != null && appDataDir.getParentFile().getName().equals("app"))) {
+            return appDataDir.getAbsolutePath() + File.separator + DB_FILE_NAME;
+        }
+
+        // Fallback to standard data directory
+        return new File(System.getProperty("user.dir"), "data/" + DB_FILE_NAME).getAbsolutePath();
+    }
+
+    private static File findConfigFile() {
+        String explicit = System.getProperty("ims.config");
+        if (explicit != null) {
+            return new File(explicit);
+        }
+        File[] candidates = {
+            new File(System.getProperty("user.dir"), "ims.properties"),
+            new File(System.getProperty("user.dir"), "app/ims.properties")
+        };
+        for (File f : candidates) {
+            if (f.isFile()) {
+                return f;
+            }
+        }
+        return null;
+    }
+
+    private static String loadDriver(String driverClass) {
+        try {
+            Class.forName(driverClass);
+            return null;
+        } catch (ClassNotFoundException e) {
+            return "SQLite JDBC Driver not found. Please add sqlite-jdbc.jar to your classpath.";
+        }
+    }
+
+    private static String setting(Properties file, String key, String def) {
+        return System.getProperty(key, file.getProperty(key, def));
+    }
+
+    private static int intSetting(Properties file, String key, int def) {
+        String value = setting(file, key, null);
+        try {
+            return value != null ? Integer.parseInt(value.trim()) : def;
+        } catch (NumberFormatException e) {
+            System.err.println("[DatabaseConfig] Ignoring invalid " + key + "=" + value);
+            return def;
+        }
+    }
+
+    private static long longSetting(Properties file, String key, long def) {
+        String value = setting(file, key, null);
+        try {
+            return value != null ? Long.parseLong(value.trim()) : def;
+        } catch (NumberFormatException e) {
+            System.err.println("[DatabaseConfig] Ignoring invalid " + key + "=" + value);
+            return def;
+        }
+    }
+
+    // Make sure the database folder exists before SQLite creates the file
+    void ensureDatabaseDirectory() {
+        File dbDir = new File(databasePath).getParentFile();
+        if (dbDir != null && !dbDir.exists()) {
+            dbDir.mkdirs();
+        }
+    }
+
+    public String getDatabasePath() { return databasePath; }
+    public String getUrl() { return url; }
+    public String getDriverClass() { return driverClass; }
+    public boolean isDriverLoaded() { return driverError == null; }
+    String getDriverError() { return driverError; }
+    public String getConfigFile() { return configFile; }
+    public boolean isWalMode() { return walMode; }
+    public int getBusyTimeoutMs() { return busyTimeoutMs; }
+    public int getPoolSize() { return poolSize; }
+    public int getPoolMinIdle() { return poolMinIdle; }
+    public long getPoolIdleTimeoutMs() { return poolIdleTimeoutMs; }
+    public long getPoolBorrowTimeoutMs() { return poolBorrowTimeoutMs; }
+    public long getPoolValidationIntervalMs() { return poolValidationIntervalMs; }
+    public int getStatementCacheSize() { return statementCacheSize; }
+
+    @Override
+    public String toString() {
+        return "DatabaseConfig[" + databasePath + ", " + (walMode ? "WAL" : "ROLLBACK")
+                + ", pool " + poolSize + (configFile != null ? ", from " + configFile : "") + "]";
+    }
+}
@@ -1,69 +1,179 @@
 package database;
 
 import java.sql.*;
-import java.io.File;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 
 // ============= DATABASE CONNECTION - SQLite =============
+// Database location, driver and pool settings are resolved once in DatabaseConfig.
 public class DatabaseConnection {
-    // SQLite database file path (relative to where application runs)
-    // Will be created in: ./data/inventory_db.sqlite
-    // Dynamic database path resolution
-    private static String getDatabasePath() {
-        // Try multiple paths for compatibility (IDE vs jpackage)
-        String[] possiblePaths = {
-            "data/inventory_db.sqlite",                    // IDE
-            "app/data/inventory_db.sqlite",                // jpackage
-            "../data/inventory_db.sqlite",                 // From app subfolder
-            System.getProperty("user.dir") + "/data/inventory_db.sqlite",
-            System.getProperty("user.dir") + "/app/data/inventory_db.sqlite"
-        };
-        
-        for (String path : possiblePaths) {
-            File f = new File(path);
-            if (f.exists()) {
-                System.out.println("[DatabaseConnection] Found database at: " + f.getAbsolutePath());
-                return f.getAbsolutePath();
+    private static volatile ConnectionPool pool;
+    private static volatile WriteExecutor writer;
+    private static boolean shutdownHookAdded;
+
+    // Borrow a pooled connection. Closing it returns it to the pool.
+    // On the writer thread this is the dedicated writer connection.
+    public static Connection getConnection() throws SQLException {
+        DaoMetrics.Call call = DaoMetrics.begin();
+        WriteExecutor w = writer;
+        PooledConnection pooled = (w != null && w.isWriterThread()) ? w.borrow() : getPool().borrow();
+        if (call != null) {
+            call.connectionAcquired();
+        }
+        return pooled.newHandle(call);
+    }
+
+    // Run a mutating DAO call on the writer thread and wait for its result.
+    // Returns fallback if the write could not be queued or was interrupted.
+    public static <T> T executeWrite(Callable<T> work, T fallback) {
+        try {
+            if (!config().isWalMode()) {
+                return work.call();
             }
+            return getWriter().execute(work);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            e.printStackTrace();
+        } catch (Exception e) {
+            e.printStackTrace();
         }
-        
-        // Default to app/data for jpackage environment if not found
-        File appDataDir = new File(System.getProperty("user.dir"), "app/data");
-        if (appDataDir.exists() || (appDataDir.getParentFile() != null && appDataDir.getParentFile().getName().equals("app"))) {
-            return appDataDir.getAbsolutePath() + File.separator + "inventory_db.sqlite";
+        return fallback;
+    }
+
+    // Queue a mutating DAO call without waiting; the future completes once it has run
+    public static <T> Future<T> submitWrite(Callable<T> work) {
+        if (!config().isWalMode()) {
+            FutureTask<T> task = new FutureTask<>(work);
+            task.run();
+            return task;
         }
-        
-        // Fallback to standard data directory
-        return new File(System.getProperty("user.dir"), "data/inventory_db.sqlite").getAbsolutePath();
+        return getWriter().submit(work);
+    }
+
+    public static boolean isWalMode() {
+        return config().isWalMode();
     }
 
-    private static final String URL_PREFIX = "jdbc:sqlite:";
+    // Path, driver and pool settings resolved at startup (see DatabaseConfig)
+    public static DatabaseConfig config() {
+        return DatabaseConfig.get();
+    }
 
-    public static Connection getConnection() throws SQLException {
-        try {
-            // Get dynamic database path
-            String dbPath = getDatabasePath();
-            System.out.println("[DatabaseConnection] Using database at: " + dbPath);
-            
-            // Ensure database directory exists
-            File dbFile = new File(dbPath);
-            File dbDir = dbFile.getParentFile();
-            if (dbDir != null && !dbDir.exists()) {
-                dbDir.mkdirs();
+    // Re-resolve the configuration (e.g. after the database file was moved or ims.properties
+    // was edited) and restart the pool so new connections use it. Call while no DAO work is running.
+    public static synchronized DatabaseConfig reloadConfig() {
+        shutdown();
+        DatabaseConfig c = DatabaseConfig.reload();
+        System.out.println("[DatabaseConnection] Configuration reloaded: " + c);
+        return c;
+    }
+
+    // Connections currently borrowed from the read pool
+    public static int getActiveConnectionCount() {
+        ConnectionPool p = pool;
+        return p != null ? p.getActiveCount() : 0;
+    }
+
+    // Open connections waiting in the read pool
+    public static int getIdleConnectionCount() {
+        ConnectionPool p = pool;
+        return p != null ? p.getIdleCount() : 0;
+    }
+
+    // Prepared statements served from the per-connection statement cache
+    public static long getStatementCacheHits() {
+        return StatementCache.getHitCount();
+    }
+
+    // Prepared statements that had to be parsed and planned by SQLite
+    public static long getStatementCacheMisses() {
+        return StatementCache.getMissCount();
+    }
+
+    // Open the minimum number of idle connections ahead of the first query
+    public static void warmUp() {
+        getPool().warmUp();
+    }
+
+    // Close all pooled connections (called on application exit)
+    public static synchronized void shutdown() {
+        if (writer != null) {
+            writer.shutdown();
+            writer = null;
+        }
+        if (pool != null) {
+            pool.shutdown();
+            pool = null;
+        }
+    }
+
+    private static ConnectionPool getPool() {
+        ConnectionPool p = pool;
+        if (p == null) {
+            synchronized (DatabaseConnection.class) {
+                p = pool;
+                if (p == null) {
+                    DatabaseConfig c = config();
+                    p = new ConnectionPool(DatabaseConnection::openPhysicalConnection, c.getPoolSize(), c.getPoolMinIdle(),
+                            c.getPoolIdleTimeoutMs(), c.getPoolBorrowTimeoutMs(), c.getPoolValidationIntervalMs());
+                    pool = p;
+                    if (!shutdownHookAdded) {
+                        Runtime.getRuntime().addShutdownHook(new Thread(DatabaseConnection::shutdown, "ConnectionPoolShutdown"));
+                        shutdownHookAdded = true;
+                    }
+                    System.out.println("[DatabaseConnection] Connection pool started (max " + c.getPoolSize()
+                            + " connections) on " + c.getDatabasePath());
+                }
             }
-            
-            // Load SQLite JDBC driver
-            Class.forName("org.sqlite.JDBC");
-            
-            // Create connection (SQLite will create file if it doesn't exist)
-            Connection conn = DriverManager.getConnection(URL_PREFIX + dbPath);
-            
+        }
+        return p;
+    }
+
+    private static WriteExecutor getWriter() {
+        WriteExecutor w = writer;
+        if (w == null) {
+            synchronized (DatabaseConnection.class) {
+                w = writer;
+                if (w == null) {
+                    getPool(); // Registers the shutdown hook
+                    w = new WriteExecutor(DatabaseConnection::openPhysicalConnection);
+                    writer = w;
+                }
+            }
+        }
+        return w;
+    }
+
+    // Open a new physical connection with the per-connection PRAGMAs applied.
+    // Path and driver come from the cached configuration, so no file probing happens here.
+    private static Connection openPhysicalConnection() throws SQLException {
+        DatabaseConfig c = config();
+        if (!c.isDriverLoaded()) {
+            throw new SQLException(c.getDriverError());
+        }
+        c.ensureDatabaseDirectory();
+
+        // Create connection (SQLite will create file if it doesn't exist)
+        Connection conn = DriverManager.getConnection(c.getUrl());
+
+        try (Statement stmt = conn.createStatement()) {
             // Enable foreign keys (SQLite requires this to be enabled)
-            conn.createStatement().execute("PRAGMA foreign_keys = ON");
-            
-            return conn;
-        } catch (ClassNotFoundException e) {
-            throw new SQLException("SQLite JDBC Driver not found. Please add sqlite-jdbc.jar to your classpath.", e);
+            stmt.execute("PRAGMA foreign_keys = ON");
+            // Wait for a competing writer instead of failing immediately with SQLITE_BUSY
+            stmt.execute("PRAGMA busy_timeout = " + c.getBusyTimeoutMs());
+            if (c.isWalMode()) {
+                // Readers no longer block the writer; NORMAL sync is durable enough under WAL
+                stmt.execute("PRAGMA journal_mode = WAL");
+                stmt.execute("PRAGMA synchronous = NORMAL");
+            } else {
+                stmt.execute("PRAGMA journal_mode = DELETE");
+            }
         }
+
+        return conn;
     }
 
     public static void closeResources(ResultSet rs, PreparedStatement ps, Connection conn) {
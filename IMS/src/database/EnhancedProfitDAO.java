@@ -5,6 +5,12 @@ import java.util.ArrayList;
 import java.util.List;
 
 // ============= ENHANCED PROFIT CALCULATION DAO =============
+// Revenue, COGS, bill and unit counts come from the daily sales rollup and expenses from the
+// expenses table. Each side is aggregated per manager on its own and the results are joined
+// afterwards, so one manager's bills are never multiplied by their bill items or expenses.
+// Date ranges compare the integer day columns (sale_day, expense_day), so they are index
+// range scans on (manager_id, day). Both hold local days (see LocalDay), the calendar of the
+// dates passed in.
 public class EnhancedProfitDAO {
 
     // Manager Performance Model
@@ -50,54 +56,7 @@ public class EnhancedProfitDAO {
 
     // Get comprehensive manager performance data
     public static List<ManagerPerformance> getManagerPerformanceReport() {
-        Connection conn = null;
-        PreparedStatement ps = null;
-        ResultSet rs = null;
-        List<ManagerPerformance> performances = new ArrayList<>();
-
-        try {
-            conn = DatabaseConnection.getConnection();
-
-            // Complex query to calculate revenue, COGS, and expenses per manager
-            String sql = "SELECT " +
-                    "m.id as manager_id, " +
-                    "m.name as manager_name, " +
-                    "COALESCE(SUM(b.total_amount), 0) as total_revenue, " +
-                    "COALESCE(SUM(bi.quantity * ci.buying_price), 0) as total_cogs, " +
-                    "COALESCE(SUM(e.amount), 0) as total_expenses, " +
-                    "COUNT(DISTINCT b.id) as total_bills, " +
-                    "COALESCE(SUM(bi.quantity), 0) as total_products_sold " +
-                    "FROM users m " +
-                    "LEFT JOIN bills b ON m.id = b.manager_id AND b.status = 'COMPLETED' " +
-                    "LEFT JOIN bill_items bi ON b.id = bi.bill_id " +
-                    "LEFT JOIN manager_inventory mi ON bi.manager_inventory_id = mi.id " +
-                    "LEFT JOIN ceo_inventory ci ON mi.ceo_inventory_id = ci.id " +
-                    "LEFT JOIN expenses e ON m.id = e.manager_id " +
-                    "WHERE m.role = 'MANAGER' AND m.status = 'ACTIVE' " +
-                    "GROUP BY m.id, m.name " +
-                    "ORDER BY total_revenue DESC";
-
-            ps = conn.prepareStatement(sql);
-            rs = ps.executeQuery();
-
-            while (rs.next()) {
-                ManagerPerformance performance = new ManagerPerformance(
-                        rs.getInt("manager_id"),
-                        rs.getString("manager_name"),
-                        rs.getDouble("total_revenue"),
-                        rs.getDouble("total_cogs"),
-                        rs.getDouble("total_expenses"),
-                        rs.getInt("total_bills"),
-                        rs.getInt("total_products_sold")
-                );
-                performances.add(performance);
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-        } finally {
-            DatabaseConnection.closeResources(rs, ps, conn);
-        }
-        return performances;
+        return queryManagerPerformance(null, null);
     }
 
     // Get system-wide totals
@@ -110,15 +69,9 @@ public class EnhancedProfitDAO {
             conn = DatabaseConnection.getConnection();
 
             String sql = "SELECT " +
-                    "COALESCE(SUM(b.total_amount), 0) as total_revenue, " +
-                    "COALESCE(SUM(bi.quantity * ci.buying_price), 0) as total_cogs, " +
-                    "COALESCE(SUM(e.amount), 0) as total_expenses " +
-                    "FROM bills b " +
-                    "LEFT JOIN bill_items bi ON b.id = bi.bill_id " +
-                    "LEFT JOIN manager_inventory mi ON bi.manager_inventory_id = mi.id " +
-                    "LEFT JOIN ceo_inventory ci ON mi.ceo_inventory_id = ci.id " +
-                    "LEFT JOIN expenses e ON b.manager_id = e.manager_id " +
-                    "WHERE b.status = 'COMPLETED'";
+                    "(SELECT COALESCE(SUM(revenue), 0) FROM daily_sales_summary) as total_revenue, " +
+                    "(SELECT COALESCE(SUM(cogs), 0) FROM daily_sales_summary) as total_cogs, " +
+                    "(SELECT COALESCE(SUM(amount), 0) FROM expenses) as total_expenses";
 
             ps = conn.prepareStatement(sql);
             rs = ps.executeQuery();
@@ -160,13 +113,21 @@ public class EnhancedProfitDAO {
         public double getNetProfit() { return netProfit; }
     }
 
-    // Get manager performance for specific date range
+    // Get manager performance for specific date range (both days included)
     public static List<ManagerPerformance> getManagerPerformanceByDateRange(
             java.sql.Date startDate, java.sql.Date endDate) {
+        return queryManagerPerformance(startDate.toLocalDate().toEpochDay(), endDate.toLocalDate().toEpochDay());
+    }
+
+    // Sales and expenses are each summed per manager on their own, then combined one row per
+    // manager. fromDay/toDay are epoch days, or null for all time. For a range the rollup is
+    // scanned by sale_day and each manager's expenses by (manager_id, expense_day).
+    private static List<ManagerPerformance> queryManagerPerformance(Long fromDay, Long toDay) {
         Connection conn = null;
         PreparedStatement ps = null;
         ResultSet rs = null;
         List<ManagerPerformance> performances = new ArrayList<>();
+        boolean ranged = fromDay != null;
 
         try {
             conn = DatabaseConnection.getConnection();
@@ -174,28 +135,33 @@ public class EnhancedProfitDAO {
             String sql = "SELECT " +
                     "m.id as manager_id, " +
                     "m.name as manager_name, " +
-                    "COALESCE(SUM(b.total_amount), 0) as total_revenue, " +
-                    "COALESCE(SUM(bi.quantity * ci.buying_price), 0) as total_cogs, " +
-                    "COALESCE(SUM(e.amount), 0) as total_expenses, " +
-                    "COUNT(DISTINCT b.id) as total_bills, " +
-                    "COALESCE(SUM(bi.quantity), 0) as total_products_sold " +
+                    "COALESCE(s.revenue, 0) as total_revenue, " +
+                    "COALESCE(s.cogs, 0) as total_cogs, " +
+                    (ranged
+                            ? "(SELECT COALESCE(SUM(e.amount), 0) FROM expenses e " +
+                              " WHERE e.manager_id = m.id AND e.expense_day BETWEEN ? AND ?) as total_expenses, "
+                            : "COALESCE(e.expenses, 0) as total_expenses, ") +
+                    "COALESCE(s.bills, 0) as total_bills, " +
+                    "COALESCE(s.units, 0) as total_products_sold " +
                     "FROM users m " +
-                    "LEFT JOIN bills b ON m.id = b.manager_id AND b.status = 'COMPLETED' " +
-                    "AND DATE(b.bill_date) BETWEEN ? AND ? " +
-                    "LEFT JOIN bill_items bi ON b.id = bi.bill_id " +
-                    "LEFT JOIN manager_inventory mi ON bi.manager_inventory_id = mi.id " +
-                    "LEFT JOIN ceo_inventory ci ON mi.ceo_inventory_id = ci.id " +
-                    "LEFT JOIN expenses e ON m.id = e.manager_id " +
-                    "AND DATE(e.expense_date) BETWEEN ? AND ? " +
+                    "LEFT JOIN (SELECT manager_id, SUM(revenue) as revenue, SUM(cogs) as cogs, " +
+                    "  SUM(bill_count) as bills, SUM(units) as units " +
+                    "  FROM daily_sales_summary " +
+                    (ranged ? "  WHERE sale_day BETWEEN ? AND ? " : "") +
+                    "  GROUP BY manager_id) s ON s.manager_id = m.id " +
+                    (ranged ? "" :
+                     "LEFT JOIN (SELECT manager_id, SUM(amount) as expenses " +
+                     "  FROM expenses GROUP BY manager_id) e ON e.manager_id = m.id ") +
                     "WHERE m.role = 'MANAGER' AND m.status = 'ACTIVE' " +
-                    "GROUP BY m.id, m.name " +
                     "ORDER BY total_revenue DESC";
 
             ps = conn.prepareStatement(sql);
-            ps.setDate(1, startDate);
-            ps.setDate(2, endDate);
-            ps.setDate(3, startDate);
-            ps.setDate(4, endDate);
+            if (ranged) {
+                ps.setLong(1, fromDay);
+                ps.setLong(2, toDay);
+                ps.setLong(3, fromDay);
+                ps.setLong(4, toDay);
+            }
             rs = ps.executeQuery();
 
             while (rs.next()) {
@@ -218,4 +184,3 @@ public class EnhancedProfitDAO {
         return performances;
     }
 }
-
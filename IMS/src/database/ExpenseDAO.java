@@ -44,6 +44,98 @@ public class ExpenseDAO {
         return expenses;
     }
 
+    // ============= PAGED EXPENSE LISTING =============
+
+    // One page of expenses, newest first, optionally of one category (null for all): the rows
+    // after the cursor, or (with a null cursor) the rows from offset on.
+    // Ordered by (expense_day, id): expense_date mixes epoch milliseconds and timestamp text,
+    // which do not sort together, while expense_day is a plain indexed integer.
+    public static Page<Expense> getExpensesPage(String category, Page.Cursor after, int offset, int limit) {
+        Connection conn = null;
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+        List<Expense> expenses = new ArrayList<>();
+        Page.Cursor next = null;
+
+        try {
+            conn = DatabaseConnection.getConnection();
+            String sql = "SELECT e.*, u.name as manager_name FROM expenses e " +
+                    "JOIN users u ON e.manager_id = u.id " +
+                    "WHERE 1 = 1 " +
+                    (category != null ? "AND e.category = ? " : "") +
+                    (after != null ? "AND (e.expense_day, e.id) < (?, ?) " : "") +
+                    "ORDER BY e.expense_day DESC, e.id DESC " +
+                    "LIMIT ?" +
+                    (after == null && offset > 0 ? " OFFSET ?" : "");
+            ps = conn.prepareStatement(sql);
+            int i = 1;
+            if (category != null) {
+                ps.setString(i++, category);
+            }
+            if (after != null) {
+                ps.setObject(i++, after.sortValue);
+                ps.setInt(i++, after.id);
+            }
+            ps.setInt(i++, limit + 1);
+            if (after == null && offset > 0) {
+                ps.setInt(i, offset);
+            }
+            rs = ps.executeQuery();
+
+            long lastDay = 0;
+            while (rs.next()) {
+                if (expenses.size() == limit) {
+                    next = new Page.Cursor(lastDay, expenses.get(expenses.size() - 1).getId());
+                    break;
+                }
+                lastDay = rs.getLong("expense_day");
+                Expense expense = new Expense(
+                        rs.getInt("id"),
+                        rs.getInt("manager_id"),
+                        rs.getString("description"),
+                        rs.getDouble("amount"),
+                        rs.getString("category"),
+                        rs.getString("manager_name"),
+                        rs.getDate("expense_date"),
+                        rs.getTimestamp("recorded_date")
+                );
+                expenses.add(expense);
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        } finally {
+            DatabaseConnection.closeResources(rs, ps, conn);
+        }
+        return new Page<>(expenses, next);
+    }
+
+    // Number and total amount of the expenses of one category (null for all)
+    public static Page.Totals getExpenseTotals(String category) {
+        Connection conn = null;
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+
+        try {
+            conn = DatabaseConnection.getConnection();
+            String sql = "SELECT COUNT(*) as count, COALESCE(SUM(amount), 0) as total FROM expenses" +
+                    (category != null ? " WHERE category = ?" : "");
+            ps = conn.prepareStatement(sql);
+            if (category != null) {
+                ps.setString(1, category);
+            }
+            rs = ps.executeQuery();
+
+            if (rs.next()) {
+                return new Page.Totals(rs.getInt("count"), rs.getDouble("total"));
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        } finally {
+            DatabaseConnection.closeResources(rs, ps, conn);
+        }
+        return new Page.Totals(0, 0);
+    }
+
     // Get total expenses amount
     public static double getTotalExpenses() {
         Connection conn = null;
@@ -131,19 +223,31 @@ public class ExpenseDAO {
     // Add new expense
     public static boolean addExpense(int managerId, String description, double amount,
                                      String category, java.util.Date expenseDate) {
+        boolean added = DatabaseConnection.executeWrite(() -> doAddExpense(managerId, description, amount, category, expenseDate), false);
+        if (added) {
+            ManagerDAO.invalidateManagerStats(managerId);
+            CEODAO.invalidateCEOSummary();
+        }
+        return added;
+    }
+
+    private static boolean doAddExpense(int managerId, String description, double amount,
+                                        String category, java.util.Date expenseDate) {
         Connection conn = null;
         PreparedStatement ps = null;
 
         try {
             conn = DatabaseConnection.getConnection();
-            String sql = "INSERT INTO expenses (manager_id, description, amount, category, expense_date) " +
-                    "VALUES (?, ?, ?, ?, ?)";
+            String sql = "INSERT INTO expenses (manager_id, description, amount, category, expense_date, expense_day) " +
+                    "VALUES (?, ?, ?, ?, ?, ?)";
+            java.sql.Date date = new java.sql.Date(expenseDate.getTime());
             ps = conn.prepareStatement(sql);
             ps.setInt(1, managerId);
             ps.setString(2, description);
             ps.setDouble(3, amount);
             ps.setString(4, category);
-            ps.setDate(5, new java.sql.Date(expenseDate.getTime()));
+            ps.setDate(5, date);
+            ps.setLong(6, LocalDay.of(expenseDate.getTime()));
 
             return ps.executeUpdate() > 0;
         } catch (SQLException e) {
@@ -0,0 +1,196 @@
+package database;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.*;
+import java.util.Map;
+import java.util.TreeMap;
+
+// ============= INSTRUMENTED STATEMENT =============
+// Wraps the statements handed to a DAO so the rows it reads are counted against the
+// DAO method that borrowed the connection (see DaoMetrics), and statements that run longer
+// than the slow-query threshold are logged with their parameters (see SlowQueryLog).
+// In leak-detection mode the statement and its result sets are tracked too (see LeakDetector).
+// A query is timed from execute until its result set is exhausted or closed, since SQLite
+// does most of the work of a scan while the rows are being stepped through.
+class InstrumentedStatement implements InvocationHandler {
+    private final Statement target;
+    private final DaoMetrics.Call call;   // null when metrics are off
+    private final String preparedSql;     // null for plain statements
+    private final LeakDetector.Resource leak;
+
+    // Parameters bound since the last clearParameters()
+    private final Map<Integer, Object> params = new TreeMap<>();
+    private int batchSize;
+
+    // The execution being timed, if any
+    private String pendingSql;
+    private long pendingNanos;
+    private long pendingRows = -1;
+    private LeakDetector.Resource openResultSet;
+
+    private InstrumentedStatement(Statement target, String preparedSql, DaoMetrics.Call call,
+                                  LeakDetector.Resource connection) {
+        this.target = target;
+        this.preparedSql = preparedSql;
+        this.call = call;
+        this.leak = LeakDetector.opened(LeakDetector.Resource.STATEMENT, preparedSql, connection);
+    }
+
+    static Statement wrap(Statement target, String preparedSql, DaoMetrics.Call call,
+                          LeakDetector.Resource connection) {
+        Class<?> type = target instanceof CallableStatement ? CallableStatement.class
+                : target instanceof PreparedStatement ? PreparedStatement.class
+                : Statement.class;
+        return (Statement) Proxy.newProxyInstance(
+                Statement.class.getClassLoader(),
+                new Class<?>[]{type},
+                new InstrumentedStatement(target, preparedSql, call, connection));
+    }
+
+    static PreparedStatement wrap(PreparedStatement target, String sql, DaoMetrics.Call call,
+                                  LeakDetector.Resource connection) {
+        return (PreparedStatement) wrap((Statement) target, sql, call, connection);
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        String name = method.getName();
+        switch (name) {
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "close":
+                finishPending();
+                LeakDetector.closed(leak);
+                break;
+            case "clearParameters":
+                params.clear();
+                break;
+            case "addBatch":
+                if (args == null || args.length == 0) {
+                    batchSize++;
+                }
+                break;
+            case "clearBatch":
+                batchSize = 0;
+                break;
+            default:
+                if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                    // setInt(1, x), setString(2, s), setNull(3, Types.X) ...
+                    params.put((Integer) args[0], name.equals("setNull") ? null : args[1]);
+                }
+                break;
+        }
+
+        boolean executes = name.startsWith("execute");
+        if (executes) {
+            // Re-executing closes the previous result set
+            finishPending();
+            LeakDetector.closed(openResultSet);
+        }
+
+        long start = executes ? System.nanoTime() : 0;
+        Object result;
+        try {
+            result = method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+
+        if (!executes) {
+            return result;
+        }
+
+        String sql = preparedSql != null ? preparedSql
+                : (args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : null);
+        long elapsed = System.nanoTime() - start;
+        if (result instanceof ResultSet) {
+            // Keep timing while the rows are read
+            pendingSql = sql;
+            pendingNanos = elapsed;
+            pendingRows = 0;
+            openResultSet = LeakDetector.opened(LeakDetector.Resource.RESULT_SET, sql, leak);
+            return Proxy.newProxyInstance(
+                    ResultSet.class.getClassLoader(),
+                    new Class<?>[]{ResultSet.class},
+                    new RowCounter((ResultSet) result, openResultSet));
+        }
+        if (SlowQueryLog.isSlow(elapsed)) {
+            SlowQueryLog.record(target.getConnection(), sql, params, name.equals("executeBatch") ? batchSize : 0, elapsed, -1);
+        }
+        if (name.equals("executeBatch")) {
+            batchSize = 0;
+        }
+        return result;
+    }
+
+    // The current query is done: log it if it was slow
+    private void finishPending() {
+        if (pendingSql == null) {
+            return;
+        }
+        String sql = pendingSql;
+        pendingSql = null;
+        if (SlowQueryLog.isSlow(pendingNanos)) {
+            try {
+                SlowQueryLog.record(target.getConnection(), sql, params, 0, pendingNanos, pendingRows);
+            } catch (SQLException ignored) {
+                // Statement already closed; nothing to explain against
+            }
+        }
+    }
+
+    // Counts rows and read time as the DAO steps through a result set
+    private final class RowCounter implements InvocationHandler {
+        private final ResultSet target;
+        private final LeakDetector.Resource leak;
+
+        RowCounter(ResultSet target, LeakDetector.Resource leak) {
+            this.target = target;
+            this.leak = leak;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "next":
+                    return next();
+                case "close":
+                    finishPending();
+                    LeakDetector.closed(leak);
+                    break;
+                default:
+                    break;
+            }
+
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        private boolean next() throws SQLException {
+            long start = System.nanoTime();
+            boolean hasRow = target.next();
+            pendingNanos += System.nanoTime() - start;
+            if (hasRow) {
+                pendingRows++;
+                if (call != null) {
+                    call.addRow();
+                }
+            } else {
+                finishPending();
+            }
+            return hasRow;
+        }
+    }
+}
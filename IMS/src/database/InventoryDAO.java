@@ -11,24 +11,47 @@ public class InventoryDAO {
     // Add product to CEO's master inventory
     public static boolean addProductToCEOInventory(String productName, double buyingPrice,
                                                    int quantity, int minStockLevel) {
+        return DatabaseConnection.executeWrite(() -> doAddProductToCEOInventory(productName, buyingPrice, quantity, minStockLevel), false);
+    }
+
+    private static boolean doAddProductToCEOInventory(String productName, double buyingPrice,
+                                                      int quantity, int minStockLevel) {
         Connection conn = null;
         PreparedStatement ps = null;
+        ResultSet rs = null;
 
         try {
             conn = DatabaseConnection.getConnection();
+            conn.setAutoCommit(false);
             String sql = "INSERT INTO ceo_inventory (product_name, buying_price, total_quantity, min_stock_level) " +
                     "VALUES (?, ?, ?, ?)";
-            ps = conn.prepareStatement(sql);
+            ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
             ps.setString(1, productName);
             ps.setDouble(2, buyingPrice);
             ps.setInt(3, quantity);
             ps.setInt(4, minStockLevel);
 
-            return ps.executeUpdate() > 0;
+            if (ps.executeUpdate() == 0) {
+                conn.rollback();
+                return false;
+            }
+            rs = ps.getGeneratedKeys();
+            if (rs.next() && quantity != 0) {
+                InventoryLedgerDAO.record(conn, InventoryLedgerDAO.WAREHOUSE, rs.getInt(1), quantity,
+                        InventoryLedgerDAO.RECEIPT, null);
+            }
+
+            conn.commit();
+            return true;
         } catch (SQLException e) {
+            try {
+                if (conn != null) conn.rollback();
+            } catch (SQLException ex) {
+                ex.printStackTrace();
+            }
             e.printStackTrace();
         } finally {
-            DatabaseConnection.closeResources(null, ps, conn);
+            DatabaseConnection.closeResources(rs, ps, conn);
         }
         return false;
     }
@@ -65,14 +88,75 @@ public class InventoryDAO {
         return inventory;
     }
 
+    // One page of the master inventory ordered by (product_name, id): the rows after the
+    // cursor, or (with a null cursor) the rows from offset on
+    public static Page<CEOInventory> getCEOInventoryPage(Page.Cursor after, int offset, int limit) {
+        Connection conn = null;
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+        List<CEOInventory> inventory = new ArrayList<>();
+        Page.Cursor next = null;
+
+        try {
+            conn = DatabaseConnection.getConnection();
+            String sql = "SELECT * FROM ceo_inventory " +
+                    (after != null ? "WHERE (product_name, id) > (?, ?) " : "") +
+                    "ORDER BY product_name, id " +
+                    "LIMIT ?" +
+                    (after == null && offset > 0 ? " OFFSET ?" : "");
+            ps = conn.prepareStatement(sql);
+            int i = 1;
+            if (after != null) {
+                ps.setObject(i++, after.sortValue);
+                ps.setInt(i++, after.id);
+            }
+            ps.setInt(i++, limit + 1);
+            if (after == null && offset > 0) {
+                ps.setInt(i, offset);
+            }
+            rs = ps.executeQuery();
+
+            while (rs.next()) {
+                if (inventory.size() == limit) {
+                    CEOInventory last = inventory.get(inventory.size() - 1);
+                    next = new Page.Cursor(last.getProductName(), last.getId());
+                    break;
+                }
+                CEOInventory item = new CEOInventory(
+                        rs.getInt("id"),
+                        rs.getString("product_name"),
+                        rs.getDouble("buying_price"),
+                        rs.getInt("total_quantity"),
+                        rs.getInt("min_stock_level"),
+                        rs.getTimestamp("created_date")
+                );
+                inventory.add(item);
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        } finally {
+            DatabaseConnection.closeResources(rs, ps, conn);
+        }
+        return new Page<>(inventory, next);
+    }
+
     // Update product in CEO's inventory
     public static boolean updateCEOInventory(int productId, String productName, double buyingPrice,
                                              int quantity, int minStockLevel) {
+        return DatabaseConnection.executeWrite(() -> doUpdateCEOInventory(productId, productName, buyingPrice, quantity, minStockLevel), false);
+    }
+
+    private static boolean doUpdateCEOInventory(int productId, String productName, double buyingPrice,
+                                                int quantity, int minStockLevel) {
         Connection conn = null;
         PreparedStatement ps = null;
 
         try {
             conn = DatabaseConnection.getConnection();
+            conn.setAutoCommit(false);
+            // The ledger records the difference to the quantity being replaced
+            InventoryLedgerDAO.recordWarehouseQuantity(conn, productId, quantity);
+
             String sql = "UPDATE ceo_inventory SET product_name = ?, buying_price = ?, " +
                     "total_quantity = ?, min_stock_level = ? WHERE id = ?";
             ps = conn.prepareStatement(sql);
@@ -82,8 +166,18 @@ public class InventoryDAO {
             ps.setInt(4, minStockLevel);
             ps.setInt(5, productId);
 
-            return ps.executeUpdate() > 0;
+            if (ps.executeUpdate() == 0) {
+                conn.rollback();
+                return false;
+            }
+            conn.commit();
+            return true;
         } catch (SQLException e) {
+            try {
+                if (conn != null) conn.rollback();
+            } catch (SQLException ex) {
+                ex.printStackTrace();
+            }
             e.printStackTrace();
         } finally {
             DatabaseConnection.closeResources(null, ps, conn);
@@ -93,17 +187,35 @@ public class InventoryDAO {
 
     // Delete product from CEO's inventory
     public static boolean deleteFromCEOInventory(int productId) {
+        return DatabaseConnection.executeWrite(() -> doDeleteFromCEOInventory(productId), false);
+    }
+
+    private static boolean doDeleteFromCEOInventory(int productId) {
         Connection conn = null;
         PreparedStatement ps = null;
 
         try {
             conn = DatabaseConnection.getConnection();
+            conn.setAutoCommit(false);
+            // Stores' rows go with the product (ON DELETE CASCADE); the ledger keeps the removal
+            InventoryLedgerDAO.recordProductRemoval(conn, productId);
+
             String sql = "DELETE FROM ceo_inventory WHERE id = ?";
             ps = conn.prepareStatement(sql);
             ps.setInt(1, productId);
 
-            return ps.executeUpdate() > 0;
+            if (ps.executeUpdate() == 0) {
+                conn.rollback();
+                return false;
+            }
+            conn.commit();
+            return true;
         } catch (SQLException e) {
+            try {
+                if (conn != null) conn.rollback();
+            } catch (SQLException ex) {
+                ex.printStackTrace();
+            }
             e.printStackTrace();
         } finally {
             DatabaseConnection.closeResources(null, ps, conn);
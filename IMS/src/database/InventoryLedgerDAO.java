@@ -0,0 +1,283 @@
+package database;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+// ============= INVENTORY MOVEMENT LEDGER =============
+// inventory_movements records every change to ceo_inventory.total_quantity and
+// manager_inventory.current_quantity as a signed row, written in the same transaction as the
+// change itself, so the ledger always adds up to the live quantities. Rows are never updated
+// or deleted. Location 0 is the CEO's master inventory, any other location a manager's store.
+//
+// Every SNAPSHOT_INTERVAL_DAYS days the stock at the end of the previous (local) day is written
+// to inventory_snapshots, compacted from the last snapshot plus the movements since. A stock
+// as-of-date query starts from the latest snapshot on or before that day and replays only the
+// movements after it.
+public class InventoryLedgerDAO {
+
+    // Location of the CEO's master inventory
+    public static final int WAREHOUSE = 0;
+
+    public static final String OPENING = "OPENING";       // Stock that existed before the ledger
+    public static final String RECEIPT = "RECEIPT";       // New stock from outside the business
+    public static final String TRANSFER = "TRANSFER";     // Between locations (one row per side)
+    public static final String SALE = "SALE";
+    public static final String ADJUSTMENT = "ADJUSTMENT"; // Manual corrections and removals
+    public static final String RETURN = "RETURN";
+
+    private static final int SNAPSHOT_INTERVAL_DAYS = Integer.getInteger("ims.ledger.snapshotIntervalDays", 7);
+
+    private static final String INSERT_SQL = "INSERT INTO inventory_movements " +
+            "(manager_id, ceo_inventory_id, quantity_change, movement_type, reference, movement_day) " +
+            "VALUES (?, ?, ?, ?, ?, ?)";
+
+    // ============= RECORDING (inside the caller's transaction) =============
+
+    // Record one movement
+    static void record(Connection conn, int managerId, int ceoInventoryId, int change,
+                       String type, String reference) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(INSERT_SQL)) {
+            bind(ps, managerId, ceoInventoryId, change, type, reference);
+            ps.executeUpdate();
+        }
+    }
+
+    // Statement for recording many movements with add(...) and executeBatch()
+    static PreparedStatement prepareBatch(Connection conn) throws SQLException {
+        return conn.prepareStatement(INSERT_SQL);
+    }
+
+    static void add(PreparedStatement ps, int managerId, int ceoInventoryId, int change,
+                    String type, String reference) throws SQLException {
+        bind(ps, managerId, ceoInventoryId, change, type, reference);
+        ps.addBatch();
+    }
+
+    private static void bind(PreparedStatement ps, int managerId, int ceoInventoryId, int change,
+                             String type, String reference) throws SQLException {
+        ps.setInt(1, managerId);
+        ps.setInt(2, ceoInventoryId);
+        ps.setInt(3, change);
+        ps.setString(4, type);
+        ps.setString(5, reference);
+        ps.setLong(6, LocalDay.today());
+    }
+
+    // Record a change to one manager_inventory row
+    static void recordStoreChange(Connection conn, int managerInventoryId, int change, String type) throws SQLException {
+        String sql = "INSERT INTO inventory_movements " +
+                "(manager_id, ceo_inventory_id, quantity_change, movement_type, reference, movement_day) " +
+                "SELECT manager_id, ceo_inventory_id, ?, ?, NULL, ? " +
+                "FROM manager_inventory WHERE id = ?";
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, change);
+            ps.setString(2, type);
+            ps.setLong(3, LocalDay.today());
+            ps.setInt(4, managerInventoryId);
+            ps.executeUpdate();
+        }
+    }
+
+    // Record the stock a freshly written bill took off its store's shelf, one row per product
+    static void recordBill(Connection conn, int billId) throws SQLException {
+        String sql = "INSERT INTO inventory_movements " +
+                "(manager_id, ceo_inventory_id, quantity_change, movement_type, reference, movement_day) " +
+                "SELECT b.manager_id, mi.ceo_inventory_id, -SUM(bi.quantity), '" + SALE + "', b.bill_number, b.bill_day " +
+                "FROM bills b " +
+                "JOIN bill_items bi ON bi.bill_id = b.id " +
+                "JOIN manager_inventory mi ON bi.manager_inventory_id = mi.id " +
+                "WHERE b.id = ? " +
+                "GROUP BY mi.ceo_inventory_id";
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, billId);
+            ps.executeUpdate();
+        }
+    }
+
+    // Record that a CEO product's quantity is about to be set to newQuantity (before the UPDATE)
+    static void recordWarehouseQuantity(Connection conn, int ceoInventoryId, int newQuantity) throws SQLException {
+        String sql = "INSERT INTO inventory_movements " +
+                "(manager_id, ceo_inventory_id, quantity_change, movement_type, reference, movement_day) " +
+                "SELECT " + WAREHOUSE + ", id, ? - total_quantity, '" + ADJUSTMENT + "', NULL, ? " +
+                "FROM ceo_inventory WHERE id = ? AND total_quantity <> ?";
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, newQuantity);
+            ps.setLong(2, LocalDay.today());
+            ps.setInt(3, ceoInventoryId);
+            ps.setInt(4, newQuantity);
+            ps.executeUpdate();
+        }
+    }
+
+    // Record the removal of all stock of a CEO product, in every location (before it is deleted)
+    static void recordProductRemoval(Connection conn, int ceoInventoryId) throws SQLException {
+        String sql = "INSERT INTO inventory_movements " +
+                "(manager_id, ceo_inventory_id, quantity_change, movement_type, reference, movement_day) " +
+                "SELECT " + WAREHOUSE + ", id, -total_quantity, '" + ADJUSTMENT + "', 'DELETED', ? " +
+                "FROM ceo_inventory WHERE id = ? AND total_quantity <> 0 " +
+                "UNION ALL " +
+                "SELECT manager_id, ceo_inventory_id, -current_quantity, '" + ADJUSTMENT + "', 'DELETED', ? " +
+                "FROM manager_inventory WHERE ceo_inventory_id = ? AND current_quantity <> 0";
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            long day = LocalDay.today();
+            ps.setLong(1, day);
+            ps.setInt(2, ceoInventoryId);
+            ps.setLong(3, day);
+            ps.setInt(4, ceoInventoryId);
+            ps.executeUpdate();
+        }
+    }
+
+    // Record the current quantities as OPENING movements if the ledger is still empty
+    // (used by the schema upgrade); returns the number of rows written
+    public static int recordOpeningBalances(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT 1 FROM inventory_movements LIMIT 1")) {
+            if (rs.next()) {
+                return 0;
+            }
+        }
+        try (PreparedStatement ps = conn.prepareStatement("INSERT INTO inventory_movements " +
+                "(manager_id, ceo_inventory_id, quantity_change, movement_type, reference, movement_day) " +
+                "SELECT " + WAREHOUSE + ", id, total_quantity, '" + OPENING + "', NULL, ? " +
+                "FROM ceo_inventory WHERE total_quantity <> 0 " +
+                "UNION ALL " +
+                "SELECT manager_id, ceo_inventory_id, current_quantity, '" + OPENING + "', NULL, ? " +
+                "FROM manager_inventory WHERE current_quantity <> 0")) {
+            long day = LocalDay.today();
+            ps.setLong(1, day);
+            ps.setLong(2, day);
+            return ps.executeUpdate();
+        }
+    }
+
+    // ============= SNAPSHOTS =============
+
+    // Snapshot the end of yesterday if the latest snapshot is SNAPSHOT_INTERVAL_DAYS or more
+    // days older; returns the number of snapshot rows written (0 when not due, -1 on error)
+    public static int takeSnapshotIfDue() {
+        return DatabaseConnection.executeWrite(InventoryLedgerDAO::doTakeSnapshotIfDue, -1);
+    }
+
+    private static int doTakeSnapshotIfDue() {
+        Connection conn = null;
+        Statement stmt = null;
+        ResultSet rs = null;
+        PreparedStatement ps = null;
+
+        try {
+            conn = DatabaseConnection.getConnection();
+            conn.setAutoCommit(false);
+
+            stmt = conn.createStatement();
+            rs = stmt.executeQuery("SELECT MAX(snapshot_day) FROM inventory_snapshot_runs");
+            rs.next();
+            int day = (int) LocalDay.today() - 1;
+            int previous = rs.getObject(1) != null ? rs.getInt(1) : -1;
+            if (previous >= 0 && day - previous < SNAPSHOT_INTERVAL_DAYS) {
+                conn.rollback();
+                return 0;
+            }
+
+            // Previous snapshot plus the movements of the days after it, zero rows dropped
+            String sql = "INSERT INTO inventory_snapshots (snapshot_day, manager_id, ceo_inventory_id, quantity) " +
+                    "SELECT ?, manager_id, ceo_inventory_id, SUM(qty) FROM (" +
+                    "  SELECT manager_id, ceo_inventory_id, quantity as qty FROM inventory_snapshots " +
+                    "  WHERE snapshot_day = ? " +
+                    "  UNION ALL " +
+                    "  SELECT manager_id, ceo_inventory_id, quantity_change FROM inventory_movements " +
+                    "  WHERE movement_day > ? AND movement_day <= ?" +
+                    ") GROUP BY manager_id, ceo_inventory_id HAVING SUM(qty) <> 0";
+            ps = conn.prepareStatement(sql);
+            ps.setInt(1, day);
+            ps.setInt(2, previous);
+            ps.setInt(3, previous);
+            ps.setInt(4, day);
+            int rows = ps.executeUpdate();
+
+            stmt.executeUpdate("INSERT INTO inventory_snapshot_runs (snapshot_day) VALUES (" + day + ")");
+            conn.commit();
+            return rows;
+        } catch (SQLException e) {
+            try {
+                if (conn != null) conn.rollback();
+            } catch (SQLException ex) {
+                ex.printStackTrace();
+            }
+            e.printStackTrace();
+        } finally {
+            if (stmt != null) {
+                try { stmt.close(); } catch (SQLException e) { e.printStackTrace(); }
+            }
+            DatabaseConnection.closeResources(rs, ps, conn);
+        }
+        return -1;
+    }
+
+    // ============= STOCK AS OF A DATE =============
+
+    // Stock of one location (WAREHOUSE or a manager id) at the end of the given (local) day:
+    // the latest snapshot on or before that day plus the movements after it
+    public static List<StockLevel> getStockAsOf(int managerId, LocalDate date) {
+        Connection conn = null;
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+        List<StockLevel> stock = new ArrayList<>();
+
+        try {
+            conn = DatabaseConnection.getConnection();
+            String sql = "WITH base AS (SELECT COALESCE(MAX(snapshot_day), -1) as day " +
+                    "  FROM inventory_snapshot_runs WHERE snapshot_day <= ?) " +
+                    "SELECT s.ceo_inventory_id, ci.product_name, SUM(s.qty) as quantity FROM (" +
+                    "  SELECT ceo_inventory_id, quantity as qty FROM inventory_snapshots " +
+                    "  WHERE manager_id = ? AND snapshot_day = (SELECT day FROM base) " +
+                    "  UNION ALL " +
+                    "  SELECT ceo_inventory_id, quantity_change FROM inventory_movements " +
+                    "  WHERE manager_id = ? AND movement_day > (SELECT day FROM base) AND movement_day <= ?" +
+                    ") s " +
+                    "LEFT JOIN ceo_inventory ci ON ci.id = s.ceo_inventory_id " +
+                    "GROUP BY s.ceo_inventory_id HAVING SUM(s.qty) <> 0 " +
+                    "ORDER BY ci.product_name";
+            long day = date.toEpochDay();
+            ps = conn.prepareStatement(sql);
+            ps.setLong(1, day);
+            ps.setInt(2, managerId);
+            ps.setInt(3, managerId);
+            ps.setLong(4, day);
+            rs = ps.executeQuery();
+
+            while (rs.next()) {
+                stock.add(new StockLevel(
+                        rs.getInt("ceo_inventory_id"),
+                        rs.getString("product_name"),
+                        rs.getInt("quantity")
+                ));
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        } finally {
+            DatabaseConnection.closeResources(rs, ps, conn);
+        }
+        return stock;
+    }
+
+    // Quantity of one product in one location at a point in the past
+    public static class StockLevel {
+        private final int ceoInventoryId;
+        private final String productName;
+        private final int quantity;
+
+        public StockLevel(int ceoInventoryId, String productName, int quantity) {
+            this.ceoInventoryId = ceoInventoryId;
+            this.productName = productName;
+            this.quantity = quantity;
+        }
+
+        public int getCeoInventoryId() { return ceoInventoryId; }
+        // Null if the product has since been deleted
+        public String getProductName() { return productName; }
+        public int getQuantity() { return quantity; }
+    }
+}
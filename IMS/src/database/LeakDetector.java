@@ -0,0 +1,242 @@
+package database;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.management.ObjectName;
+
+// ============= JDBC LEAK DETECTOR =============
+// Debug mode (-Dims.db.leakDetection.enabled=true) that tracks every connection, statement
+// and result set handed out by DatabaseConnection together with the stack that opened it.
+// Reported to stderr:
+//  - anything still open after ims.db.leakDetection.thresholdMs (default 60000)
+//  - statements and result sets still open when their connection is returned to the pool
+//    (the pool closes them, but the DAO should have)
+// Live counts are published over JMX as ims:type=LeakDetector.
+public class LeakDetector implements LeakDetectorMXBean {
+
+    private static final boolean ENABLED = Boolean.getBoolean("ims.db.leakDetection.enabled");
+    private static final long THRESHOLD_MS = Long.getLong("ims.db.leakDetection.thresholdMs", 60 * 1000L);
+
+    private static final Set<Resource> open = ConcurrentHashMap.newKeySet();
+    private static final AtomicLong leaksReported = new AtomicLong();
+    private static final LeakDetector INSTANCE = new LeakDetector();
+
+    static {
+        if (ENABLED) {
+            try {
+                ManagementFactory.getPlatformMBeanServer()
+                        .registerMBean(INSTANCE, new ObjectName("ims:type=LeakDetector"));
+            } catch (Exception e) {
+                System.err.println("[LeakDetector] Could not register JMX bean: " + e.getMessage());
+            }
+            Timer timer = new Timer("LeakDetector", true); // Daemon thread
+            long interval = Math.max(1000, THRESHOLD_MS / 2);
+            timer.schedule(new TimerTask() {
+                @Override
+                public void run() {
+                    scan();
+                }
+            }, interval, interval);
+            System.out.println("[LeakDetector] Tracking JDBC resources, threshold " + THRESHOLD_MS + " ms");
+        }
+    }
+
+    private LeakDetector() {
+    }
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    public static LeakDetector getInstance() {
+        return INSTANCE;
+    }
+
+    // Start tracking a resource; null when detection is off
+    static Resource opened(String kind, String detail, Resource parent) {
+        if (!ENABLED) {
+            return null;
+        }
+        Resource r = new Resource(kind, detail, parent);
+        open.add(r);
+        if (parent != null) {
+            synchronized (parent.children) {
+                parent.children.add(r);
+            }
+        }
+        return r;
+    }
+
+    // The caller closed the resource. Closing a statement closes its result sets (as JDBC does).
+    static void closed(Resource r) {
+        if (r != null) {
+            release(r);
+        }
+    }
+
+    // A connection went back to the pool: anything the DAO left open under it is a leak
+    static void connectionReturned(Resource conn) {
+        if (conn == null) {
+            return;
+        }
+        for (Resource child : conn.openChildren()) {
+            report(child, "not closed before its connection was returned");
+        }
+        release(conn);
+    }
+
+    private static void release(Resource r) {
+        if (!r.markClosed()) {
+            return;
+        }
+        open.remove(r);
+        for (Resource child : r.openChildren()) {
+            release(child);
+        }
+    }
+
+    // Report everything that has been open longer than the threshold
+    private static void scan() {
+        long now = System.currentTimeMillis();
+        for (Resource r : open) {
+            if (!r.reported && now - r.openedAt >= THRESHOLD_MS) {
+                report(r, "open for " + (now - r.openedAt) + " ms");
+            }
+        }
+    }
+
+    private static void report(Resource r, String reason) {
+        if (r.reported) {
+            return;
+        }
+        r.reported = true;
+        leaksReported.incrementAndGet();
+        StringBuilder sb = new StringBuilder();
+        sb.append("[LeakDetector] ").append(r.kind).append(' ').append(reason)
+                .append(" (thread ").append(r.threadName).append(")");
+        if (r.detail != null) {
+            sb.append("\n  sql: ").append(r.detail.trim().replaceAll("\\s+", " "));
+        }
+        sb.append("\n  opened at:");
+        for (StackTraceElement frame : r.allocation.getStackTrace()) {
+            if (!isWrapperFrame(frame)) {
+                sb.append("\n    at ").append(frame);
+            }
+        }
+        System.err.println(sb);
+    }
+
+    // Frames of the pool and proxy classes are left out of allocation stacks
+    private static boolean isWrapperFrame(StackTraceElement frame) {
+        String cls = frame.getClassName();
+        return cls.startsWith("database.LeakDetector") || cls.startsWith("database.PooledConnection")
+                || cls.startsWith("database.InstrumentedStatement") || cls.startsWith("database.DatabaseConnection")
+                || cls.startsWith("jdk.proxy") || cls.startsWith("com.sun.proxy")
+                || cls.startsWith("java.lang.reflect") || cls.startsWith("jdk.internal.reflect");
+    }
+
+    private static int count(String kind) {
+        int n = 0;
+        for (Resource r : open) {
+            if (r.kind.equals(kind)) {
+                n++;
+            }
+        }
+        return n;
+    }
+
+    // ===== JMX =====
+
+    @Override
+    public int getOpenConnections() {
+        return count(Resource.CONNECTION);
+    }
+
+    @Override
+    public int getOpenStatements() {
+        return count(Resource.STATEMENT);
+    }
+
+    @Override
+    public int getOpenResultSets() {
+        return count(Resource.RESULT_SET);
+    }
+
+    @Override
+    public long getLeaksReported() {
+        return leaksReported.get();
+    }
+
+    @Override
+    public List<String> getOpenResources() {
+        long now = System.currentTimeMillis();
+        List<String> list = new ArrayList<>();
+        for (Resource r : open) {
+            StackTraceElement site = r.allocationSite();
+            list.add(r.kind + " open " + (now - r.openedAt) + " ms, thread " + r.threadName
+                    + (site != null ? ", at " + site : ""));
+        }
+        return list;
+    }
+
+    // One tracked connection, statement or result set
+    static final class Resource {
+        static final String CONNECTION = "Connection";
+        static final String STATEMENT = "Statement";
+        static final String RESULT_SET = "ResultSet";
+
+        private final String kind;
+        private final String detail;
+        private final String threadName;
+        private final long openedAt;
+        private final Throwable allocation;
+        private final List<Resource> children = new ArrayList<>();
+        private volatile boolean closed;
+        private volatile boolean reported;
+
+        private Resource(String kind, String detail, Resource parent) {
+            this.kind = kind;
+            this.detail = detail != null ? detail : (parent != null ? parent.detail : null);
+            this.threadName = Thread.currentThread().getName();
+            this.openedAt = System.currentTimeMillis();
+            this.allocation = new Throwable();
+        }
+
+        private synchronized boolean markClosed() {
+            if (closed) {
+                return false;
+            }
+            closed = true;
+            return true;
+        }
+
+        private List<Resource> openChildren() {
+            List<Resource> result = new ArrayList<>();
+            synchronized (children) {
+                for (Resource child : children) {
+                    if (!child.closed) {
+                        result.add(child);
+                    }
+                }
+                children.clear();
+            }
+            return result;
+        }
+
+        // First frame outside the database wrappers, i.e. the DAO line that opened it
+        private StackTraceElement allocationSite() {
+            for (StackTraceElement frame : allocation.getStackTrace()) {
+                if (!isWrapperFrame(frame)) {
+                    return frame;
+                }
+            }
+            return null;
+        }
+    }
+}
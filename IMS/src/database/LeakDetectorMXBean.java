@@ -0,0 +1,13 @@
+package database;
+
+import java.util.List;
+
+// ============= LEAK DETECTOR JMX INTERFACE =============
+// Published as ims:type=LeakDetector when -Dims.db.leakDetection.enabled=true
+public interface LeakDetectorMXBean {
+    int getOpenConnections();
+    int getOpenStatements();
+    int getOpenResultSets();
+    long getLeaksReported();
+    List<String> getOpenResources();
+}
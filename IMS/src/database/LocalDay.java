@@ -0,0 +1,68 @@
+package database;
+
+import java.sql.*;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+// ============= LOCAL DAY COLUMNS =============
+// bills.bill_day, expenses.expense_day, inventory_movements.movement_day and the rollups'
+// sale_day are epoch days of the local calendar (the JVM's default time zone), the same days
+// the UI's date pickers pass to the reports. Every day value is computed here and bound as a
+// parameter: SQLite's 'localtime' follows the operating system's zone rather than the JVM's,
+// and 'now' alone is UTC.
+public class LocalDay {
+
+    private static final int BATCH_SIZE = 1000;
+
+    // Epoch day of today
+    public static long today() {
+        return LocalDate.now().toEpochDay();
+    }
+
+    // Epoch day of an instant in epoch milliseconds
+    public static long of(long epochMillis) {
+        return Instant.ofEpochMilli(epochMillis).atZone(ZoneId.systemDefault()).toLocalDate().toEpochDay();
+    }
+
+    // Epoch day of a stored bill_date / expense_date / moved_at value: epoch milliseconds
+    // (dates bound from Java), UTC timestamp text (CURRENT_TIMESTAMP) or a bare date
+    public static long of(Object stored) {
+        if (stored instanceof Number) {
+            return of(((Number) stored).longValue());
+        }
+        String text = stored.toString().trim();
+        if (text.length() <= 10) {
+            return LocalDate.parse(text).toEpochDay();
+        }
+        LocalDateTime utc = LocalDateTime.parse(text.substring(0, 10) + "T" + text.substring(11));
+        return of(utc.toInstant(ZoneOffset.UTC).toEpochMilli());
+    }
+
+    // Recompute dayColumn from dateColumn on every row of table inside the caller's
+    // transaction (used by the schema upgrade); returns the number of rows set
+    public static int backfill(Connection conn, String table, String dateColumn, String dayColumn) throws SQLException {
+        int rows = 0;
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT id, " + dateColumn + " FROM " + table);
+             PreparedStatement ps = conn.prepareStatement(
+                     "UPDATE " + table + " SET " + dayColumn + " = ? WHERE id = ?")) {
+            while (rs.next()) {
+                Object stored = rs.getObject(2);
+                if (stored == null) {
+                    continue;
+                }
+                ps.setLong(1, of(stored));
+                ps.setInt(2, rs.getInt(1));
+                ps.addBatch();
+                if (++rows % BATCH_SIZE == 0) {
+                    ps.executeBatch();
+                }
+            }
+            ps.executeBatch();
+        }
+        return rows;
+    }
+}
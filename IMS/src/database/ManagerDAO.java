@@ -5,10 +5,113 @@ import models.CashierRequest;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 // ============= MANAGER DATA ACCESS LAYER =============
 public class ManagerDAO {
 
+    // How long a dashboard snapshot may be served from memory (0 disables the cache)
+    private static final long STATS_TTL_MS = Long.getLong("ims.dashboard.statsTtlMs", 5000L);
+    private static final Map<Integer, ManagerStats> statsCache = new ConcurrentHashMap<>();
+
+    // ============= DASHBOARD SNAPSHOT =============
+
+    // All dashboard figures for a manager, served from the cache while it is fresh
+    public static ManagerStats getManagerStats(int managerId) {
+        return getManagerStats(managerId, false);
+    }
+
+    // All dashboard figures for a manager; forceRefresh skips the cache (Refresh button)
+    public static ManagerStats getManagerStats(int managerId, boolean forceRefresh) {
+        if (!forceRefresh && STATS_TTL_MS > 0) {
+            ManagerStats cached = statsCache.get(managerId);
+            if (cached != null && System.currentTimeMillis() - cached.getComputedAt() < STATS_TTL_MS) {
+                return cached;
+            }
+        }
+        ManagerStats stats = loadManagerStats(managerId);
+        if (stats != null && STATS_TTL_MS > 0) {
+            statsCache.put(managerId, stats);
+        }
+        return stats;
+    }
+
+    // Drop the cached snapshot after a write that changes the manager's figures
+    public static void invalidateManagerStats(int managerId) {
+        statsCache.remove(managerId);
+    }
+
+    // One statement, so every figure comes from the same read snapshot
+    private static ManagerStats loadManagerStats(int managerId) {
+        Connection conn = null;
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+
+        try {
+            conn = DatabaseConnection.getConnection();
+            String sql = "SELECT " +
+                    "(SELECT COUNT(*) FROM cashier_manager " +
+                    " WHERE manager_id = ? AND status = 'ACTIVE') as cashiers, " +
+                    "(SELECT COUNT(*) FROM manager_inventory " +
+                    " WHERE manager_id = ? AND current_quantity > 0) as products, " +
+                    "(SELECT COALESCE(SUM(revenue), 0) FROM daily_sales_summary " +
+                    " WHERE manager_id = ?) as revenue, " +
+                    "(SELECT COALESCE(SUM(amount), 0) FROM expenses " +
+                    " WHERE manager_id = ?) as expenses, " +
+                    "(SELECT COUNT(*) FROM manager_inventory mi " +
+                    " JOIN ceo_inventory ci ON mi.ceo_inventory_id = ci.id " +
+                    " WHERE mi.manager_id = ? AND mi.current_quantity <= ci.min_stock_level) as low_stock";
+            ps = conn.prepareStatement(sql);
+            for (int i = 1; i <= 5; i++) {
+                ps.setInt(i, managerId);
+            }
+            rs = ps.executeQuery();
+
+            if (rs.next()) {
+                return new ManagerStats(managerId, rs.getInt("cashiers"), rs.getInt("products"),
+                        rs.getDouble("revenue"), rs.getDouble("expenses"), rs.getInt("low_stock"));
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        } finally {
+            DatabaseConnection.closeResources(rs, ps, conn);
+        }
+        return null;
+    }
+
+    public static class ManagerStats {
+        private final int managerId;
+        private final int cashiersCount;
+        private final int productsCount;
+        private final double revenue;
+        private final double expenses;
+        private final int lowStockCount;
+        private final long computedAt;
+
+        public ManagerStats(int managerId, int cashiersCount, int productsCount,
+                            double revenue, double expenses, int lowStockCount) {
+            this.managerId = managerId;
+            this.cashiersCount = cashiersCount;
+            this.productsCount = productsCount;
+            this.revenue = revenue;
+            this.expenses = expenses;
+            this.lowStockCount = lowStockCount;
+            this.computedAt = System.currentTimeMillis();
+        }
+
+        public int getManagerId() { return managerId; }
+        public int getCashiersCount() { return cashiersCount; }
+        public int getProductsCount() { return productsCount; }
+        public double getRevenue() { return revenue; }
+        public double getExpenses() { return expenses; }
+        public double getNetProfit() { return revenue - expenses; }
+        public int getLowStockCount() { return lowStockCount; }
+        public long getComputedAt() { return computedAt; }
+    }
+
+    // ============= INDIVIDUAL FIGURES =============
+
     // Get number of cashiers under this manager
     public static int getCashiersCount(int managerId) {
         Connection conn = null;
@@ -67,8 +170,8 @@ public class ManagerDAO {
 
         try {
             conn = DatabaseConnection.getConnection();
-            String sql = "SELECT SUM(total_amount) as total FROM bills " +
-                    "WHERE manager_id = ? AND status = 'COMPLETED'";
+            String sql = "SELECT SUM(revenue) as total FROM daily_sales_summary " +
+                    "WHERE manager_id = ?";
             ps = conn.prepareStatement(sql);
             ps.setInt(1, managerId);
             rs = ps.executeQuery();
@@ -138,6 +241,11 @@ public class ManagerDAO {
     // Request new cashier (add to cashier_manager with PENDING status)
     public static boolean requestCashier(int managerId, String name, String username,
                                          String password, String phone, String cnic, double salary) {
+        return DatabaseConnection.executeWrite(() -> doRequestCashier(managerId, name, username, password, phone, cnic, salary), false);
+    }
+
+    private static boolean doRequestCashier(int managerId, String name, String username,
+                                            String password, String phone, String cnic, double salary) {
         Connection conn = null;
         PreparedStatement ps1 = null;
         PreparedStatement ps2 = null;
@@ -8,6 +8,17 @@ import java.util.List;
 // ============= MANAGER INVENTORY DATA ACCESS LAYER =============
 public class ManagerInventoryDAO {
 
+    // Add stock to a manager's product, creating the row on first delivery. One statement, so
+    // the new quantity is computed by SQLite from the current row and a sale committed in
+    // between is never overwritten. Parameters: manager_id, ceo_inventory_id, selling_price, quantity.
+    static final String UPSERT_STOCK_SQL =
+            "INSERT INTO manager_inventory (manager_id, ceo_inventory_id, selling_price, current_quantity) " +
+            "VALUES (?, ?, ?, ?) " +
+            "ON CONFLICT(manager_id, ceo_inventory_id) DO UPDATE SET " +
+            "current_quantity = current_quantity + excluded.current_quantity, " +
+            "selling_price = excluded.selling_price, " +
+            "last_updated = CURRENT_TIMESTAMP";
+
     // Get manager's inventory
     public static List<ManagerInventory> getManagerInventory(int managerId) {
         Connection conn = null;
@@ -51,45 +62,27 @@ public class ManagerInventoryDAO {
     // Add product to manager's inventory (or update if exists)
     public static boolean addOrUpdateManagerInventory(int managerId, int ceoInventoryId,
                                                       int quantity, double sellingPrice) {
+        return DatabaseConnection.executeWrite(() -> doAddOrUpdateManagerInventory(managerId, ceoInventoryId, quantity, sellingPrice), false);
+    }
+
+    private static boolean doAddOrUpdateManagerInventory(int managerId, int ceoInventoryId,
+                                                         int quantity, double sellingPrice) {
         Connection conn = null;
         PreparedStatement ps = null;
-        ResultSet rs = null;
 
         try {
             conn = DatabaseConnection.getConnection();
             conn.setAutoCommit(false);
-
-            // Check if product already exists in manager's inventory
-            String checkSql = "SELECT id, current_quantity FROM manager_inventory " +
-                    "WHERE manager_id = ? AND ceo_inventory_id = ?";
-            ps = conn.prepareStatement(checkSql);
+            // Insert the product or add to its quantity in one statement
+            ps = conn.prepareStatement(UPSERT_STOCK_SQL);
             ps.setInt(1, managerId);
             ps.setInt(2, ceoInventoryId);
-            rs = ps.executeQuery();
+            ps.setDouble(3, sellingPrice);
+            ps.setInt(4, quantity);
+            ps.executeUpdate();
 
-            if (rs.next()) {
-                // Update existing product
-                int existingId = rs.getInt("id");
-                int existingQty = rs.getInt("current_quantity");
-                String updateSql = "UPDATE manager_inventory SET current_quantity = ?, " +
-                        "selling_price = ?, last_updated = CURRENT_TIMESTAMP " +
-                        "WHERE id = ?";
-                ps = conn.prepareStatement(updateSql);
-                ps.setInt(1, existingQty + quantity);
-                ps.setDouble(2, sellingPrice);
-                ps.setInt(3, existingId);
-                ps.executeUpdate();
-            } else {
-                // Insert new product
-                String insertSql = "INSERT INTO manager_inventory (manager_id, ceo_inventory_id, " +
-                        "selling_price, current_quantity) VALUES (?, ?, ?, ?)";
-                ps = conn.prepareStatement(insertSql);
-                ps.setInt(1, managerId);
-                ps.setInt(2, ceoInventoryId);
-                ps.setDouble(3, sellingPrice);
-                ps.setInt(4, quantity);
-                ps.executeUpdate();
-            }
+            // Stock that did not come out of the master inventory
+            InventoryLedgerDAO.record(conn, managerId, ceoInventoryId, quantity, InventoryLedgerDAO.RECEIPT, null);
 
             conn.commit();
             return true;
@@ -101,18 +94,23 @@ public class ManagerInventoryDAO {
             }
             e.printStackTrace();
         } finally {
-            DatabaseConnection.closeResources(rs, ps, conn);
+            DatabaseConnection.closeResources(null, ps, conn);
         }
         return false;
     }
 
     // Update product quantity when bill is created
     public static boolean updateProductQuantity(int managerInventoryId, int quantitySold) {
+        return DatabaseConnection.executeWrite(() -> doUpdateProductQuantity(managerInventoryId, quantitySold), false);
+    }
+
+    private static boolean doUpdateProductQuantity(int managerInventoryId, int quantitySold) {
         Connection conn = null;
         PreparedStatement ps = null;
 
         try {
             conn = DatabaseConnection.getConnection();
+            conn.setAutoCommit(false);
             String sql = "UPDATE manager_inventory SET current_quantity = current_quantity - ?, " +
                     "last_updated = CURRENT_TIMESTAMP WHERE id = ? AND current_quantity >= ?";
             ps = conn.prepareStatement(sql);
@@ -120,8 +118,20 @@ public class ManagerInventoryDAO {
             ps.setInt(2, managerInventoryId);
             ps.setInt(3, quantitySold);
 
-            return ps.executeUpdate() > 0;
+            if (ps.executeUpdate() == 0) {
+                conn.rollback();
+                return false;
+            }
+            InventoryLedgerDAO.recordStoreChange(conn, managerInventoryId, -quantitySold, InventoryLedgerDAO.SALE);
+
+            conn.commit();
+            return true;
         } catch (SQLException e) {
+            try {
+                if (conn != null) conn.rollback();
+            } catch (SQLException ex) {
+                ex.printStackTrace();
+            }
             e.printStackTrace();
         } finally {
             DatabaseConnection.closeResources(null, ps, conn);
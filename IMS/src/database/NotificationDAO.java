@@ -10,6 +10,10 @@ public class NotificationDAO {
     
     // Create a new notification
     public static boolean createNotification(int userId, String type, String title, String message, String relatedId) {
+        return DatabaseConnection.executeWrite(() -> doCreateNotification(userId, type, title, message, relatedId), false);
+    }
+
+    private static boolean doCreateNotification(int userId, String type, String title, String message, String relatedId) {
         String sql = "INSERT INTO notifications (user_id, type, title, message, related_id, is_read, created_at) " +
                     "VALUES (?, ?, ?, ?, ?, 0, datetime('now', 'localtime'))";
         
@@ -95,6 +99,10 @@ public class NotificationDAO {
     
     // Mark notification as read
     public static boolean markAsRead(int notificationId) {
+        return DatabaseConnection.executeWrite(() -> doMarkAsRead(notificationId), false);
+    }
+
+    private static boolean doMarkAsRead(int notificationId) {
         String sql = "UPDATE notifications SET is_read = 1 WHERE id = ?";
         
         try (Connection conn = DatabaseConnection.getConnection();
@@ -111,6 +119,10 @@ public class NotificationDAO {
     
     // Mark all notifications as read for a user
     public static boolean markAllAsRead(int userId) {
+        return DatabaseConnection.executeWrite(() -> doMarkAllAsRead(userId), false);
+    }
+
+    private static boolean doMarkAllAsRead(int userId) {
         String sql = "UPDATE notifications SET is_read = 1 WHERE user_id = ? AND is_read = 0";
         
         try (Connection conn = DatabaseConnection.getConnection();
@@ -148,6 +160,10 @@ public class NotificationDAO {
     
     // Delete old read notifications (older than 30 days)
     public static boolean cleanupOldNotifications() {
+        return DatabaseConnection.executeWrite(() -> doCleanupOldNotifications(), false);
+    }
+
+    private static boolean doCleanupOldNotifications() {
         String sql = "DELETE FROM notifications WHERE is_read = 1 AND created_at < datetime('now', '-30 days')";
         
         try (Connection conn = DatabaseConnection.getConnection();
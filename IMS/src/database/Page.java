@@ -0,0 +1,47 @@
+package database;
+
+import java.util.List;
+
+// ============= KEYSET PAGE =============
+// One page of a long listing (bill history, expenses) read with keyset pagination: each
+// page starts right after the sort key of the previous page's last row instead of at an
+// OFFSET, so every page is an index seek no matter how deep the user has scrolled.
+public class Page<T> {
+    private final List<T> rows;
+    private final Cursor next;
+
+    Page(List<T> rows, Cursor next) {
+        this.rows = rows;
+        this.next = next;
+    }
+
+    public List<T> getRows() { return rows; }
+    // Position after the last row of this page; null on the last page
+    public Cursor getNext() { return next; }
+    public boolean hasMore() { return next != null; }
+
+    // Sort key of the last row of a page: (date as stored, id). Opaque to callers.
+    public static class Cursor {
+        final Object sortValue;
+        final int id;
+
+        Cursor(Object sortValue, int id) {
+            this.sortValue = sortValue;
+            this.id = id;
+        }
+    }
+
+    // Row count and amount total of a whole listing, computed in SQL
+    public static class Totals {
+        private final int count;
+        private final double amount;
+
+        public Totals(int count, double amount) {
+            this.count = count;
+            this.amount = amount;
+        }
+
+        public int getCount() { return count; }
+        public double getAmount() { return amount; }
+    }
+}
@@ -0,0 +1,199 @@
+package database;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+// ============= POOLED SQLITE CONNECTION =============
+// Wraps one physical SQLite connection owned by a ConnectionPool or the WriteExecutor.
+// Callers never see the physical connection: each borrow gets a fresh proxy handle whose
+// close() hands the connection back to its owner instead of closing the file.
+class PooledConnection {
+
+    // Receives the connection back when a handle is closed
+    interface Owner {
+        void release(PooledConnection pooled);
+    }
+
+    private final Owner owner;
+    private final Connection physical;
+    private final StatementCache statementCache;
+    private volatile long lastReturnedAt;
+
+    // Statements opened through the current handle; closed on return so a DAO that forgets
+    // to close one does not leak it into the next borrower
+    private final List<Statement> openStatements = new ArrayList<>();
+
+    PooledConnection(Owner owner, Connection physical) {
+        this.owner = owner;
+        this.physical = physical;
+        // Prepared statements kept per connection (ims.db.statementCache.size, 0 disables the cache)
+        int cacheSize = DatabaseConfig.get().getStatementCacheSize();
+        this.statementCache = cacheSize > 0 ? new StatementCache(physical, cacheSize) : null;
+        this.lastReturnedAt = System.currentTimeMillis();
+    }
+
+    // Create a new caller-facing handle for this borrow (call is null when metrics are off)
+    Connection newHandle(DaoMetrics.Call call) {
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new Handle(call));
+    }
+
+    Connection getPhysical() {
+        return physical;
+    }
+
+    long getIdleMillis() {
+        return System.currentTimeMillis() - lastReturnedAt;
+    }
+
+    // Check the connection is still usable before handing it out again.
+    // A cheap isClosed() check is enough for recently used connections.
+    boolean validate(long validationIntervalMs) {
+        try {
+            if (physical.isClosed()) {
+                return false;
+            }
+            if (getIdleMillis() < validationIntervalMs) {
+                return true;
+            }
+            return physical.isValid(2);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    // Restore the connection to a clean state before it goes back to the idle list.
+    // Returns false if the connection is broken and should be discarded.
+    boolean reset() {
+        closeOpenStatements();
+        if (statementCache != null) {
+            statementCache.reclaimAll();
+        }
+        try {
+            if (physical.isClosed()) {
+                return false;
+            }
+            if (!physical.getAutoCommit()) {
+                // Anything left uncommitted by the borrower is rolled back, as closing would have done
+                physical.rollback();
+                physical.setAutoCommit(true);
+            }
+            physical.clearWarnings();
+            lastReturnedAt = System.currentTimeMillis();
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    void closePhysical() {
+        closeOpenStatements();
+        if (statementCache != null) {
+            statementCache.closeAll();
+        }
+        try {
+            physical.close();
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private void closeOpenStatements() {
+        synchronized (openStatements) {
+            for (Statement stmt : openStatements) {
+                try {
+                    stmt.close();
+                } catch (SQLException ignored) {
+                    // Statement was already unusable
+                }
+            }
+            openStatements.clear();
+        }
+    }
+
+    // prepareStatement(sql) and prepareStatement(sql, autoGeneratedKeys) are served from the cache
+    private PreparedStatement prepareCached(Method method, Object[] args) throws SQLException {
+        Class<?>[] types = method.getParameterTypes();
+        if (types.length == 1) {
+            return statementCache.prepare((String) args[0], false);
+        }
+        if (types.length == 2 && types[1] == int.class) {
+            return statementCache.prepare((String) args[0], (Integer) args[1] == Statement.RETURN_GENERATED_KEYS);
+        }
+        return null;
+    }
+
+    // Caller-facing view of the physical connection for one borrow
+    private final class Handle implements InvocationHandler {
+        private final DaoMetrics.Call call;
+        private final boolean instrumented;
+        private final LeakDetector.Resource leak;   // null unless leak detection is on
+        private boolean closed;
+
+        Handle(DaoMetrics.Call call) {
+            this.call = call;
+            this.leak = LeakDetector.opened(LeakDetector.Resource.CONNECTION, null, null);
+            this.instrumented = call != null || leak != null || SlowQueryLog.isEnabled();
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        if (call != null) {
+                            call.finish();
+                        }
+                        LeakDetector.connectionReturned(leak);
+                        owner.release(PooledConnection.this);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + physical + (closed ? ", returned" : "") + "]";
+                default:
+                    break;
+            }
+
+            if (closed) {
+                throw new SQLException("Connection has already been returned to the pool");
+            }
+
+            if (statementCache != null && method.getName().equals("prepareStatement")) {
+                PreparedStatement cached = prepareCached(method, args);
+                if (cached != null) {
+                    return instrumented ? InstrumentedStatement.wrap(cached, (String) args[0], call, leak) : cached;
+                }
+            }
+
+            try {
+                Object result = method.invoke(physical, args);
+                if (result instanceof Statement) {
+                    synchronized (openStatements) {
+                        openStatements.add((Statement) result);
+                    }
+                    if (instrumented) {
+                        String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : null;
+                        return InstrumentedStatement.wrap((Statement) result, sql, call, leak);
+                    }
+                }
+                return result;
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
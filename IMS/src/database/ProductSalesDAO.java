@@ -0,0 +1,181 @@
+package database;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+// ============= PRODUCT SALES ROLLUP =============
+// product_daily_sales holds one row per (sale_day, manager_id, ceo_inventory_id) with the
+// units, revenue and cost of that product sold by that manager's store on that day. Like
+// daily_sales_summary it is updated in the bill's own transaction (see SalesSummaryDAO), so
+// product reports read a few rows per product and day instead of joining every bill item.
+//
+// Reports cover the last N local days (today included) and come per manager or system-wide:
+//  - best sellers: most units sold
+//  - slow movers: products on the shelf that sold, but least
+//  - dead stock: products on the shelf that did not sell at all
+public class ProductSalesDAO {
+
+    // Add the lines of one freshly written bill to their products' day rows
+    static void recordBill(Connection conn, int billId) throws SQLException {
+        String sql = "INSERT INTO product_daily_sales " +
+                "(sale_day, manager_id, ceo_inventory_id, units, revenue, cost) " +
+                "SELECT b.bill_day, b.manager_id, mi.ceo_inventory_id, " +
+                "SUM(bi.quantity), SUM(bi.subtotal), SUM(bi.quantity * COALESCE(ci.buying_price, 0)) " +
+                "FROM bills b " +
+                "JOIN bill_items bi ON bi.bill_id = b.id " +
+                "JOIN manager_inventory mi ON bi.manager_inventory_id = mi.id " +
+                "LEFT JOIN ceo_inventory ci ON mi.ceo_inventory_id = ci.id " +
+                "WHERE b.id = ? AND b.status = 'COMPLETED' " +
+                "GROUP BY mi.ceo_inventory_id " +
+                "ON CONFLICT(sale_day, manager_id, ceo_inventory_id) DO UPDATE SET " +
+                "units = units + excluded.units, " +
+                "revenue = revenue + excluded.revenue, " +
+                "cost = cost + excluded.cost";
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, billId);
+            ps.executeUpdate();
+        }
+    }
+
+    // Recompute the rollup from the raw bills inside the caller's transaction
+    public static int rebuild(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("DELETE FROM product_daily_sales");
+            return stmt.executeUpdate("INSERT INTO product_daily_sales " +
+                    "(sale_day, manager_id, ceo_inventory_id, units, revenue, cost) " +
+                    "SELECT b.bill_day as day, b.manager_id, mi.ceo_inventory_id, " +
+                    "SUM(bi.quantity), SUM(bi.subtotal), SUM(bi.quantity * COALESCE(ci.buying_price, 0)) " +
+                    "FROM bills b " +
+                    "JOIN bill_items bi ON bi.bill_id = b.id " +
+                    "JOIN manager_inventory mi ON bi.manager_inventory_id = mi.id " +
+                    "LEFT JOIN ceo_inventory ci ON mi.ceo_inventory_id = ci.id " +
+                    "WHERE b.status = 'COMPLETED' " +
+                    "GROUP BY day, b.manager_id, mi.ceo_inventory_id");
+        }
+    }
+
+    // ============= BEST SELLERS =============
+
+    // Products of one store with the most units sold in the last `days` days
+    public static List<ProductSales> getBestSellers(int managerId, int days, int limit) {
+        return query(managerId, days, "s.units > 0", "s.units DESC, s.revenue DESC", limit);
+    }
+
+    // Products with the most units sold across all stores in the last `days` days
+    public static List<ProductSales> getBestSellers(int days, int limit) {
+        return query(null, days, "s.units > 0", "s.units DESC, s.revenue DESC", limit);
+    }
+
+    // ============= SLOW MOVERS =============
+
+    // Products on one store's shelf that sold the fewest units (but some) in the last `days` days
+    public static List<ProductSales> getSlowMovers(int managerId, int days, int limit) {
+        return query(managerId, days, "st.quantity > 0 AND s.units > 0", "s.units ASC, st.quantity DESC", limit);
+    }
+
+    // Products on the shelves that sold the fewest units (but some) across all stores
+    public static List<ProductSales> getSlowMovers(int days, int limit) {
+        return query(null, days, "st.quantity > 0 AND s.units > 0", "s.units ASC, st.quantity DESC", limit);
+    }
+
+    // ============= DEAD STOCK =============
+
+    // Products on one store's shelf with no sales in the last `days` days, largest stock first
+    public static List<ProductSales> getDeadStock(int managerId, int days) {
+        return query(managerId, days, "st.quantity > 0 AND s.units IS NULL", "st.quantity DESC", 0);
+    }
+
+    // Products on the shelves with no sales in any store in the last `days` days
+    public static List<ProductSales> getDeadStock(int days) {
+        return query(null, days, "st.quantity > 0 AND s.units IS NULL", "st.quantity DESC", 0);
+    }
+
+    // Shelf stock per product (one store or all) joined to the window's sales per product.
+    // managerId null means system-wide; limit 0 means no limit.
+    private static List<ProductSales> query(Integer managerId, int days, String where, String orderBy, int limit) {
+        Connection conn = null;
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+        List<ProductSales> products = new ArrayList<>();
+        String store = managerId != null ? "manager_id = ? AND " : "";
+
+        try {
+            conn = DatabaseConnection.getConnection();
+            String sql = "SELECT ci.id as ceo_inventory_id, ci.product_name, " +
+                    "COALESCE(st.quantity, 0) as quantity, " +
+                    "COALESCE(s.units, 0) as units, " +
+                    "COALESCE(s.revenue, 0) as revenue, " +
+                    "COALESCE(s.cost, 0) as cost " +
+                    "FROM ceo_inventory ci " +
+                    "LEFT JOIN (SELECT ceo_inventory_id, SUM(current_quantity) as quantity " +
+                    "  FROM manager_inventory " +
+                    (managerId != null ? "  WHERE manager_id = ? " : "") +
+                    "  GROUP BY ceo_inventory_id) st ON st.ceo_inventory_id = ci.id " +
+                    "LEFT JOIN (SELECT ceo_inventory_id, SUM(units) as units, " +
+                    "  SUM(revenue) as revenue, SUM(cost) as cost " +
+                    "  FROM product_daily_sales " +
+                    "  WHERE " + store + "sale_day >= ? " +
+                    "  GROUP BY ceo_inventory_id) s ON s.ceo_inventory_id = ci.id " +
+                    "WHERE " + where + " " +
+                    "ORDER BY " + orderBy + ", ci.product_name" +
+                    (limit > 0 ? " LIMIT ?" : "");
+            ps = conn.prepareStatement(sql);
+            int i = 1;
+            if (managerId != null) {
+                ps.setInt(i++, managerId);
+                ps.setInt(i++, managerId);
+            }
+            ps.setLong(i++, LocalDay.today() - days + 1);
+            if (limit > 0) {
+                ps.setInt(i, limit);
+            }
+            rs = ps.executeQuery();
+
+            while (rs.next()) {
+                products.add(new ProductSales(
+                        rs.getInt("ceo_inventory_id"),
+                        rs.getString("product_name"),
+                        rs.getInt("quantity"),
+                        rs.getInt("units"),
+                        rs.getDouble("revenue"),
+                        rs.getDouble("cost")
+                ));
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        } finally {
+            DatabaseConnection.closeResources(rs, ps, conn);
+        }
+        return products;
+    }
+
+    // One product's sales over a report window
+    public static class ProductSales {
+        private final int ceoInventoryId;
+        private final String productName;
+        private final int currentQuantity;
+        private final int unitsSold;
+        private final double revenue;
+        private final double cost;
+
+        public ProductSales(int ceoInventoryId, String productName, int currentQuantity,
+                            int unitsSold, double revenue, double cost) {
+            this.ceoInventoryId = ceoInventoryId;
+            this.productName = productName;
+            this.currentQuantity = currentQuantity;
+            this.unitsSold = unitsSold;
+            this.revenue = revenue;
+            this.cost = cost;
+        }
+
+        public int getCeoInventoryId() { return ceoInventoryId; }
+        public String getProductName() { return productName; }
+        // Stock on the store's shelf (or on all stores' shelves for system-wide reports)
+        public int getCurrentQuantity() { return currentQuantity; }
+        public int getUnitsSold() { return unitsSold; }
+        public double getRevenue() { return revenue; }
+        public double getCost() { return cost; }
+        public double getProfit() { return revenue - cost; }
+    }
+}
@@ -11,6 +11,11 @@ public class SalaryDAO {
     // Process salary payment for a single employee with bonus and adjustments
     public static boolean processSingleSalaryWithAdjustments(int managerId, int userId, String paymentMonth, 
                                                              double baseSalary, double bonus, double adjustment, double finalAmount) {
+        return DatabaseConnection.executeWrite(() -> doProcessSingleSalaryWithAdjustments(managerId, userId, paymentMonth, baseSalary, bonus, adjustment, finalAmount), false);
+    }
+
+    private static boolean doProcessSingleSalaryWithAdjustments(int managerId, int userId, String paymentMonth, 
+                                                                double baseSalary, double bonus, double adjustment, double finalAmount) {
         Connection conn = null;
         PreparedStatement psUser = null;
         PreparedStatement psPayment = null;
@@ -83,12 +88,13 @@ public class SalaryDAO {
                 expenseDesc += " with adjustments";
             }
             
-            String sqlExpense = "INSERT INTO expenses (manager_id, category, amount, description, expense_date) " +
-                              "VALUES (?, 'SALARIES', ?, ?, CURRENT_TIMESTAMP)";
+            String sqlExpense = "INSERT INTO expenses (manager_id, category, amount, description, expense_date, expense_day) " +
+                              "VALUES (?, 'SALARIES', ?, ?, CURRENT_TIMESTAMP, ?)";
             psExpense = conn.prepareStatement(sqlExpense);
             psExpense.setInt(1, managerId);
             psExpense.setDouble(2, finalAmount);
             psExpense.setString(3, expenseDesc);
+            psExpense.setLong(4, LocalDay.today());
             psExpense.executeUpdate();
             
             conn.commit();
@@ -125,6 +131,10 @@ public class SalaryDAO {
     
     // Process salary payment for a single employee
     public static boolean processSingleSalary(int managerId, int userId, String paymentMonth) {
+        return DatabaseConnection.executeWrite(() -> doProcessSingleSalary(managerId, userId, paymentMonth), false);
+    }
+
+    private static boolean doProcessSingleSalary(int managerId, int userId, String paymentMonth) {
         Connection conn = null;
         PreparedStatement psUser = null;
         PreparedStatement psPayment = null;
@@ -187,12 +197,13 @@ public class SalaryDAO {
             psPayment.executeUpdate();
             
             // Create expense entry
-            String sqlExpense = "INSERT INTO expenses (manager_id, category, amount, description, expense_date) " +
-                              "VALUES (?, 'SALARIES', ?, ?, CURRENT_TIMESTAMP)";
+            String sqlExpense = "INSERT INTO expenses (manager_id, category, amount, description, expense_date, expense_day) " +
+                              "VALUES (?, 'SALARIES', ?, ?, CURRENT_TIMESTAMP, ?)";
             psExpense = conn.prepareStatement(sqlExpense);
             psExpense.setInt(1, managerId);
             psExpense.setDouble(2, salary);
             psExpense.setString(3, "Salary payment for " + name + " (" + role + ") - " + paymentMonth);
+            psExpense.setLong(4, LocalDay.today());
             psExpense.executeUpdate();
             
             conn.commit();
@@ -229,6 +240,10 @@ public class SalaryDAO {
     
     // Process salary payments for all active employees for a specific month
     public static boolean processMonthlySalaries(int managerId, String paymentMonth) {
+        return DatabaseConnection.executeWrite(() -> doProcessMonthlySalaries(managerId, paymentMonth), false);
+    }
+
+    private static boolean doProcessMonthlySalaries(int managerId, String paymentMonth) {
         Connection conn = null;
         PreparedStatement psUsers = null;
         PreparedStatement psPayment = null;
@@ -291,12 +306,13 @@ public class SalaryDAO {
             
             // Create expense entry for total salary payments
             if (paymentsProcessed > 0) {
-                String sqlExpense = "INSERT INTO expenses (manager_id, category, amount, description, expense_date) " +
-                                  "VALUES (?, 'SALARIES', ?, ?, CURRENT_TIMESTAMP)";
+                String sqlExpense = "INSERT INTO expenses (manager_id, category, amount, description, expense_date, expense_day) " +
+                                  "VALUES (?, 'SALARIES', ?, ?, CURRENT_TIMESTAMP, ?)";
                 psExpense = conn.prepareStatement(sqlExpense);
                 psExpense.setInt(1, managerId);
                 psExpense.setDouble(2, totalSalaryExpense);
                 psExpense.setString(3, "Monthly salary payments for " + paymentMonth + " (" + paymentsProcessed + " employees)");
+                psExpense.setLong(4, LocalDay.today());
                 psExpense.executeUpdate();
             }
             
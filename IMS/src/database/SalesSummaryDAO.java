@@ -0,0 +1,88 @@
+package database;
+
+import java.sql.*;
+
+// ============= DAILY SALES ROLLUP =============
+// daily_sales_summary holds one row per (sale_day, manager_id, cashier_id) with the revenue,
+// cost of goods sold, bill count and units sold of that day's completed bills. It is updated
+// in the same transaction that writes a bill, so revenue reports sum a few rows per day
+// instead of scanning every bill and bill item ever written.
+// sale_day is the bill's bills.bill_day, the local epoch day it was written (see LocalDay).
+// COGS uses the CEO buying price at the time the bill was written; a rebuild recomputes it
+// with the current prices.
+public class SalesSummaryDAO {
+
+    // Units and cost per bill, joined to bills by bill_id
+    private static final String BILL_ITEM_TOTALS_SQL =
+            "SELECT bi.bill_id, SUM(bi.quantity) as units, " +
+            "SUM(bi.quantity * COALESCE(ci.buying_price, 0)) as cogs " +
+            "FROM bill_items bi " +
+            "LEFT JOIN manager_inventory mi ON bi.manager_inventory_id = mi.id " +
+            "LEFT JOIN ceo_inventory ci ON mi.ceo_inventory_id = ci.id ";
+
+    // Add one freshly written bill to its day's row (runs inside the bill's transaction)
+    static void recordBill(Connection conn, int billId) throws SQLException {
+        String sql = "INSERT INTO daily_sales_summary " +
+                "(sale_day, manager_id, cashier_id, revenue, cogs, bill_count, units) " +
+                "SELECT b.bill_day, b.manager_id, b.cashier_id, b.total_amount, " +
+                "COALESCE(t.cogs, 0), 1, COALESCE(t.units, 0) " +
+                "FROM bills b " +
+                "LEFT JOIN (" + BILL_ITEM_TOTALS_SQL + "WHERE bi.bill_id = ? GROUP BY bi.bill_id) t " +
+                "ON t.bill_id = b.id " +
+                "WHERE b.id = ? AND b.status = 'COMPLETED' " +
+                "ON CONFLICT(sale_day, manager_id, cashier_id) DO UPDATE SET " +
+                "revenue = revenue + excluded.revenue, " +
+                "cogs = cogs + excluded.cogs, " +
+                "bill_count = bill_count + excluded.bill_count, " +
+                "units = units + excluded.units";
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, billId);
+            ps.setInt(2, billId);
+            ps.executeUpdate();
+        }
+    }
+
+    // Recompute this rollup and product_daily_sales from the raw bills in one transaction;
+    // returns the number of daily_sales_summary rows written
+    public static int rebuild() {
+        return DatabaseConnection.executeWrite(SalesSummaryDAO::doRebuild, -1);
+    }
+
+    private static int doRebuild() {
+        Connection conn = null;
+
+        try {
+            conn = DatabaseConnection.getConnection();
+            conn.setAutoCommit(false);
+            int rows = rebuild(conn);
+            ProductSalesDAO.rebuild(conn);
+            conn.commit();
+            return rows;
+        } catch (SQLException e) {
+            try {
+                if (conn != null) conn.rollback();
+            } catch (SQLException ex) {
+                ex.printStackTrace();
+            }
+            e.printStackTrace();
+        } finally {
+            DatabaseConnection.closeResources(null, null, conn);
+        }
+        return -1;
+    }
+
+    // Recompute the rollup inside the caller's transaction (also used by the schema upgrade)
+    public static int rebuild(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("DELETE FROM daily_sales_summary");
+            return stmt.executeUpdate("INSERT INTO daily_sales_summary " +
+                    "(sale_day, manager_id, cashier_id, revenue, cogs, bill_count, units) " +
+                    "SELECT b.bill_day as day, b.manager_id, b.cashier_id, " +
+                    "SUM(b.total_amount), COALESCE(SUM(t.cogs), 0), COUNT(*), COALESCE(SUM(t.units), 0) " +
+                    "FROM bills b " +
+                    "LEFT JOIN (" + BILL_ITEM_TOTALS_SQL + "GROUP BY bi.bill_id) t ON t.bill_id = b.id " +
+                    "WHERE b.status = 'COMPLETED' " +
+                    "GROUP BY day, b.manager_id, b.cashier_id");
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package database;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.FileHandler;
+import java.util.logging.Formatter;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+// ============= SLOW QUERY LOG =============
+// Statements that take longer than ims.db.slowQuery.thresholdMs (default 100, -1 disables)
+// are written with their SQL, bound parameters and elapsed time to a rotating log file
+// (ims.db.slowQuery.file, default logs/slow-queries.N.log under the working directory).
+// The first time a given SQL is slow its EXPLAIN QUERY PLAN is captured too, which shows
+// full table scans ("SCAN bills") as opposed to index lookups ("SEARCH bills USING INDEX").
+class SlowQueryLog {
+
+    private static final long THRESHOLD_MS = Long.getLong("ims.db.slowQuery.thresholdMs", 100L);
+    private static final String LOG_FILE = System.getProperty("ims.db.slowQuery.file",
+            new File(System.getProperty("user.dir"), "logs/slow-queries.%g.log").getPath());
+    private static final int MAX_FILE_BYTES = Integer.getInteger("ims.db.slowQuery.maxFileBytes", 5 * 1024 * 1024);
+    private static final int MAX_FILES = Integer.getInteger("ims.db.slowQuery.files", 5);
+
+    private static final long THRESHOLD_NANOS = THRESHOLD_MS * 1_000_000L;
+
+    // SQL whose plan has already been logged
+    private static final Set<String> explained = ConcurrentHashMap.newKeySet();
+
+    private static volatile Logger logger;
+
+    private SlowQueryLog() {
+    }
+
+    static boolean isEnabled() {
+        return THRESHOLD_MS >= 0;
+    }
+
+    static boolean isSlow(long elapsedNanos) {
+        return THRESHOLD_MS >= 0 && elapsedNanos >= THRESHOLD_NANOS;
+    }
+
+    // Log one slow statement. conn is the physical connection it ran on (used for the plan).
+    static void record(Connection conn, String sql, Map<Integer, Object> params, int batchSize,
+                       long elapsedNanos, long rows) {
+        Logger log = getLogger();
+        if (log == null || sql == null) {
+            return;
+        }
+
+        StringBuilder entry = new StringBuilder();
+        entry.append(String.format("%.1f ms", elapsedNanos / 1_000_000.0));
+        if (rows >= 0) {
+            entry.append(", ").append(rows).append(" rows");
+        }
+        entry.append(", thread ").append(Thread.currentThread().getName()).append('\n');
+        entry.append("  sql:    ").append(sql.trim().replaceAll("\\s+", " ")).append('\n');
+        if (batchSize > 0) {
+            entry.append("  batch:  ").append(batchSize).append(" rows, last ");
+        } else {
+            entry.append("  params: ");
+        }
+        entry.append(params.values()).append('\n');
+
+        if (explained.add(sql)) {
+            entry.append("  plan:\n").append(explain(conn, sql, params));
+        }
+        log.info(entry.toString());
+    }
+
+    // EXPLAIN QUERY PLAN output as an indented tree
+    private static String explain(Connection conn, String sql, Map<Integer, Object> params) {
+        StringBuilder plan = new StringBuilder();
+        try (PreparedStatement ps = conn.prepareStatement("EXPLAIN QUERY PLAN " + sql)) {
+            for (Map.Entry<Integer, Object> p : params.entrySet()) {
+                ps.setObject(p.getKey(), p.getValue());
+            }
+            Map<Integer, Integer> depth = new HashMap<>();
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    int id = rs.getInt("id");
+                    int level = depth.getOrDefault(rs.getInt("parent"), -1) + 1;
+                    depth.put(id, level);
+                    plan.append("    ");
+                    for (int i = 0; i < level; i++) {
+                        plan.append("  ");
+                    }
+                    plan.append(rs.getString("detail")).append('\n');
+                }
+            }
+        } catch (SQLException e) {
+            plan.append("    (plan unavailable: ").append(e.getMessage()).append(")\n");
+        }
+        return plan.toString();
+    }
+
+    private static Logger getLogger() {
+        Logger log = logger;
+        if (log == null) {
+            synchronized (SlowQueryLog.class) {
+                log = logger;
+                if (log == null) {
+                    log = openLogger();
+                    logger = log;
+                }
+            }
+        }
+        return log;
+    }
+
+    private static Logger openLogger() {
+        Logger log = Logger.getLogger("ims.db.slowQuery");
+        log.setUseParentHandlers(false);
+        try {
+            File dir = new File(LOG_FILE).getAbsoluteFile().getParentFile();
+            if (dir != null && !dir.exists()) {
+                dir.mkdirs();
+            }
+            FileHandler handler = new FileHandler(LOG_FILE, MAX_FILE_BYTES, MAX_FILES, true);
+            handler.setFormatter(new Formatter() {
+                @Override
+                public String format(LogRecord record) {
+                    return String.format("%1$tF %1$tT.%1$tL  %2$s%n", record.getMillis(), record.getMessage());
+                }
+            });
+            log.addHandler(handler);
+        } catch (IOException e) {
+            // Fall back to stderr rather than losing the entries
+            System.err.println("[SlowQueryLog] Cannot open " + LOG_FILE + ": " + e.getMessage());
+            log.setUseParentHandlers(true);
+        }
+        log.setLevel(Level.INFO);
+        return log;
+    }
+}
@@ -0,0 +1,196 @@
+package database;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+// ============= PREPARED STATEMENT CACHE =============
+// Keeps the prepared statements of one pooled connection, keyed by SQL text, so the DAOs'
+// hot queries skip SQLite's parse/plan step on every call. Closing a cached statement only
+// clears its parameters and returns it to the cache. Least recently used statements are
+// closed once the cache is full.
+class StatementCache {
+
+    private static final String KEYS_SUFFIX = "\u0000RETURN_GENERATED_KEYS";
+
+    // Shared by all connections
+    private static final LongAdder hits = new LongAdder();
+    private static final LongAdder misses = new LongAdder();
+
+    private final Connection owner;
+    private final LinkedHashMap<String, Entry> entries;
+
+    StatementCache(Connection owner, int capacity) {
+        this.owner = owner;
+        this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() <= capacity) {
+                    return false;
+                }
+                eldest.getValue().evict();
+                return true;
+            }
+        };
+    }
+
+    static long getHitCount() {
+        return hits.sum();
+    }
+
+    static long getMissCount() {
+        return misses.sum();
+    }
+
+    // Caller-facing statement for this SQL, or null when it cannot come from the cache
+    // (the same SQL is already open on this connection)
+    PreparedStatement prepare(String sql, boolean returnGeneratedKeys) throws SQLException {
+        String key = returnGeneratedKeys ? sql + KEYS_SUFFIX : sql;
+        Entry entry = entries.get(key);
+        if (entry != null && entry.evicted) {
+            // Could not be reset after its last use
+            entries.remove(key);
+            entry = null;
+        }
+        if (entry != null) {
+            if (entry.inUse) {
+                return null;
+            }
+            hits.increment();
+        } else {
+            misses.increment();
+            PreparedStatement ps = returnGeneratedKeys
+                    ? owner.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)
+                    : owner.prepareStatement(sql);
+            entry = new Entry(ps);
+            entries.put(key, entry);
+        }
+        entry.inUse = true;
+        return entry.newHandle();
+    }
+
+    // Take back statements the borrower left open when the connection is returned
+    void reclaimAll() {
+        for (Entry entry : entries.values()) {
+            if (entry.inUse) {
+                entry.giveBack();
+            }
+        }
+    }
+
+    void closeAll() {
+        for (Entry entry : new ArrayList<>(entries.values())) {
+            entry.evict();
+        }
+        entries.clear();
+    }
+
+    // One cached physical statement
+    private static final class Entry {
+        private final PreparedStatement physical;
+        private boolean inUse;
+        private boolean evicted;
+        private Handle currentHandle;
+
+        Entry(PreparedStatement physical) {
+            this.physical = physical;
+        }
+
+        PreparedStatement newHandle() {
+            currentHandle = new Handle(this);
+            return (PreparedStatement) Proxy.newProxyInstance(
+                    PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class},
+                    currentHandle);
+        }
+
+        // Back into the cache, ready for the next borrower
+        void giveBack() {
+            if (currentHandle != null) {
+                currentHandle.closed = true;
+                currentHandle = null;
+            }
+            inUse = false;
+            if (evicted) {
+                closePhysical();
+                return;
+            }
+            try {
+                // Closing the result set resets the SQLite statement, ending its read snapshot
+                ResultSet rs = physical.getResultSet();
+                if (rs != null) {
+                    rs.close();
+                }
+                physical.clearParameters();
+                physical.clearBatch();
+            } catch (SQLException e) {
+                // A statement that cannot be reset is not reused
+                evicted = true;
+                closePhysical();
+            }
+        }
+
+        // Dropped from the cache: close now, or as soon as the borrower is done with it
+        void evict() {
+            evicted = true;
+            if (!inUse) {
+                closePhysical();
+            }
+        }
+
+        private void closePhysical() {
+            try {
+                physical.close();
+            } catch (SQLException ignored) {
+                // Already unusable
+            }
+        }
+    }
+
+    // Caller-facing view of a cached statement for one use
+    private static final class Handle implements InvocationHandler {
+        private final Entry entry;
+        private boolean closed;
+
+        Handle(Entry entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        entry.giveBack();
+                    }
+                    return null;
+                case "isClosed":
+                    return closed;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "CachedStatement[" + entry.physical + (closed ? ", returned" : "") + "]";
+                default:
+                    break;
+            }
+
+            if (closed) {
+                throw new SQLException("Statement is closed");
+            }
+
+            try {
+                return method.invoke(entry.physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
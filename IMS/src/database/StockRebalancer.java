@@ -0,0 +1,352 @@
+package database;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+// ============= STOCK REBALANCER =============
+// Plans stock transfers between branches (manager stores) so fewer of them run out before the
+// next delivery. For every product, each branch's demand over the horizon is projected from
+// its recent sales (product_daily_sales), and its target is the larger of that demand and the
+// product's min_stock_level. Branches above target give their excess to branches below it,
+// most urgent (fewest days of cover) first. Donors never drop below their own target.
+//
+// Units that cover sales a branch would otherwise lose (projected stockouts) come first; units
+// that only bring a branch back up to the minimum level come after. The transfer budget (total
+// units moved) is spent in that order across all products, so when it runs short it goes
+// where stockouts are nearest. Products are planned independently, in parallel on all cores.
+//
+// A branch is only given a product it carries (has a manager_inventory row for) or sold in the
+// window. The CEO warehouse is not a source here; restocking from it stays with
+// StockTransferDAO.transferStockFromCEO.
+public class StockRebalancer {
+
+    static final int WINDOW_DAYS = Integer.getInteger("ims.rebalance.windowDays", 28);
+    static final int HORIZON_DAYS = Integer.getInteger("ims.rebalance.horizonDays", 7);
+
+    // Tiers of a candidate move, in the order the budget is spent on them
+    private static final int COVERS_STOCKOUT = 0;
+    private static final int TOPS_UP_MINIMUM = 1;
+
+    // Budget order: stockouts first, then the branches that run out soonest; the rest only
+    // makes the order (and so the plan) the same on every run
+    private static final Comparator<Candidate> PRIORITY = Comparator
+            .comparingInt((Candidate c) -> c.tier)
+            .thenComparingDouble(c -> c.daysOfCover)
+            .thenComparingInt(c -> c.product)
+            .thenComparingInt(c -> c.to)
+            .thenComparingInt(c -> c.from);
+
+    private static final Comparator<Candidate> ROUTE = Comparator
+            .comparingInt((Candidate c) -> c.product)
+            .thenComparingInt(c -> c.from)
+            .thenComparingInt(c -> c.to);
+
+    // Plan a rebalance of all active branches from the database, moving at most transferBudget
+    // units. Returns null if the data could not be read.
+    public static Plan planRebalance(int transferBudget) {
+        Network network = loadNetwork(WINDOW_DAYS);
+        if (network == null) {
+            return null;
+        }
+        return plan(network.managerIds, network.products, HORIZON_DAYS, transferBudget);
+    }
+
+    // Carry out a plan in one transaction (see StockTransferDAO.transferBetweenManagers). If
+    // stock changed since planning and a source is now short, nothing moves; plan again.
+    public static StockTransferDAO.BranchTransferResult applyPlan(Plan plan) {
+        return StockTransferDAO.transferBetweenManagers(plan.getMoves());
+    }
+
+    // Plan transfers for the given stock. managerIds[b] is the branch at index b of every
+    // product's arrays. The inputs are not modified.
+    public static Plan plan(int[] managerIds, ProductStock[] products, int horizonDays, int transferBudget) {
+        ProductPlan[] plans = IntStream.range(0, products.length).parallel()
+                .mapToObj(i -> planProduct(i, products[i], horizonDays))
+                .toArray(ProductPlan[]::new);
+
+        long stockoutUnits = 0;
+        int count = 0;
+        for (ProductPlan p : plans) {
+            stockoutUnits += p.stockoutUnits;
+            count += p.candidates.size();
+        }
+        Candidate[] candidates = new Candidate[count];
+        int next = 0;
+        for (ProductPlan p : plans) {
+            for (Candidate c : p.candidates) {
+                candidates[next++] = c;
+            }
+        }
+        Arrays.parallelSort(candidates, PRIORITY);
+
+        // Spend the budget; the last move taken may be cut short
+        List<Candidate> selected = new ArrayList<>();
+        int budget = Math.max(0, transferBudget);
+        long covered = 0;
+        for (Candidate c : candidates) {
+            if (budget == 0) {
+                break;
+            }
+            int quantity = Math.min(c.quantity, budget);
+            budget -= quantity;
+            if (c.tier == COVERS_STOCKOUT) {
+                covered += quantity;
+            }
+            selected.add(quantity == c.quantity ? c : new Candidate(c.product, c.from, c.to, quantity, c.tier, c.daysOfCover));
+        }
+
+        // One move per route: a donor can cover both tiers of the same branch
+        selected.sort(ROUTE);
+        List<StockTransferDAO.BranchMove> moves = new ArrayList<>();
+        int unitsMoved = 0;
+        for (int i = 0; i < selected.size(); ) {
+            Candidate first = selected.get(i);
+            int quantity = 0;
+            while (i < selected.size() && ROUTE.compare(selected.get(i), first) == 0) {
+                quantity += selected.get(i++).quantity;
+            }
+            moves.add(new StockTransferDAO.BranchMove(managerIds[first.from], managerIds[first.to],
+                    products[first.product].getCeoInventoryId(), quantity));
+            unitsMoved += quantity;
+        }
+        return new Plan(moves, unitsMoved, stockoutUnits, stockoutUnits - covered);
+    }
+
+    // Candidate moves for one product: donors with the largest surplus give first, recipients
+    // are served by tier, then fewest days of cover
+    private static ProductPlan planProduct(int index, ProductStock product, int horizonDays) {
+        int[] quantities = product.getQuantities();
+        double[] dailySales = product.getDailySales();
+        boolean[] carried = product.getCarried();
+        int branches = quantities.length;
+
+        int[] surplus = new int[branches];
+        int[] stockout = new int[branches];
+        int[] belowMinimum = new int[branches];
+        double[] daysOfCover = new double[branches];
+        List<Integer> donors = new ArrayList<>();
+        List<Integer> recipients = new ArrayList<>();
+        long stockoutUnits = 0;
+
+        for (int b = 0; b < branches; b++) {
+            if (!carried[b] && dailySales[b] <= 0) {
+                continue;
+            }
+            int quantity = Math.max(0, quantities[b]);
+            int demand = projectedDemand(dailySales[b], horizonDays);
+            int target = Math.max(product.getMinStockLevel(), demand);
+            if (quantity > target) {
+                surplus[b] = quantity - target;
+                donors.add(b);
+            } else if (quantity < target) {
+                stockout[b] = Math.max(0, demand - quantity);
+                belowMinimum[b] = target - quantity - stockout[b];
+                daysOfCover[b] = dailySales[b] > 0 ? quantity / dailySales[b] : Double.MAX_VALUE;
+                stockoutUnits += stockout[b];
+                recipients.add(b);
+            }
+        }
+
+        List<Candidate> candidates = new ArrayList<>();
+        if (!donors.isEmpty() && !recipients.isEmpty()) {
+            donors.sort((a, b) -> surplus[a] != surplus[b] ? Integer.compare(surplus[b], surplus[a]) : Integer.compare(a, b));
+            recipients.sort(Comparator.comparingDouble((Integer b) -> daysOfCover[b]).thenComparingInt(b -> b));
+
+            int donor = 0;
+            for (int tier = COVERS_STOCKOUT; tier <= TOPS_UP_MINIMUM && donor < donors.size(); tier++) {
+                for (int r : recipients) {
+                    int need = tier == COVERS_STOCKOUT ? stockout[r] : belowMinimum[r];
+                    while (need > 0 && donor < donors.size()) {
+                        int d = donors.get(donor);
+                        int quantity = Math.min(need, surplus[d]);
+                        candidates.add(new Candidate(index, d, r, quantity, tier, daysOfCover[r]));
+                        surplus[d] -= quantity;
+                        need -= quantity;
+                        if (surplus[d] == 0) {
+                            donor++;
+                        }
+                    }
+                }
+            }
+        }
+        return new ProductPlan(candidates, stockoutUnits);
+    }
+
+    // Units a branch is expected to sell within the horizon at its recent daily rate
+    public static int projectedDemand(double dailySales, int horizonDays) {
+        return dailySales > 0 ? (int) Math.ceil(dailySales * horizonDays) : 0;
+    }
+
+    // Active branches, every product's min level, and each branch's stock and average daily
+    // sales of it over the last windowDays days
+    private static Network loadNetwork(int windowDays) {
+        Connection conn = null;
+
+        try {
+            conn = DatabaseConnection.getConnection();
+
+            Map<Integer, Integer> branchIndex = new HashMap<>();
+            List<Integer> managers = new ArrayList<>();
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "SELECT id FROM users WHERE role = 'MANAGER' AND status = 'ACTIVE' ORDER BY id");
+                 ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    branchIndex.put(rs.getInt(1), managers.size());
+                    managers.add(rs.getInt(1));
+                }
+            }
+            int branches = managers.size();
+
+            Map<Integer, Integer> productIndex = new HashMap<>();
+            List<Integer> productIds = new ArrayList<>();
+            List<Integer> minLevels = new ArrayList<>();
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "SELECT id, COALESCE(min_stock_level, 0) FROM ceo_inventory ORDER BY id");
+                 ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    productIndex.put(rs.getInt(1), productIds.size());
+                    productIds.add(rs.getInt(1));
+                    minLevels.add(rs.getInt(2));
+                }
+            }
+
+            int[][] quantities = new int[productIds.size()][branches];
+            double[][] dailySales = new double[productIds.size()][branches];
+            boolean[][] carried = new boolean[productIds.size()][branches];
+
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "SELECT manager_id, ceo_inventory_id, current_quantity FROM manager_inventory");
+                 ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    Integer b = branchIndex.get(rs.getInt(1));
+                    Integer p = productIndex.get(rs.getInt(2));
+                    if (b != null && p != null) {
+                        quantities[p][b] = rs.getInt(3);
+                        carried[p][b] = true;
+                    }
+                }
+            }
+
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "SELECT manager_id, ceo_inventory_id, SUM(units) FROM product_daily_sales " +
+                    "WHERE sale_day >= ? " +
+                    "GROUP BY manager_id, ceo_inventory_id")) {
+                ps.setLong(1, LocalDay.today() - windowDays + 1);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        Integer b = branchIndex.get(rs.getInt(1));
+                        Integer p = productIndex.get(rs.getInt(2));
+                        if (b != null && p != null) {
+                            dailySales[p][b] = rs.getDouble(3) / windowDays;
+                        }
+                    }
+                }
+            }
+
+            ProductStock[] products = new ProductStock[productIds.size()];
+            for (int p = 0; p < products.length; p++) {
+                products[p] = new ProductStock(productIds.get(p), minLevels.get(p),
+                        quantities[p], dailySales[p], carried[p]);
+            }
+            return new Network(managers.stream().mapToInt(Integer::intValue).toArray(), products);
+        } catch (SQLException e) {
+            e.printStackTrace();
+        } finally {
+            DatabaseConnection.closeResources(null, null, conn);
+        }
+        return null;
+    }
+
+    // One product's stock and sales at every branch, indexed like the planner's managerIds
+    public static class ProductStock {
+        private final int ceoInventoryId;
+        private final int minStockLevel;
+        private final int[] quantities;
+        private final double[] dailySales;
+        private final boolean[] carried;
+
+        public ProductStock(int ceoInventoryId, int minStockLevel, int[] quantities,
+                            double[] dailySales, boolean[] carried) {
+            this.ceoInventoryId = ceoInventoryId;
+            this.minStockLevel = minStockLevel;
+            this.quantities = quantities;
+            this.dailySales = dailySales;
+            this.carried = carried;
+        }
+
+        public int getCeoInventoryId() { return ceoInventoryId; }
+        public int getMinStockLevel() { return minStockLevel; }
+        public int[] getQuantities() { return quantities; }
+        // Average units sold per day over the sales window
+        public double[] getDailySales() { return dailySales; }
+        // True where the branch has a manager_inventory row for the product
+        public boolean[] getCarried() { return carried; }
+    }
+
+    // A transfer plan and what it is expected to achieve
+    public static class Plan {
+        private final List<StockTransferDAO.BranchMove> moves;
+        private final int unitsMoved;
+        private final long stockoutUnitsBefore;
+        private final long stockoutUnitsAfter;
+
+        public Plan(List<StockTransferDAO.BranchMove> moves, int unitsMoved,
+                    long stockoutUnitsBefore, long stockoutUnitsAfter) {
+            this.moves = moves;
+            this.unitsMoved = unitsMoved;
+            this.stockoutUnitsBefore = stockoutUnitsBefore;
+            this.stockoutUnitsAfter = stockoutUnitsAfter;
+        }
+
+        public List<StockTransferDAO.BranchMove> getMoves() { return moves; }
+        public int getUnitsMoved() { return unitsMoved; }
+        // Projected sales lost to empty shelves within the horizon, without and with the plan
+        public long getStockoutUnitsBefore() { return stockoutUnitsBefore; }
+        public long getStockoutUnitsAfter() { return stockoutUnitsAfter; }
+    }
+
+    private static class Network {
+        final int[] managerIds;
+        final ProductStock[] products;
+
+        Network(int[] managerIds, ProductStock[] products) {
+            this.managerIds = managerIds;
+            this.products = products;
+        }
+    }
+
+    private static class ProductPlan {
+        final List<Candidate> candidates;
+        final long stockoutUnits;
+
+        ProductPlan(List<Candidate> candidates, long stockoutUnits) {
+            this.candidates = candidates;
+            this.stockoutUnits = stockoutUnits;
+        }
+    }
+
+    // Units one donor branch could send one recipient branch of a product (branch indexes)
+    private static class Candidate {
+        final int product;
+        final int from;
+        final int to;
+        final int quantity;
+        final int tier;
+        final double daysOfCover;
+
+        Candidate(int product, int from, int to, int quantity, int tier, double daysOfCover) {
+            this.product = product;
+            this.from = from;
+            this.to = to;
+            this.quantity = quantity;
+            this.tier = tier;
+            this.daysOfCover = daysOfCover;
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package database;
 
 import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
 
 // ============= STOCK TRANSFER DATA ACCESS LAYER =============
 public class StockTransferDAO {
@@ -8,76 +10,45 @@ public class StockTransferDAO {
     // Transfer stock from CEO inventory to manager inventory
     public static boolean transferStockFromCEO(int managerId, int ceoProductId,
                                                int quantity, double sellingPrice) {
+        return DatabaseConnection.executeWrite(() -> doTransferStockFromCEO(managerId, ceoProductId, quantity, sellingPrice), false);
+    }
+
+    private static boolean doTransferStockFromCEO(int managerId, int ceoProductId,
+                                                  int quantity, double sellingPrice) {
         Connection conn = null;
         PreparedStatement ps1 = null;
         PreparedStatement ps2 = null;
-        PreparedStatement ps3 = null;
 
         try {
             conn = DatabaseConnection.getConnection();
             conn.setAutoCommit(false);
 
-            // 1. Check if CEO has enough stock
-            String checkStockSql = "SELECT total_quantity FROM ceo_inventory WHERE id = ? AND total_quantity >= ?";
-            ps1 = conn.prepareStatement(checkStockSql);
-            ps1.setInt(1, ceoProductId);
-            ps1.setInt(2, quantity);
-            ResultSet rs = ps1.executeQuery();
+            // 1. Deduct from CEO inventory if it has enough stock. Check and deduct are one
+            // statement: a separate SELECT first would make this transaction upgrade a read lock,
+            // which fails with SQLITE_BUSY against another writer in ROLLBACK mode.
+            String updateCeoSql = "UPDATE ceo_inventory SET total_quantity = total_quantity - ?, " +
+                    "last_updated = CURRENT_TIMESTAMP WHERE id = ? AND total_quantity >= ?";
+            ps1 = conn.prepareStatement(updateCeoSql);
+            ps1.setInt(1, quantity);
+            ps1.setInt(2, ceoProductId);
+            ps1.setInt(3, quantity);
+            int ceoUpdated = ps1.executeUpdate();
 
-            if (!rs.next()) {
+            if (ceoUpdated == 0) {
                 conn.rollback();
                 return false; // Not enough stock
             }
 
-            // 2. Deduct from CEO inventory
-            String updateCeoSql = "UPDATE ceo_inventory SET total_quantity = total_quantity - ?, " +
-                    "last_updated = CURRENT_TIMESTAMP WHERE id = ?";
-            ps2 = conn.prepareStatement(updateCeoSql);
-            ps2.setInt(1, quantity);
+            // 2. Add to manager inventory, creating the row if the manager does not stock it yet
+            ps2 = conn.prepareStatement(ManagerInventoryDAO.UPSERT_STOCK_SQL);
+            ps2.setInt(1, managerId);
             ps2.setInt(2, ceoProductId);
-            int ceoUpdated = ps2.executeUpdate();
-
-            if (ceoUpdated == 0) {
-                conn.rollback();
-                return false;
-            }
+            ps2.setDouble(3, sellingPrice);
+            ps2.setInt(4, quantity);
+            ps2.executeUpdate();
 
-            // 3. Add to manager inventory (or update if exists) - SQLite compatible
-            // First check if product already exists for this manager
-            String checkSql = "SELECT id, current_quantity FROM manager_inventory " +
-                    "WHERE manager_id = ? AND ceo_inventory_id = ?";
-            PreparedStatement checkPs = conn.prepareStatement(checkSql);
-            checkPs.setInt(1, managerId);
-            checkPs.setInt(2, ceoProductId);
-            ResultSet checkRs = checkPs.executeQuery();
-            
-            if (checkRs.next()) {
-                // Product exists, update quantity and selling price
-                int existingId = checkRs.getInt("id");
-                int existingQty = checkRs.getInt("current_quantity");
-                
-                String updateSql = "UPDATE manager_inventory SET " +
-                        "current_quantity = ?, selling_price = ?, last_updated = CURRENT_TIMESTAMP " +
-                        "WHERE id = ?";
-                ps3 = conn.prepareStatement(updateSql);
-                ps3.setInt(1, existingQty + quantity);
-                ps3.setDouble(2, sellingPrice);
-                ps3.setInt(3, existingId);
-                ps3.executeUpdate();
-            } else {
-                // Product doesn't exist, insert new
-                String insertSql = "INSERT INTO manager_inventory (manager_id, ceo_inventory_id, " +
-                        "selling_price, current_quantity) VALUES (?, ?, ?, ?)";
-                ps3 = conn.prepareStatement(insertSql);
-                ps3.setInt(1, managerId);
-                ps3.setInt(2, ceoProductId);
-                ps3.setDouble(3, sellingPrice);
-                ps3.setInt(4, quantity);
-                ps3.executeUpdate();
-            }
-            
-            checkRs.close();
-            checkPs.close();
+            // 3. Record both sides in the movement ledger
+            recordTransfer(conn, managerId, ceoProductId, quantity);
 
             conn.commit();
             return true;
@@ -89,17 +60,588 @@ public class StockTransferDAO {
             }
             e.printStackTrace();
         } finally {
-            DatabaseConnection.closeResources(null, ps1, conn);
             if (ps2 != null) {
                 try { ps2.close(); } catch (SQLException e) { e.printStackTrace(); }
             }
-            if (ps3 != null) {
-                try { ps3.close(); } catch (SQLException e) { e.printStackTrace(); }
+            DatabaseConnection.closeResources(null, ps1, conn);
+        }
+        return false;
+    }
+
+    // ============= BULK TRANSFER =============
+
+    // Transfer a whole stock request from CEO inventory to manager inventory in one transaction:
+    // either every line is applied or none is. Returns one result per line, in order.
+    public static List<TransferResult> transferStockFromCEO(int managerId, List<TransferLine> lines) {
+        return DatabaseConnection.executeWrite(() -> doTransferStockFromCEO(managerId, lines),
+                results(lines, TransferResult.FAILED));
+    }
+
+    private static List<TransferResult> doTransferStockFromCEO(int managerId, List<TransferLine> lines) {
+        Connection conn = null;
+        PreparedStatement deductPs = null;
+        PreparedStatement addPs = null;
+        PreparedStatement ledgerPs = null;
+
+        try {
+            conn = DatabaseConnection.getConnection();
+            conn.setAutoCommit(false);
+
+            // 1. Deduct from CEO inventory; a line without enough stock updates nothing
+            String deductSql = "UPDATE ceo_inventory SET total_quantity = total_quantity - ?, " +
+                    "last_updated = CURRENT_TIMESTAMP WHERE id = ? AND total_quantity >= ?";
+            deductPs = conn.prepareStatement(deductSql);
+            for (TransferLine line : lines) {
+                deductPs.setInt(1, line.getQuantity());
+                deductPs.setInt(2, line.getProductId());
+                deductPs.setInt(3, line.getQuantity());
+                deductPs.addBatch();
+            }
+            int[] deducted = deductPs.executeBatch();
+
+            for (int count : deducted) {
+                if (count == 0) {
+                    conn.rollback();
+                    return shortLines(conn, lines, deducted);
+                }
+            }
+
+            // 2. Add the quantities to the manager's inventory (creating missing rows) and set
+            // the new selling prices
+            addPs = conn.prepareStatement(ManagerInventoryDAO.UPSERT_STOCK_SQL);
+            for (TransferLine line : lines) {
+                addPs.setInt(1, managerId);
+                addPs.setInt(2, line.getProductId());
+                addPs.setDouble(3, line.getSellingPrice());
+                addPs.setInt(4, line.getQuantity());
+                addPs.addBatch();
+            }
+            addPs.executeBatch();
+
+            // 3. Record both sides of every line in the movement ledger
+            ledgerPs = InventoryLedgerDAO.prepareBatch(conn);
+            for (TransferLine line : lines) {
+                addTransfer(ledgerPs, managerId, line.getProductId(), line.getQuantity());
+            }
+            ledgerPs.executeBatch();
+
+            conn.commit();
+            return results(lines, TransferResult.TRANSFERRED);
+        } catch (SQLException e) {
+            try {
+                if (conn != null) conn.rollback();
+            } catch (SQLException ex) {
+                ex.printStackTrace();
+            }
+            e.printStackTrace();
+        } finally {
+            if (addPs != null) {
+                try { addPs.close(); } catch (SQLException e) { e.printStackTrace(); }
+            }
+            if (ledgerPs != null) {
+                try { ledgerPs.close(); } catch (SQLException e) { e.printStackTrace(); }
+            }
+            DatabaseConnection.closeResources(null, deductPs, conn);
+        }
+        return results(lines, TransferResult.FAILED);
+    }
+
+    // Ledger rows of a transfer out of the master inventory into a manager's store; each side
+    // names the other as reference
+    private static void recordTransfer(Connection conn, int managerId, int ceoProductId, int quantity) throws SQLException {
+        try (PreparedStatement ps = InventoryLedgerDAO.prepareBatch(conn)) {
+            addTransfer(ps, managerId, ceoProductId, quantity);
+            ps.executeBatch();
+        }
+    }
+
+    private static void addTransfer(PreparedStatement ps, int managerId, int ceoProductId, int quantity) throws SQLException {
+        InventoryLedgerDAO.add(ps, InventoryLedgerDAO.WAREHOUSE, ceoProductId, -quantity,
+                InventoryLedgerDAO.TRANSFER, "TO MANAGER " + managerId);
+        InventoryLedgerDAO.add(ps, managerId, ceoProductId, quantity,
+                InventoryLedgerDAO.TRANSFER, "FROM CEO");
+    }
+
+    // Results after a rolled back transfer: the lines that were short of stock, with what the CEO
+    // has now, and NOT_APPLIED for the rest
+    private static List<TransferResult> shortLines(Connection conn, List<TransferLine> lines,
+                                                   int[] deducted) throws SQLException {
+        List<TransferResult> results = new ArrayList<>();
+        try (PreparedStatement ps = conn.prepareStatement("SELECT total_quantity FROM ceo_inventory WHERE id = ?")) {
+            for (int i = 0; i < lines.size(); i++) {
+                TransferLine line = lines.get(i);
+                if (deducted[i] != 0) {
+                    results.add(new TransferResult(line, TransferResult.NOT_APPLIED, -1));
+                    continue;
+                }
+                ps.setInt(1, line.getProductId());
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (rs.next()) {
+                        results.add(new TransferResult(line, TransferResult.INSUFFICIENT_STOCK, rs.getInt(1)));
+                    } else {
+                        results.add(new TransferResult(line, TransferResult.NOT_FOUND, 0));
+                    }
+                }
+            }
+        }
+        conn.commit();
+        return results;
+    }
+
+    private static List<TransferResult> results(List<TransferLine> lines, String status) {
+        List<TransferResult> results = new ArrayList<>();
+        for (TransferLine line : lines) {
+            results.add(new TransferResult(line, status, -1));
+        }
+        return results;
+    }
+
+    // True if every line of a bulk transfer was applied
+    public static boolean allTransferred(List<TransferResult> results) {
+        for (TransferResult result : results) {
+            if (!result.isTransferred()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // One product of a stock request
+    public static class TransferLine {
+        private final int productId;
+        private final int quantity;
+        private final double sellingPrice;
+
+        public TransferLine(int productId, int quantity, double sellingPrice) {
+            this.productId = productId;
+            this.quantity = quantity;
+            this.sellingPrice = sellingPrice;
+        }
+
+        public int getProductId() { return productId; }
+        public int getQuantity() { return quantity; }
+        public double getSellingPrice() { return sellingPrice; }
+    }
+
+    // Outcome of one line of a bulk transfer
+    public static class TransferResult {
+        public static final String TRANSFERRED = "TRANSFERRED";
+        public static final String INSUFFICIENT_STOCK = "INSUFFICIENT_STOCK";
+        public static final String NOT_FOUND = "NOT_FOUND";
+        // Rolled back because another line failed
+        public static final String NOT_APPLIED = "NOT_APPLIED";
+        // Database error; nothing was transferred
+        public static final String FAILED = "FAILED";
+
+        private final TransferLine line;
+        private final String status;
+        private final int availableQuantity;
+
+        public TransferResult(TransferLine line, String status, int availableQuantity) {
+            this.line = line;
+            this.status = status;
+            this.availableQuantity = availableQuantity;
+        }
+
+        public TransferLine getLine() { return line; }
+        public String getStatus() { return status; }
+        // CEO stock of the product for INSUFFICIENT_STOCK lines, -1 otherwise
+        public int getAvailableQuantity() { return availableQuantity; }
+        public boolean isTransferred() { return TRANSFERRED.equals(status); }
+    }
+
+    // ============= BRANCH TRANSFERS =============
+    // Stock moved from one manager's store to another's. A move takes the quantity off the
+    // source row only if it still has that much (guarded UPDATE) and adds it to the destination
+    // row in the same transaction, so stock is never lost or counted twice. The destination keeps
+    // its own selling price; a product new to it starts at the source's price.
+
+    private static final String TAKE_FROM_BRANCH_SQL =
+            "UPDATE manager_inventory SET current_quantity = current_quantity - ?, " +
+            "last_updated = CURRENT_TIMESTAMP " +
+            "WHERE manager_id = ? AND ceo_inventory_id = ? AND current_quantity >= ?";
+
+    private static final String ADD_TO_BRANCH_SQL =
+            "INSERT INTO manager_inventory (manager_id, ceo_inventory_id, selling_price, current_quantity) " +
+            "SELECT ?, ceo_inventory_id, selling_price, ? FROM manager_inventory " +
+            "WHERE manager_id = ? AND ceo_inventory_id = ? " +
+            "ON CONFLICT(manager_id, ceo_inventory_id) DO UPDATE SET " +
+            "current_quantity = current_quantity + excluded.current_quantity, " +
+            "last_updated = CURRENT_TIMESTAMP";
+
+    // Ask another manager for stock: records a PENDING transfer for the source manager to
+    // approve or reject. Returns the transfer id, or -1.
+    public static int requestBranchTransfer(int fromManagerId, int toManagerId, int ceoInventoryId, int quantity) {
+        if (fromManagerId == toManagerId || quantity <= 0) {
+            return -1;
+        }
+        int transferId = DatabaseConnection.executeWrite(
+                () -> doRequestBranchTransfer(fromManagerId, toManagerId, ceoInventoryId, quantity), -1);
+        if (transferId > 0) {
+            NotificationDAO.createNotification(fromManagerId, "GENERAL", "Stock Transfer Request",
+                    "Manager " + toManagerId + " requested " + quantity + " units (transfer #" + transferId + ")",
+                    String.valueOf(transferId));
+        }
+        return transferId;
+    }
+
+    private static int doRequestBranchTransfer(int fromManagerId, int toManagerId, int ceoInventoryId, int quantity) {
+        Connection conn = null;
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+
+        try {
+            conn = DatabaseConnection.getConnection();
+            String sql = "INSERT INTO stock_transfer (from_manager_id, to_manager_id, ceo_inventory_id, " +
+                    "product_name, quantity, status) " +
+                    "SELECT ?, ?, id, product_name, ?, 'PENDING' FROM ceo_inventory WHERE id = ?";
+            ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+            ps.setInt(1, fromManagerId);
+            ps.setInt(2, toManagerId);
+            ps.setInt(3, quantity);
+            ps.setInt(4, ceoInventoryId);
+
+            if (ps.executeUpdate() > 0) {
+                rs = ps.getGeneratedKeys();
+                if (rs.next()) {
+                    return rs.getInt(1);
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        } finally {
+            DatabaseConnection.closeResources(rs, ps, conn);
+        }
+        return -1;
+    }
+
+    // Approve a pending transfer and move the stock. Only the source manager (the one giving the
+    // stock) can approve. Fails (and the transfer stays PENDING) when the source no longer has
+    // the quantity, the transfer was already decided, or managerId is not its source.
+    public static BranchTransferResult approveBranchTransfer(int transferId, int managerId) {
+        return DatabaseConnection.executeWrite(() -> doApproveBranchTransfer(transferId, managerId),
+                BranchTransferResult.failed());
+    }
+
+    private static BranchTransferResult doApproveBranchTransfer(int transferId, int managerId) {
+        Connection conn = null;
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+
+        try {
+            conn = DatabaseConnection.getConnection();
+            conn.setAutoCommit(false);
+
+            // 1. Claim the transfer; only one approve or reject can win
+            ps = conn.prepareStatement("UPDATE stock_transfer SET status = 'COMPLETED' " +
+                    "WHERE id = ? AND status = 'PENDING' AND from_manager_id = ?");
+            ps.setInt(1, transferId);
+            ps.setInt(2, managerId);
+            if (ps.executeUpdate() == 0) {
+                conn.rollback();
+                return BranchTransferResult.failed();
+            }
+            ps.close();
+
+            // 2. Move the stock
+            ps = conn.prepareStatement("SELECT from_manager_id, to_manager_id, ceo_inventory_id, quantity " +
+                    "FROM stock_transfer WHERE id = ?");
+            ps.setInt(1, transferId);
+            rs = ps.executeQuery();
+            if (!rs.next()) {
+                conn.rollback();
+                return BranchTransferResult.failed();
+            }
+            List<BranchMove> moves = new ArrayList<>();
+            moves.add(new BranchMove(rs.getInt("from_manager_id"), rs.getInt("to_manager_id"),
+                    rs.getInt("ceo_inventory_id"), rs.getInt("quantity")));
+
+            BranchTransferResult result = moveBetweenBranches(conn, moves);
+            if (!result.isSuccess()) {
+                conn.rollback();
+                return result;
+            }
+
+            conn.commit();
+            return result;
+        } catch (SQLException e) {
+            try {
+                if (conn != null) conn.rollback();
+            } catch (SQLException ex) {
+                ex.printStackTrace();
             }
+            e.printStackTrace();
+        } finally {
+            DatabaseConnection.closeResources(rs, ps, conn);
+        }
+        return BranchTransferResult.failed();
+    }
+
+    // Reject (or, as the requesting manager, withdraw) a pending transfer; no stock moves.
+    // managerId must be one of the two managers of the transfer.
+    public static boolean rejectBranchTransfer(int transferId, int managerId) {
+        return DatabaseConnection.executeWrite(() -> doRejectBranchTransfer(transferId, managerId), false);
+    }
+
+    private static boolean doRejectBranchTransfer(int transferId, int managerId) {
+        Connection conn = null;
+        PreparedStatement ps = null;
+
+        try {
+            conn = DatabaseConnection.getConnection();
+            ps = conn.prepareStatement("UPDATE stock_transfer SET status = 'REJECTED' " +
+                    "WHERE id = ? AND status = 'PENDING' AND (from_manager_id = ? OR to_manager_id = ?)");
+            ps.setInt(1, transferId);
+            ps.setInt(2, managerId);
+            ps.setInt(3, managerId);
+            return ps.executeUpdate() > 0;
+        } catch (SQLException e) {
+            e.printStackTrace();
+        } finally {
+            DatabaseConnection.closeResources(null, ps, conn);
         }
         return false;
     }
 
+    // Pending transfers a manager is asked to send or is waiting for, oldest first
+    public static List<BranchTransfer> getPendingBranchTransfers(int managerId) {
+        List<BranchTransfer> transfers = new ArrayList<>();
+        Connection conn = null;
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+
+        try {
+            conn = DatabaseConnection.getConnection();
+            String sql = "SELECT id, from_manager_id, to_manager_id, ceo_inventory_id, product_name, " +
+                    "quantity, transfer_date FROM stock_transfer " +
+                    "WHERE status = 'PENDING' AND (from_manager_id = ? OR to_manager_id = ?) " +
+                    "ORDER BY transfer_date, id";
+            ps = conn.prepareStatement(sql);
+            ps.setInt(1, managerId);
+            ps.setInt(2, managerId);
+            rs = ps.executeQuery();
+
+            while (rs.next()) {
+                transfers.add(new BranchTransfer(
+                        rs.getInt("id"),
+                        rs.getInt("from_manager_id"),
+                        rs.getInt("to_manager_id"),
+                        rs.getInt("ceo_inventory_id"),
+                        rs.getString("product_name"),
+                        rs.getInt("quantity"),
+                        rs.getTimestamp("transfer_date")
+                ));
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        } finally {
+            DatabaseConnection.closeResources(rs, ps, conn);
+        }
+        return transfers;
+    }
+
+    // Move stock between branches right away (no approval step), e.g. to rebalance many
+    // products at once. All moves are applied in one transaction or none is; each is recorded
+    // as a COMPLETED transfer.
+    public static BranchTransferResult transferBetweenManagers(List<BranchMove> moves) {
+        for (BranchMove move : moves) {
+            if (move.getFromManagerId() == move.getToManagerId() || move.getQuantity() <= 0) {
+                return BranchTransferResult.failed();
+            }
+        }
+        if (moves.isEmpty()) {
+            return BranchTransferResult.completed();
+        }
+        return DatabaseConnection.executeWrite(() -> doTransferBetweenManagers(moves),
+                BranchTransferResult.failed());
+    }
+
+    public static BranchTransferResult transferBetweenManagers(int fromManagerId, int toManagerId,
+                                                               int ceoInventoryId, int quantity) {
+        List<BranchMove> moves = new ArrayList<>();
+        moves.add(new BranchMove(fromManagerId, toManagerId, ceoInventoryId, quantity));
+        return transferBetweenManagers(moves);
+    }
+
+    private static BranchTransferResult doTransferBetweenManagers(List<BranchMove> moves) {
+        Connection conn = null;
+        PreparedStatement ps = null;
+
+        try {
+            conn = DatabaseConnection.getConnection();
+            conn.setAutoCommit(false);
+
+            BranchTransferResult result = moveBetweenBranches(conn, moves);
+            if (!result.isSuccess()) {
+                conn.rollback();
+                return result;
+            }
+
+            String sql = "INSERT INTO stock_transfer (from_manager_id, to_manager_id, ceo_inventory_id, " +
+                    "product_name, quantity, status) " +
+                    "SELECT ?, ?, id, product_name, ?, 'COMPLETED' FROM ceo_inventory WHERE id = ?";
+            ps = conn.prepareStatement(sql);
+            for (BranchMove move : moves) {
+                ps.setInt(1, move.getFromManagerId());
+                ps.setInt(2, move.getToManagerId());
+                ps.setInt(3, move.getQuantity());
+                ps.setInt(4, move.getCeoInventoryId());
+                ps.addBatch();
+            }
+            ps.executeBatch();
+
+            conn.commit();
+            return result;
+        } catch (SQLException e) {
+            try {
+                if (conn != null) conn.rollback();
+            } catch (SQLException ex) {
+                ex.printStackTrace();
+            }
+            e.printStackTrace();
+        } finally {
+            DatabaseConnection.closeResources(null, ps, conn);
+        }
+        return BranchTransferResult.failed();
+    }
+
+    // Apply moves inside the caller's transaction: batched guarded decrements, then the
+    // destination upserts, then the ledger rows. On a short move nothing after the decrements
+    // runs and the caller must roll back.
+    private static BranchTransferResult moveBetweenBranches(Connection conn, List<BranchMove> moves) throws SQLException {
+        try (PreparedStatement takePs = conn.prepareStatement(TAKE_FROM_BRANCH_SQL);
+             PreparedStatement addPs = conn.prepareStatement(ADD_TO_BRANCH_SQL);
+             PreparedStatement ledgerPs = InventoryLedgerDAO.prepareBatch(conn)) {
+
+            for (BranchMove move : moves) {
+                takePs.setInt(1, move.getQuantity());
+                takePs.setInt(2, move.getFromManagerId());
+                takePs.setInt(3, move.getCeoInventoryId());
+                takePs.setInt(4, move.getQuantity());
+                takePs.addBatch();
+            }
+            int[] taken = takePs.executeBatch();
+            for (int i = 0; i < taken.length; i++) {
+                if (taken[i] == 0) {
+                    BranchMove move = moves.get(i);
+                    return BranchTransferResult.shortOfStock(move,
+                            branchQuantity(conn, move.getFromManagerId(), move.getCeoInventoryId()));
+                }
+            }
+
+            for (BranchMove move : moves) {
+                addPs.setInt(1, move.getToManagerId());
+                addPs.setInt(2, move.getQuantity());
+                addPs.setInt(3, move.getFromManagerId());
+                addPs.setInt(4, move.getCeoInventoryId());
+                addPs.addBatch();
+
+                InventoryLedgerDAO.add(ledgerPs, move.getFromManagerId(), move.getCeoInventoryId(),
+                        -move.getQuantity(), InventoryLedgerDAO.TRANSFER, "TO MANAGER " + move.getToManagerId());
+                InventoryLedgerDAO.add(ledgerPs, move.getToManagerId(), move.getCeoInventoryId(),
+                        move.getQuantity(), InventoryLedgerDAO.TRANSFER, "FROM MANAGER " + move.getFromManagerId());
+            }
+            addPs.executeBatch();
+            ledgerPs.executeBatch();
+        }
+        return BranchTransferResult.completed();
+    }
+
+    // What a branch holds of a product as the transaction sees it (after earlier moves)
+    private static int branchQuantity(Connection conn, int managerId, int ceoInventoryId) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(
+                "SELECT current_quantity FROM manager_inventory WHERE manager_id = ? AND ceo_inventory_id = ?")) {
+            ps.setInt(1, managerId);
+            ps.setInt(2, ceoInventoryId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        }
+    }
+
+    // One product moved from one branch to another
+    public static class BranchMove {
+        private final int fromManagerId;
+        private final int toManagerId;
+        private final int ceoInventoryId;
+        private final int quantity;
+
+        public BranchMove(int fromManagerId, int toManagerId, int ceoInventoryId, int quantity) {
+            this.fromManagerId = fromManagerId;
+            this.toManagerId = toManagerId;
+            this.ceoInventoryId = ceoInventoryId;
+            this.quantity = quantity;
+        }
+
+        public int getFromManagerId() { return fromManagerId; }
+        public int getToManagerId() { return toManagerId; }
+        public int getCeoInventoryId() { return ceoInventoryId; }
+        public int getQuantity() { return quantity; }
+    }
+
+    // A branch transfer as stored in stock_transfer
+    public static class BranchTransfer {
+        private final int id;
+        private final int fromManagerId;
+        private final int toManagerId;
+        private final int ceoInventoryId;
+        private final String productName;
+        private final int quantity;
+        private final Timestamp requestedAt;
+
+        public BranchTransfer(int id, int fromManagerId, int toManagerId, int ceoInventoryId,
+                              String productName, int quantity, Timestamp requestedAt) {
+            this.id = id;
+            this.fromManagerId = fromManagerId;
+            this.toManagerId = toManagerId;
+            this.ceoInventoryId = ceoInventoryId;
+            this.productName = productName;
+            this.quantity = quantity;
+            this.requestedAt = requestedAt;
+        }
+
+        public int getId() { return id; }
+        public int getFromManagerId() { return fromManagerId; }
+        public int getToManagerId() { return toManagerId; }
+        public int getCeoInventoryId() { return ceoInventoryId; }
+        public String getProductName() { return productName; }
+        public int getQuantity() { return quantity; }
+        public Timestamp getRequestedAt() { return requestedAt; }
+    }
+
+    // Outcome of a branch transfer: done, short of stock at the source (nothing was moved), or
+    // failed (already decided, not approved by its source manager, invalid, or a database error)
+    public static class BranchTransferResult {
+        private final boolean success;
+        private final BranchMove shortMove;
+        private final int availableQuantity;
+
+        private BranchTransferResult(boolean success, BranchMove shortMove, int availableQuantity) {
+            this.success = success;
+            this.shortMove = shortMove;
+            this.availableQuantity = availableQuantity;
+        }
+
+        static BranchTransferResult completed() {
+            return new BranchTransferResult(true, null, -1);
+        }
+
+        static BranchTransferResult shortOfStock(BranchMove move, int availableQuantity) {
+            return new BranchTransferResult(false, move, availableQuantity);
+        }
+
+        static BranchTransferResult failed() {
+            return new BranchTransferResult(false, null, -1);
+        }
+
+        public boolean isSuccess() { return success; }
+        public boolean isShortOfStock() { return shortMove != null; }
+        // The first move the source branch could not cover, or null
+        public BranchMove getShortMove() { return shortMove; }
+        // Source branch stock of that product, -1 unless short of stock
+        public int getAvailableQuantity() { return availableQuantity; }
+    }
+
     // Check if manager can get stock (enough quantity available)
     public static boolean canTransferStock(int ceoProductId, int quantity) {
         Connection conn = null;
@@ -188,6 +188,11 @@ public class UserDAO {
     // Add new manager (by CEO) - KEEP ONLY ONE VERSION OF THIS METHOD
     public static boolean addManager(String username, String password, String name,
                                      String phone, String cnic, double salary, int ceoId) {
+        return DatabaseConnection.executeWrite(() -> doAddManager(username, password, name, phone, cnic, salary, ceoId), false);
+    }
+
+    private static boolean doAddManager(String username, String password, String name,
+                                        String phone, String cnic, double salary, int ceoId) {
         Connection conn = null;
         PreparedStatement ps1 = null;
         PreparedStatement ps2 = null;
@@ -249,6 +254,11 @@ public class UserDAO {
     // Update user profile (username, password, phone only)
     public static boolean updateUserProfile(int userId, String username,
                                             String password, String phone) {
+        return DatabaseConnection.executeWrite(() -> doUpdateUserProfile(userId, username, password, phone), false);
+    }
+
+    private static boolean doUpdateUserProfile(int userId, String username,
+                                               String password, String phone) {
         Connection conn = null;
         PreparedStatement ps = null;
 
@@ -349,6 +359,10 @@ public class UserDAO {
 
     // Approve/Reject cashier request
     public static boolean updateCashierRequestStatus(int requestId, boolean approve, String reason) {
+        return DatabaseConnection.executeWrite(() -> doUpdateCashierRequestStatus(requestId, approve, reason), false);
+    }
+
+    private static boolean doUpdateCashierRequestStatus(int requestId, boolean approve, String reason) {
         Connection conn = null;
         PreparedStatement ps1 = null;
         PreparedStatement ps2 = null;
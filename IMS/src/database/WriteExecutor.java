@@ -0,0 +1,94 @@
+package database;
+
+import java.sql.SQLException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+// ============= SINGLE-WRITER EXECUTOR =============
+// SQLite allows one writer at a time. In WAL mode every mutating DAO call is queued onto
+// one writer thread that owns a dedicated connection, so writers never compete for the
+// write lock while readers keep running concurrently on pooled connections.
+// A write issued from inside another write (e.g. a notification created while approving a
+// cashier) runs inline on the writer thread and joins the outer transaction.
+class WriteExecutor implements PooledConnection.Owner {
+    private final ConnectionPool.ConnectionFactory factory;
+    private final ExecutorService executor;
+    private volatile Thread writerThread;
+
+    // Only touched on the writer thread
+    private PooledConnection connection;
+    private int borrowDepth;
+
+    WriteExecutor(ConnectionPool.ConnectionFactory factory) {
+        this.factory = factory;
+        this.executor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "DatabaseWriter");
+            t.setDaemon(true);
+            writerThread = t;
+            return t;
+        });
+    }
+
+    boolean isWriterThread() {
+        return Thread.currentThread() == writerThread;
+    }
+
+    // Queue a write and return immediately; the future completes once it has run
+    <T> Future<T> submit(Callable<T> work) {
+        return executor.submit(work);
+    }
+
+    // Queue a write and wait for its result
+    <T> T execute(Callable<T> work) throws Exception {
+        if (isWriterThread()) {
+            return work.call();
+        }
+        try {
+            return executor.submit(work).get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            throw (Error) cause;
+        }
+    }
+
+    // Hand out the writer connection (writer thread only). Nested borrows share it.
+    PooledConnection borrow() throws SQLException {
+        if (connection == null || !connection.validate(Long.MAX_VALUE)) {
+            if (connection != null) {
+                connection.closePhysical();
+            }
+            connection = new PooledConnection(this, factory.open());
+        }
+        borrowDepth++;
+        return connection;
+    }
+
+    @Override
+    public void release(PooledConnection pooled) {
+        if (--borrowDepth == 0 && !pooled.reset()) {
+            pooled.closePhysical();
+            connection = null;
+        }
+    }
+
+    // Let queued writes finish, then close the writer connection
+    void shutdown() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (connection != null) {
+            connection.closePhysical();
+            connection = null;
+        }
+    }
+}
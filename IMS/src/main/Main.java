@@ -1,18 +1,26 @@
 package main;
 
+import database.DatabaseConnection;
 import javax.swing.*;
 import ui.LoginFrame;
 import utils.InitializeDatabase;
+import utils.InventorySnapshotService;
 import utils.SalaryReminderService;
 
 public class Main {
     public static void main(String[] args) {
+        // Open pooled database connections before the first query
+        DatabaseConnection.warmUp();
+
         // Initialize database on startup
         InitializeDatabase.initialize();
 
         // Start salary reminder service
         SalaryReminderService.startService();
 
+        // Start periodic stock ledger snapshots
+        InventorySnapshotService.startService();
+
         // Set Look and Feel
         try {
             UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
@@ -5,14 +5,17 @@ import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
+import java.util.ArrayList;
+import java.util.List;
 import models.Manager;
 import models.CEOInventory;
 import database.InventoryDAO;
 import database.StockTransferDAO;
 import utils.ElegantMessageDialog;
+import utils.AsyncLoader;
 
 // ============= ADD STOCK PANEL =============
-class AddStockPanel extends JPanel {
+class AddStockPanel extends JPanel implements LazyTabs.Refreshable {
     private Manager currentUser;
     private JTable availableProductsTable;
     private DefaultTableModel availableTableModel;
@@ -24,6 +27,7 @@ class AddStockPanel extends JPanel {
     private java.util.Map<Integer, CEOInventory> availableProductsMap;
     private java.util.Map<Integer, SelectedProduct> selectedProductsMap;
     private double currentMinSellingPrice = 0.0;
+    private final AsyncLoader loader = new AsyncLoader(this);
 
     public AddStockPanel(Manager user) {
         this.currentUser = user;
@@ -251,27 +255,33 @@ class AddStockPanel extends JPanel {
 
         return button;
     }
+    // Called when the tab is reselected after its data went stale
+    @Override
+    public void refresh() {
+        loadAvailableProducts();
+    }
+
     private void loadAvailableProducts() {
-        availableTableModel.setRowCount(0);
-        availableProductsMap.clear();
-
-        java.util.List<CEOInventory> products = InventoryDAO.getAllCEOInventory();
-
-        for (CEOInventory product : products) {
-            if (product.getTotalQuantity() > 0) { // Only show products with available stock
-                double buyingPrice = product.getBuyingPrice();
-                double minSellingPrice = calculateMinSellingPrice(buyingPrice);
-
-                availableTableModel.addRow(new Object[]{
-                        product.getId(),
-                        product.getProductName(),
-                        product.getTotalQuantity(),
-                        String.format("$%.2f", buyingPrice),
-                        String.format("$%.2f", minSellingPrice)
-                });
-                availableProductsMap.put(product.getId(), product);
+        loader.loadRows(InventoryDAO::getAllCEOInventory, () -> {
+            availableTableModel.setRowCount(0);
+            availableProductsMap.clear();
+        }, products -> {
+            for (CEOInventory product : products) {
+                if (product.getTotalQuantity() > 0) { // Only show products with available stock
+                    double buyingPrice = product.getBuyingPrice();
+                    double minSellingPrice = calculateMinSellingPrice(buyingPrice);
+
+                    availableTableModel.addRow(new Object[]{
+                            product.getId(),
+                            product.getProductName(),
+                            product.getTotalQuantity(),
+                            String.format("$%.2f", buyingPrice),
+                            String.format("$%.2f", minSellingPrice)
+                    });
+                    availableProductsMap.put(product.getId(), product);
+                }
             }
-        }
+        }, null);
 
         // Removed message box - user can see empty table
     }
@@ -411,28 +421,44 @@ class AddStockPanel extends JPanel {
                 "Confirm Stock Request");
 
         if (confirm == JOptionPane.YES_OPTION) {
-            // Process each selected product
-            boolean success = true;
+            // Transfer the whole request in one transaction: all products or none
+            List<StockTransferDAO.TransferLine> lines = new ArrayList<>();
             for (SelectedProduct product : selectedProductsMap.values()) {
-                if (!StockTransferDAO.transferStockFromCEO(currentUser.getId(), product.getProductId(),
-                        product.getQuantity(), product.getSellingPrice())) {
-                    success = false;
-                    break;
-                }
+                lines.add(new StockTransferDAO.TransferLine(product.getProductId(),
+                        product.getQuantity(), product.getSellingPrice()));
             }
+            List<StockTransferDAO.TransferResult> results =
+                    StockTransferDAO.transferStockFromCEO(currentUser.getId(), lines);
 
-            if (success) {
+            if (StockTransferDAO.allTransferred(results)) {
                 // Clear selections
                 selectedProductsMap.clear();
                 selectedTableModel.setRowCount(0);
                 loadAvailableProducts(); // Refresh available products
             } else {
                 ElegantMessageDialog.showMessage(this,
-                        "Failed to process some stock requests. Please try again.",
+                        "Stock request failed; nothing was transferred." + describeFailures(results),
                         "Request Failed",
                         JOptionPane.ERROR_MESSAGE);
+                loadAvailableProducts(); // Show the current CEO stock
+            }
+        }
+    }
+
+    // The lines that stopped a transfer, one per line of the message
+    private String describeFailures(List<StockTransferDAO.TransferResult> results) {
+        StringBuilder message = new StringBuilder();
+        for (StockTransferDAO.TransferResult result : results) {
+            SelectedProduct product = selectedProductsMap.get(result.getLine().getProductId());
+            String name = product != null ? product.getProductName() : "Product #" + result.getLine().getProductId();
+            if (StockTransferDAO.TransferResult.INSUFFICIENT_STOCK.equals(result.getStatus())) {
+                message.append("<br>").append(name).append(": only ").append(result.getAvailableQuantity())
+                        .append(" available, ").append(result.getLine().getQuantity()).append(" requested");
+            } else if (StockTransferDAO.TransferResult.NOT_FOUND.equals(result.getStatus())) {
+                message.append("<br>").append(name).append(": no longer in the master inventory");
             }
         }
+        return message.toString();
     }
 
     // Helper class for selected products
@@ -4,18 +4,19 @@ import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.text.SimpleDateFormat;
-import java.util.List;
 import models.CashierRequest;
 import database.UserDAO;
 import utils.ElegantMessageDialog;
+import utils.AsyncLoader;
 
 // Approve Cashiers Panel
-class ApproveCashiersPanel extends JPanel {
+class ApproveCashiersPanel extends JPanel implements LazyTabs.Refreshable {
     private JTable requestsTable;
     private DefaultTableModel tableModel;
     private JButton refreshButton;
     private JButton approveButton;
     private JButton rejectButton;
+    private final AsyncLoader loader = new AsyncLoader(this);
 
     public ApproveCashiersPanel() {
         initializeUI();
@@ -134,22 +135,27 @@ class ApproveCashiersPanel extends JPanel {
 
         return button;
     }
-    private void loadPendingRequests() {
-        tableModel.setRowCount(0);
-        List<CashierRequest> requests = UserDAO.getPendingCashierRequests();
+    // Called when the tab is reselected after its data went stale
+    @Override
+    public void refresh() {
+        loadPendingRequests();
+    }
 
+    private void loadPendingRequests() {
         SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd");
-        for (CashierRequest request : requests) {
-            tableModel.addRow(new Object[]{
-                    request.getId(),
-                    request.getCashierName(),
-                    request.getUsername(),
-                    request.getPhone(),
-                    request.getCnic(),
-                    request.getManagerName(),
-                    sdf.format(request.getRequestDate())
-            });
-        }
+        loader.loadRows(UserDAO::getPendingCashierRequests, () -> tableModel.setRowCount(0), requests -> {
+            for (CashierRequest request : requests) {
+                tableModel.addRow(new Object[]{
+                        request.getId(),
+                        request.getCashierName(),
+                        request.getUsername(),
+                        request.getPhone(),
+                        request.getCnic(),
+                        request.getManagerName(),
+                        sdf.format(request.getRequestDate())
+                });
+            }
+        }, null);
     }
 
     private void approveRequest() {
@@ -0,0 +1,185 @@
+package ui;
+
+import database.Page;
+import utils.AsyncLoader;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+// ============= VIRTUAL TABLE MODEL =============
+// Read-only TableModel for listings too long to copy into a DefaultTableModel (bill history,
+// expenses, the master inventory). It knows the total row count and fetches rows in blocks of
+// BLOCK_SIZE only when the table asks for them, i.e. when they scroll into view. At most
+// MAX_BLOCKS blocks are kept, least recently used dropped first, so memory stays the same
+// however long the history grows.
+//
+// Rows that are not loaded yet read as null (blank cells) and are repainted when their block
+// arrives. The block right after a cached block is read with that block's keyset cursor; a
+// jump further down (dragging the scroll bar) falls back to an offset.
+//
+// Cells hold typed values (Double, Date, ...); FormattedCellRenderer formats them.
+class BlockTableModel<T> extends AbstractTableModel {
+
+    static final int BLOCK_SIZE = Integer.getInteger("ims.ui.blockSize", 100);
+    static final int MAX_BLOCKS = Integer.getInteger("ims.ui.cachedBlocks", 10);
+
+    // Fetches the rows after the cursor, or from offset on when the cursor is null
+    interface BlockQuery<T> {
+        Page<T> fetch(Page.Cursor after, int offset, int limit);
+    }
+
+    // Value of one column of a row
+    interface ColumnValue<T> {
+        Object get(T row, int column);
+    }
+
+    private final String[] columnNames;
+    private final Class<?>[] columnTypes;
+    private final Callable<Integer> countQuery;
+    private final BlockQuery<T> blockQuery;
+    private final ColumnValue<T> columnValue;
+    private final AsyncLoader countLoader;
+
+    // Cached blocks by block number, in access order (EDT only)
+    private final Map<Integer, Page<T>> blocks = new LinkedHashMap<Integer, Page<T>>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, Page<T>> eldest) {
+            return size() > MAX_BLOCKS;
+        }
+    };
+    // Blocks waiting to be fetched, most recently asked for first
+    private final Deque<Integer> wanted = new ArrayDeque<>();
+    private int fetching = -1;
+    private int generation;
+    private int rowCount;
+
+    BlockTableModel(JComponent owner, String[] columnNames, Class<?>[] columnTypes,
+                    Callable<Integer> countQuery, BlockQuery<T> blockQuery, ColumnValue<T> columnValue) {
+        this.columnNames = columnNames;
+        this.columnTypes = columnTypes;
+        this.countQuery = countQuery;
+        this.blockQuery = blockQuery;
+        this.columnValue = columnValue;
+        this.countLoader = new AsyncLoader(owner);
+    }
+
+    // Recount the rows and drop every cached block; onCounted (may be null) runs afterwards.
+    // The old rows stay visible until the count arrives.
+    void reload(Runnable onCounted) {
+        countLoader.load(countQuery, count -> {
+            generation++;
+            blocks.clear();
+            wanted.clear();
+            fetching = -1;
+            rowCount = count;
+            fireTableDataChanged();
+            if (onCounted != null) {
+                onCounted.run();
+            }
+        });
+    }
+
+    // The row at index, or null while its block is being fetched
+    T getRow(int row) {
+        int block = row / BLOCK_SIZE;
+        Page<T> page = blocks.get(block);
+        if (page == null) {
+            request(block);
+            return null;
+        }
+        int index = row % BLOCK_SIZE;
+        return index < page.getRows().size() ? page.getRows().get(index) : null;
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columnNames.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columnNames[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return columnTypes[column];
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        T value = getRow(row);
+        return value != null ? columnValue.get(value, column) : null;
+    }
+
+    // Queue a block; when scrolling fast only the latest MAX_BLOCKS requests are kept
+    private void request(int block) {
+        if (block == fetching || wanted.contains(block)) {
+            return;
+        }
+        wanted.addFirst(block);
+        while (wanted.size() > MAX_BLOCKS) {
+            wanted.removeLast();
+        }
+        fetchNext();
+    }
+
+    // Fetch one block at a time, newest request first
+    private void fetchNext() {
+        if (fetching >= 0) {
+            return;
+        }
+        Integer block = wanted.pollFirst();
+        while (block != null && blocks.containsKey(block)) {
+            block = wanted.pollFirst();
+        }
+        if (block == null) {
+            return;
+        }
+
+        int number = block;
+        int gen = generation;
+        Page<T> previous = blocks.get(number - 1);
+        Page.Cursor after = previous != null ? previous.getNext() : null;
+        int offset = number * BLOCK_SIZE;
+        fetching = number;
+
+        new SwingWorker<Page<T>, Void>() {
+            @Override
+            protected Page<T> doInBackground() {
+                return blockQuery.fetch(after, offset, BLOCK_SIZE);
+            }
+
+            @Override
+            protected void done() {
+                if (gen != generation) {
+                    return; // Reloaded meanwhile
+                }
+                fetching = -1;
+                try {
+                    blocks.put(number, get());
+                    int last = Math.min(rowCount, offset + BLOCK_SIZE) - 1;
+                    if (last >= offset) {
+                        fireTableRowsUpdated(offset, last);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException e) {
+                    e.getCause().printStackTrace();
+                }
+                fetchNext();
+            }
+        }.execute();
+    }
+}
@@ -5,10 +5,13 @@ import database.NotificationDAO;
 import utils.ElegantMessageDialog;
 import javax.swing.*;
 import java.awt.*;
+import utils.AsyncLoader;
+import utils.StartupTimer;
 
 public class CEODashboard extends JFrame {
     private CEO currentUser;
     private JTabbedPane tabbedPane;
+    private final AsyncLoader badgeLoader = new AsyncLoader(getRootPane());
 
     public CEODashboard(CEO user) {
         this.currentUser = user;
@@ -57,16 +60,21 @@ public class CEODashboard extends JFrame {
         UIManager.put("TabbedPane.selectedTabPadInsets", new Insets(3, 10, 3, 10));
         UIManager.put("TabbedPane.tabInsets", new Insets(5, 14, 5, 14));
 
-        tabbedPane.addTab("Dashboard", new CEODashboardPanel(currentUser));
-        tabbedPane.addTab("Add Employee", new AddManagerPanel(currentUser));
-        tabbedPane.addTab("Approve Cashiers", new ApproveCashiersPanel());
-        tabbedPane.addTab("View Managers", new ViewManagersPanel());
-        tabbedPane.addTab("Master Inventory", new MasterInventoryPanel(currentUser));
-        tabbedPane.addTab("View Expenses", new ViewExpensesPanel());
-        tabbedPane.addTab("Salary Management", new SalaryManagementPanel(currentUser));
-        tabbedPane.addTab("Financial Reports", new EnhancedFinancialReportsPanel());
+        // Each tab is built when first selected
+        LazyTabs lazyTabs = new LazyTabs(tabbedPane);
+        lazyTabs.addTab("Dashboard", () -> new CEODashboardPanel(currentUser));
+        lazyTabs.addTab("Add Employee", () -> new AddManagerPanel(currentUser));
+        lazyTabs.addTab("Approve Cashiers", () -> new ApproveCashiersPanel());
+        lazyTabs.addTab("View Managers", () -> new ViewManagersPanel());
+        lazyTabs.addTab("Master Inventory", () -> new MasterInventoryPanel(currentUser));
+        lazyTabs.addTab("View Expenses", () -> new ViewExpensesPanel());
+        lazyTabs.addTab("Salary Management", () -> new SalaryManagementPanel(currentUser));
+        lazyTabs.addTab("Financial Reports", () -> new EnhancedFinancialReportsPanel());
 
         add(tabbedPane, BorderLayout.CENTER);
+        lazyTabs.showSelected();
+
+        StartupTimer.reportWhenInteractive(this, "CEO");
     }
 
     private JPanel createHeader() {
@@ -131,13 +139,7 @@ public class CEODashboard extends JFrame {
             NotificationDialog dialog = new NotificationDialog(this, currentUser);
             dialog.setVisible(true);
             // Update badge after dialog closes (setVisible blocks until closed)
-            int unreadCount = NotificationDAO.getUnreadCount(currentUser.getId());
-            if (unreadCount > 0) {
-                notificationButton.setText("NOTIFICATIONS (" + unreadCount + ")");
-            } else {
-                notificationButton.setText("NOTIFICATIONS");
-            }
-            notificationButton.repaint();
+            updateNotificationBadge(notificationButton);
         });
 
         rightPanel.add(userLabel);
@@ -193,11 +195,17 @@ public class CEODashboard extends JFrame {
         return button;
     }
     
+    // Show the unread count on the notification button once it has been loaded
+    private void updateNotificationBadge(JButton button) {
+        int userId = currentUser.getId();
+        badgeLoader.load(() -> NotificationDAO.getUnreadCount(userId), unreadCount -> {
+            button.setText(unreadCount > 0 ? "NOTIFICATIONS (" + unreadCount + ")" : "NOTIFICATIONS");
+            button.repaint();
+        });
+    }
+
     private JButton createNotificationButton() {
-        int unreadCount = NotificationDAO.getUnreadCount(currentUser.getId());
-        String bellText = unreadCount > 0 ? "NOTIFICATIONS (" + unreadCount + ")" : "NOTIFICATIONS";
-        
-        JButton button = new JButton(bellText) {
+        JButton button = new JButton("NOTIFICATIONS") {
             @Override
             protected void paintComponent(Graphics g) {
                 Graphics2D g2 = (Graphics2D) g;
@@ -230,6 +238,7 @@ public class CEODashboard extends JFrame {
             }
         });
 
+        updateNotificationBadge(button);
         return button;
     }
     
@@ -3,19 +3,15 @@ package ui;
 import javax.swing.*;
 import java.awt.*;
 import models.CEO;
-import models.Manager;
-import models.CEOInventory;
-import models.CashierRequest;
-import database.UserDAO;
-import database.InventoryDAO;
-import database.BillDAO;
-import database.ExpenseDAO;
+import database.CEODAO;
+import utils.AsyncLoader;
 
 // ============= UPDATED CEO DASHBOARD OVERVIEW PANEL =============
-class CEODashboardPanel extends JPanel {
+class CEODashboardPanel extends JPanel implements LazyTabs.Refreshable {
     private CEO currentUser;
     private JLabel totalManagersLabel, totalProductsLabel, lowStockLabel, pendingRequestsLabel;
     private JLabel totalRevenueLabel, totalExpensesLabel, netProfitLabel;
+    private final AsyncLoader loader = new AsyncLoader(this);
 
     public CEODashboardPanel(CEO user) {
         this.currentUser = user;
@@ -49,7 +45,7 @@ class CEODashboardPanel extends JPanel {
         int buttonHeight = Math.max(42, screenSize.height / 25);
         JButton refreshButton = createStyledButton("Refresh", new Color(23, 162, 184), Color.WHITE);
         refreshButton.setPreferredSize(new Dimension(buttonWidth, buttonHeight));
-        refreshButton.addActionListener(e -> loadDashboardData());
+        refreshButton.addActionListener(e -> loadDashboardData(true));
 
         buttonPanel.add(refreshButton);
         add(buttonPanel, BorderLayout.SOUTH);
@@ -152,22 +148,33 @@ class CEODashboardPanel extends JPanel {
         return card;
     }
 
+    // Called when the tab is reselected after its data went stale
+    @Override
+    public void refresh() {
+        loadDashboardData();
+    }
+
     private void loadDashboardData() {
+        loadDashboardData(false);
+    }
+
+    // Counts and totals come from one aggregate query; Refresh bypasses the short-lived cache
+    private void loadDashboardData(boolean forceRefresh) {
+        loader.load(() -> CEODAO.getCEOSummary(forceRefresh), this::showDashboardData);
+    }
+
+    private void showDashboardData(CEODAO.CEOSummary stats) {
         // Load managers count
-        java.util.List<Manager> managers = UserDAO.getAllManagers();
-        totalManagersLabel.setText(String.valueOf(managers.size()));
+        totalManagersLabel.setText(String.valueOf(stats.getManagersCount()));
 
         // Load inventory stats
-        java.util.List<CEOInventory> inventory = InventoryDAO.getAllCEOInventory();
-        totalProductsLabel.setText(String.valueOf(inventory.size()));
+        totalProductsLabel.setText(String.valueOf(stats.getProductsCount()));
 
         // Load financial data
-        double totalRevenue = BillDAO.getTotalRevenue();
-        double totalExpenses = ExpenseDAO.getTotalExpenses();
-        double netProfit = totalRevenue - totalExpenses;
+        double netProfit = stats.getNetProfit();
 
-        totalRevenueLabel.setText(String.format("$%.2f", totalRevenue));
-        totalExpensesLabel.setText(String.format("$%.2f", totalExpenses));
+        totalRevenueLabel.setText(String.format("$%.2f", stats.getTotalRevenue()));
+        totalExpensesLabel.setText(String.format("$%.2f", stats.getTotalExpenses()));
 
         // Color code profit (green for profit, red for loss)
         if (netProfit >= 0) {
@@ -178,15 +185,11 @@ class CEODashboardPanel extends JPanel {
         netProfitLabel.setText(String.format("$%.2f", netProfit));
 
         // Load low stock count
-        java.util.List<CEOInventory> lowStock = InventoryDAO.getLowStockCEOInventory();
-        lowStockLabel.setText(String.valueOf(lowStock.size()));
+        lowStockLabel.setText(String.valueOf(stats.getLowStockCount()));
 
         // Load pending requests count
-        java.util.List<CashierRequest> pendingRequests = UserDAO.getPendingCashierRequests();
-        pendingRequestsLabel.setText(String.valueOf(pendingRequests.size()));
+        pendingRequestsLabel.setText(String.valueOf(stats.getPendingRequestsCount()));
 
         // Removed automatic warning messages - user can check dashboard stats instead
     }
-
 }
-
@@ -5,10 +5,13 @@ import database.NotificationDAO;
 import utils.ElegantMessageDialog;
 import javax.swing.*;
 import java.awt.*;
+import utils.AsyncLoader;
+import utils.StartupTimer;
 
 public class CashierDashboard extends JFrame {
     private Cashier currentUser;
     private JTabbedPane tabbedPane;
+    private final AsyncLoader badgeLoader = new AsyncLoader(getRootPane());
     
     // Teal color for cashier - complements CEO blue and Manager green
     private static final Color CASHIER_COLOR = new Color(0, 150, 136);
@@ -49,11 +52,16 @@ public class CashierDashboard extends JFrame {
         // Responsive tab font size
         int tabFontSize = Math.max(14, screenWidth / 100);
         tabbedPane.setFont(new Font("Arial", Font.BOLD, tabFontSize));
-        tabbedPane.addTab("Create Bill", new CreateBillPanel(currentUser));
-        tabbedPane.addTab("View Stock", new CashierViewStockPanel(currentUser));
-        tabbedPane.addTab("Past Bills", new CashierPastBillsPanel(currentUser));
+        // Each tab is built when first selected
+        LazyTabs lazyTabs = new LazyTabs(tabbedPane);
+        lazyTabs.addTab("Create Bill", () -> new CreateBillPanel(currentUser));
+        lazyTabs.addTab("View Stock", () -> new CashierViewStockPanel(currentUser));
+        lazyTabs.addTab("Past Bills", () -> new CashierPastBillsPanel(currentUser));
 
         add(tabbedPane, BorderLayout.CENTER);
+        lazyTabs.showSelected();
+
+        StartupTimer.reportWhenInteractive(this, "Cashier");
     }
 
     private JPanel createHeader() {
@@ -118,13 +126,7 @@ public class CashierDashboard extends JFrame {
             NotificationDialog dialog = new NotificationDialog(this, currentUser);
             dialog.setVisible(true);
             // Update badge after dialog closes (setVisible blocks until closed)
-            int unreadCount = NotificationDAO.getUnreadCount(currentUser.getId());
-            if (unreadCount > 0) {
-                notificationButton.setText("NOTIFICATIONS (" + unreadCount + ")");
-            } else {
-                notificationButton.setText("NOTIFICATIONS");
-            }
-            notificationButton.repaint();
+            updateNotificationBadge(notificationButton);
         });
 
         rightPanel.add(userLabel);
@@ -180,11 +182,17 @@ public class CashierDashboard extends JFrame {
         return button;
     }
     
+    // Show the unread count on the notification button once it has been loaded
+    private void updateNotificationBadge(JButton button) {
+        int userId = currentUser.getId();
+        badgeLoader.load(() -> NotificationDAO.getUnreadCount(userId), unreadCount -> {
+            button.setText(unreadCount > 0 ? "NOTIFICATIONS (" + unreadCount + ")" : "NOTIFICATIONS");
+            button.repaint();
+        });
+    }
+
     private JButton createNotificationButton() {
-        int unreadCount = NotificationDAO.getUnreadCount(currentUser.getId());
-        String bellText = unreadCount > 0 ? "NOTIFICATIONS (" + unreadCount + ")" : "NOTIFICATIONS";
-        
-        JButton button = new JButton(bellText) {
+        JButton button = new JButton("NOTIFICATIONS") {
             @Override
             protected void paintComponent(Graphics g) {
                 Graphics2D g2 = (Graphics2D) g;
@@ -217,6 +225,7 @@ public class CashierDashboard extends JFrame {
             }
         });
 
+        updateNotificationBadge(button);
         return button;
     }
     
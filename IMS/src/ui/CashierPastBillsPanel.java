@@ -8,16 +8,20 @@ import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.text.SimpleDateFormat;
+import java.util.Date;
+import utils.AsyncLoader;
 
 // ============= CASHIER PAST BILLS PANEL =============
-class CashierPastBillsPanel extends JPanel {
+class CashierPastBillsPanel extends JPanel implements LazyTabs.Refreshable {
     private Cashier currentUser;
     private JTable billsTable;
-    private DefaultTableModel tableModel;
+    private BlockTableModel<Bill> tableModel;
     private JButton refreshButton, viewDetailsButton;
     
     // Teal color for cashier
     private static final Color CASHIER_COLOR = new Color(0, 150, 136);
+    private static final String DATE_FORMAT = "yyyy-MM-dd HH:mm";
+    private final AsyncLoader totalsLoader = new AsyncLoader(this);
 
     public CashierPastBillsPanel(Cashier user) {
         this.currentUser = user;
@@ -52,18 +56,27 @@ class CashierPastBillsPanel extends JPanel {
         headerPanel.add(buttonPanel, BorderLayout.EAST);
         add(headerPanel, BorderLayout.NORTH);
 
-        // Table
+        // Table: bills are fetched block by block as they scroll into view
+        int cashierId = currentUser.getId();
         String[] columns = {"Bill Number", "Date", "Total Amount", "Status", "Manager"};
-        tableModel = new DefaultTableModel(columns, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        Class<?>[] types = {String.class, Date.class, Double.class, String.class, String.class};
+        tableModel = new BlockTableModel<>(this, columns, types,
+                () -> CashierInventoryDAO.countCashierBills(cashierId),
+                (after, offset, limit) -> CashierInventoryDAO.getCashierBillsPage(cashierId, after, offset, limit),
+                (bill, column) -> {
+                    switch (column) {
+                        case 0: return bill.getBillNumber();
+                        case 1: return bill.getBillDate();
+                        case 2: return bill.getTotalAmount();
+                        case 3: return bill.getStatus();
+                        default: return bill.getManagerName();
+                    }
+                });
         billsTable = new JTable(tableModel);
         billsTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
         billsTable.setFont(new Font("Arial", Font.PLAIN, 14));
         billsTable.setRowHeight(35);
+        new FormattedCellRenderer(DATE_FORMAT).installOn(billsTable);
         
         // Configure header with proper visibility
         javax.swing.table.JTableHeader billsHeader = billsTable.getTableHeader();
@@ -115,26 +128,19 @@ class CashierPastBillsPanel extends JPanel {
         return panel;
     }
 
+    // Called when the tab is reselected after its data went stale
+    @Override
+    public void refresh() {
+        loadBills();
+    }
+
     private void loadBills() {
-        tableModel.setRowCount(0);
-        java.util.List<Bill> bills = CashierInventoryDAO.getCashierBills(currentUser.getId());
-
-        SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd HH:mm");
-        double totalSales = 0;
-
-        for (Bill bill : bills) {
-            tableModel.addRow(new Object[]{
-                    bill.getBillNumber(),
-                    sdf.format(bill.getBillDate()),
-                    String.format("$%.2f", bill.getTotalAmount()),
-                    bill.getStatus(),
-                    bill.getManagerName()
-            });
-            totalSales += bill.getTotalAmount();
-        }
+        int cashierId = currentUser.getId();
+        tableModel.reload(null);
 
-        // Update summary
-        updateSummaryPanel(bills.size(), totalSales);
+        // Totals cover all bills, not just the pages loaded so far
+        totalsLoader.load(() -> CashierInventoryDAO.getCashierBillTotals(cashierId),
+                totals -> updateSummaryPanel(totals.getCount(), totals.getAmount()));
     }
 
     private void updateSummaryPanel(int totalBills, double totalSales) {
@@ -158,10 +164,14 @@ class CashierPastBillsPanel extends JPanel {
             return;
         }
 
-        String billNumber = (String) tableModel.getValueAt(selectedRow, 0);
-        String date = (String) tableModel.getValueAt(selectedRow, 1);
-        String totalAmount = (String) tableModel.getValueAt(selectedRow, 2);
-        String manager = (String) tableModel.getValueAt(selectedRow, 4);
+        Bill bill = tableModel.getRow(selectedRow);
+        if (bill == null) {
+            return; // Still loading
+        }
+        String billNumber = bill.getBillNumber();
+        String date = new SimpleDateFormat(DATE_FORMAT).format(bill.getBillDate());
+        String totalAmount = String.format("$%.2f", bill.getTotalAmount());
+        String manager = bill.getManagerName();
 
         // Get bill ID (we need to store it or fetch from database)
         // For now, show basic details
@@ -232,16 +242,17 @@ class CashierPastBillsPanel extends JPanel {
             }
         });
 
-        // Fetch actual bill items from database
-        java.util.List<BillItemDetail> billItems = BillDAO.getBillItems(billNumber);
-        for (BillItemDetail item : billItems) {
-            itemsModel.addRow(new Object[]{
-                    item.getProductName(),
-                    item.getQuantity(),
-                    String.format("$%.2f", item.getUnitPrice()),
-                    String.format("$%.2f", item.getSubtotal())
-            });
-        }
+        // Fetch actual bill items from database (the dialog opens while they load)
+        new AsyncLoader(itemsTable).loadRows(() -> BillDAO.getBillItems(billNumber), null, billItems -> {
+            for (BillItemDetail item : billItems) {
+                itemsModel.addRow(new Object[]{
+                        item.getProductName(),
+                        item.getQuantity(),
+                        String.format("$%.2f", item.getUnitPrice()),
+                        String.format("$%.2f", item.getSubtotal())
+                });
+            }
+        }, null);
 
         JScrollPane scrollPane = new JScrollPane(itemsTable);
         itemsPanel.add(scrollPane, BorderLayout.CENTER);
@@ -6,9 +6,10 @@ import javax.swing.*;
 import javax.swing.table.DefaultTableCellRenderer;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
+import utils.AsyncLoader;
 
 // ============= CASHIER VIEW STOCK PANEL =============
-class CashierViewStockPanel extends JPanel {
+class CashierViewStockPanel extends JPanel implements LazyTabs.Refreshable {
     private Cashier currentUser;
     private JTable stockTable;
     private DefaultTableModel tableModel;
@@ -16,6 +17,7 @@ class CashierViewStockPanel extends JPanel {
     
     // Teal color for cashier
     private static final Color CASHIER_COLOR = new Color(0, 150, 136);
+    private final AsyncLoader loader = new AsyncLoader(this);
 
     public CashierViewStockPanel(Cashier user) {
         this.currentUser = user;
@@ -173,36 +175,42 @@ class CashierViewStockPanel extends JPanel {
         return panel;
     }
 
-    private void loadStock() {
-        tableModel.setRowCount(0);
-
-        java.util.List<ManagerInventory> inventory = CashierInventoryDAO.getAvailableProductsForCashier(currentUser.getId());
-
-        int totalProducts = 0;
-        int availableProducts = 0;
-        int lowStockProducts = 0;
-
-        for (ManagerInventory product : inventory) {
-            String status = product.getStockStatus();
-
-            tableModel.addRow(new Object[]{
-                    product.getProductName(),
-                    String.format("$%.2f", product.getSellingPrice()),
-                    product.getCurrentQuantity(),
-                    status
-            });
+    // Called when the tab is reselected after its data went stale
+    @Override
+    public void refresh() {
+        loadStock();
+    }
 
-            totalProducts++;
-            if (product.getCurrentQuantity() > 0) {
-                availableProducts++;
-            }
-            if (product.isLowStock()) {
-                lowStockProducts++;
+    private void loadStock() {
+        int cashierId = currentUser.getId();
+
+        // total, available, low stock
+        int[] counts = new int[3];
+
+        loader.loadRows(() -> CashierInventoryDAO.getAvailableProductsForCashier(cashierId),
+                () -> tableModel.setRowCount(0), inventory -> {
+            for (ManagerInventory product : inventory) {
+                String status = product.getStockStatus();
+
+                tableModel.addRow(new Object[]{
+                        product.getProductName(),
+                        String.format("$%.2f", product.getSellingPrice()),
+                        product.getCurrentQuantity(),
+                        status
+                });
+
+                counts[0]++;
+                if (product.getCurrentQuantity() > 0) {
+                    counts[1]++;
+                }
+                if (product.isLowStock()) {
+                    counts[2]++;
+                }
             }
-        }
-
-        // Update summary
-        updateSummaryPanel(totalProducts, availableProducts, lowStockProducts);
+        }, () -> {
+            // Update summary
+            updateSummaryPanel(counts[0], counts[1], counts[2]);
+        });
     }
 
     private void updateSummaryPanel(int total, int available, int lowStock) {
@@ -9,9 +9,10 @@ import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.util.ArrayList;
 import java.util.List;
+import utils.AsyncLoader;
 
 // ============= CREATE BILL PANEL =============
-class CreateBillPanel extends JPanel {
+class CreateBillPanel extends JPanel implements LazyTabs.Refreshable {
     private Cashier currentUser;
     private JTable productsTable;
     private DefaultTableModel productsTableModel;
@@ -21,15 +22,15 @@ class CreateBillPanel extends JPanel {
     private JSpinner quantitySpinner;
     private JLabel totalLabel;
     private List<CartItem> cartItems;
-    private int managerId;
+    private volatile int managerId = -1; // Looked up with the first product load
     
     // Teal color for cashier
     private static final Color CASHIER_COLOR = new Color(0, 150, 136);
+    private final AsyncLoader loader = new AsyncLoader(this);
 
     public CreateBillPanel(Cashier user) {
         this.currentUser = user;
         this.cartItems = new ArrayList<>();
-        this.managerId = CashierInventoryDAO.getManagerIdForCashier(currentUser.getId());
         initializeUI();
         loadProducts();
     }
@@ -283,27 +284,37 @@ class CreateBillPanel extends JPanel {
 
         return button;
     }
-    private void loadProducts() {
-        productsTableModel.setRowCount(0);
-
-        if (managerId == -1) {
-            ElegantMessageDialog.showMessage(this,
-                    "You are not assigned to any manager yet.<br>Please contact the administrator.",
-                    "No Manager Assigned",
-                    JOptionPane.WARNING_MESSAGE);
-            return;
-        }
-
-        List<ManagerInventory> products = CashierInventoryDAO.getAvailableProductsForCashier(currentUser.getId());
+    // Called when the tab is reselected after its data went stale
+    @Override
+    public void refresh() {
+        loadProducts();
+    }
 
-        for (ManagerInventory product : products) {
-            productsTableModel.addRow(new Object[]{
-                    product.getId(),
-                    product.getProductName(),
-                    String.format("$%.2f", product.getSellingPrice()),
-                    product.getCurrentQuantity()
-            });
-        }
+    private void loadProducts() {
+        int cashierId = currentUser.getId();
+        loader.loadRows(() -> {
+            if (managerId == -1) {
+                managerId = CashierInventoryDAO.getManagerIdForCashier(cashierId);
+            }
+            return managerId == -1 ? new ArrayList<ManagerInventory>()
+                    : CashierInventoryDAO.getAvailableProductsForCashier(cashierId);
+        }, () -> productsTableModel.setRowCount(0), products -> {
+            for (ManagerInventory product : products) {
+                productsTableModel.addRow(new Object[]{
+                        product.getId(),
+                        product.getProductName(),
+                        String.format("$%.2f", product.getSellingPrice()),
+                        product.getCurrentQuantity()
+                });
+            }
+        }, () -> {
+            if (managerId == -1) {
+                ElegantMessageDialog.showMessage(this,
+                        "You are not assigned to any manager yet.<br>Please contact the administrator.",
+                        "No Manager Assigned",
+                        JOptionPane.WARNING_MESSAGE);
+            }
+        });
 
         // Removed message box - user can see empty table
     }
@@ -413,8 +424,10 @@ class CreateBillPanel extends JPanel {
 
             double totalAmount = calculateTotal();
 
-            String billNumber = CashierInventoryDAO.createBill(currentUser.getId(), managerId, billItems, totalAmount);
-            if (billNumber != null) {
+            CashierInventoryDAO.BillResult result =
+                    CashierInventoryDAO.placeBill(currentUser.getId(), managerId, billItems, totalAmount);
+            if (result.isSuccess()) {
+                String billNumber = result.getBillNumber();
                 // Notify manager about new bill
                 try {
                     NotificationDAO.createNotification(
@@ -439,6 +452,20 @@ class CreateBillPanel extends JPanel {
                 // Clear cart and refresh products
                 clearCart();
                 loadProducts();
+            } else if (result.getFailedInventoryId() != -1) {
+                // Point the cashier at the product that ran out
+                String productName = "a product in the cart";
+                for (CartItem item : cartItems) {
+                    if (item.getProductId() == result.getFailedInventoryId()) {
+                        productName = item.getProductName();
+                        break;
+                    }
+                }
+                ElegantMessageDialog.showMessage(this,
+                        "Not enough stock for " + productName + ".\nPlease reduce its quantity or remove it from the cart.",
+                        "Insufficient Stock",
+                        JOptionPane.ERROR_MESSAGE);
+                loadProducts();
             } else {
                 ElegantMessageDialog.showMessage(this,
                         "Failed to create bill. Please check stock availability and try again.",
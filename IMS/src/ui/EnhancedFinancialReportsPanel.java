@@ -8,15 +8,18 @@ import java.sql.Date;
 import java.time.LocalDate;
 import database.EnhancedProfitDAO;
 import utils.ElegantMessageDialog;
+import utils.AsyncLoader;
 
 // ============= ENHANCED FINANCIAL REPORTS PANEL =============
-class EnhancedFinancialReportsPanel extends JPanel {
+class EnhancedFinancialReportsPanel extends JPanel implements LazyTabs.Refreshable {
     private JLabel totalRevenueLabel, totalCOGSLabel, grossProfitLabel;
     private JLabel totalExpensesLabel, netProfitLabel, profitMarginLabel;
     private JTable reportsTable;
     private DefaultTableModel tableModel;
     private JButton refreshButton, exportButton;
     private JComboBox<String> dateFilterCombo;
+    private final AsyncLoader totalsLoader = new AsyncLoader(this);
+    private final AsyncLoader reportLoader = new AsyncLoader(this);
 
     public EnhancedFinancialReportsPanel() {
         initializeUI();
@@ -253,10 +256,21 @@ class EnhancedFinancialReportsPanel extends JPanel {
 
         return button;
     }
+    // Called when the tab is reselected after its data went stale
+    @Override
+    public void refresh() {
+        loadFinancialData();
+    }
+
     private void loadFinancialData() {
         // Load system totals
-        EnhancedProfitDAO.SystemTotals totals = EnhancedProfitDAO.getSystemTotals();
+        totalsLoader.load(EnhancedProfitDAO::getSystemTotals, this::showSystemTotals);
+
+        // Load manager performance data
+        loadManagerPerformanceReport();
+    }
 
+    private void showSystemTotals(EnhancedProfitDAO.SystemTotals totals) {
         totalRevenueLabel.setText(String.format("$%.2f", totals.getTotalRevenue()));
         totalCOGSLabel.setText(String.format("$%.2f", totals.getTotalCOGS()));
         grossProfitLabel.setText(String.format("$%.2f", totals.getGrossProfit()));
@@ -273,20 +287,15 @@ class EnhancedFinancialReportsPanel extends JPanel {
         double profitMargin = totals.getTotalRevenue() > 0 ?
                 (netProfit / totals.getTotalRevenue()) * 100 : 0;
         profitMarginLabel.setText(String.format("%.2f%%", profitMargin));
-
-        // Load manager performance data
-        loadManagerPerformanceReport();
     }
 
     private void loadManagerPerformanceReport() {
-        tableModel.setRowCount(0);
-
-        java.util.List<EnhancedProfitDAO.ManagerPerformance> performances;
+        java.util.concurrent.Callable<java.util.List<EnhancedProfitDAO.ManagerPerformance>> query;
 
         String selectedFilter = (String) dateFilterCombo.getSelectedItem();
 
         if ("All Time".equals(selectedFilter)) {
-            performances = EnhancedProfitDAO.getManagerPerformanceReport();
+            query = EnhancedProfitDAO::getManagerPerformanceReport;
         } else {
             // Calculate date range based on filter
             LocalDate endDate = LocalDate.now();
@@ -310,32 +319,34 @@ class EnhancedFinancialReportsPanel extends JPanel {
                     startDate = endDate.minusYears(10); // Default to all time
             }
 
-            performances = EnhancedProfitDAO.getManagerPerformanceByDateRange(
-                    Date.valueOf(startDate),
-                    Date.valueOf(endDate)
-            );
-        }
-
-        for (EnhancedProfitDAO.ManagerPerformance perf : performances) {
-            tableModel.addRow(new Object[]{
-                    perf.getManagerName(),
-                    String.format("$%.2f", perf.getTotalRevenue()),
-                    String.format("$%.2f", perf.getTotalCostOfGoodsSold()),
-                    String.format("$%.2f", perf.getGrossProfit()),
-                    String.format("$%.2f", perf.getTotalExpenses()),
-                    String.format("$%.2f", perf.getNetProfit()),
-                    String.format("%.2f%%", perf.getProfitMargin()),
-                    perf.getTotalBills(),
-                    perf.getTotalProductsSold()
-            });
+            Date from = Date.valueOf(startDate);
+            Date to = Date.valueOf(endDate);
+            query = () -> EnhancedProfitDAO.getManagerPerformanceByDateRange(from, to);
         }
 
-        if (performances.isEmpty()) {
-            ElegantMessageDialog.showMessage(this,
-                    "No manager performance data available for the selected period.",
-                    "No Data",
-                    JOptionPane.INFORMATION_MESSAGE);
-        }
+        // Switching the filter again before this finishes drops this result
+        reportLoader.loadRows(query, () -> tableModel.setRowCount(0), performances -> {
+            for (EnhancedProfitDAO.ManagerPerformance perf : performances) {
+                tableModel.addRow(new Object[]{
+                        perf.getManagerName(),
+                        String.format("$%.2f", perf.getTotalRevenue()),
+                        String.format("$%.2f", perf.getTotalCostOfGoodsSold()),
+                        String.format("$%.2f", perf.getGrossProfit()),
+                        String.format("$%.2f", perf.getTotalExpenses()),
+                        String.format("$%.2f", perf.getNetProfit()),
+                        String.format("%.2f%%", perf.getProfitMargin()),
+                        perf.getTotalBills(),
+                        perf.getTotalProductsSold()
+                });
+            }
+        }, () -> {
+            if (tableModel.getRowCount() == 0) {
+                ElegantMessageDialog.showMessage(this,
+                        "No manager performance data available for the selected period.",
+                        "No Data",
+                        JOptionPane.INFORMATION_MESSAGE);
+            }
+        });
     }
 
     private void exportToCSV() {
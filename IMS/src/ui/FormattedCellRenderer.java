@@ -0,0 +1,37 @@
+package ui;
+
+import javax.swing.*;
+import javax.swing.table.DefaultTableCellRenderer;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+// ============= FORMATTED CELL RENDERER =============
+// Formats typed table values at paint time, so table models can hold the Double and Date
+// values themselves instead of pre-formatted strings: doubles are money ("$12.50"), dates use
+// the given pattern and null (a row still loading) is blank.
+class FormattedCellRenderer extends DefaultTableCellRenderer {
+    private final SimpleDateFormat dateFormat;
+
+    FormattedCellRenderer(String datePattern) {
+        this.dateFormat = new SimpleDateFormat(datePattern);
+    }
+
+    // Use this renderer for every column of the table, whatever its class
+    void installOn(JTable table) {
+        table.setDefaultRenderer(Object.class, this);
+        table.setDefaultRenderer(Number.class, this);
+        table.setDefaultRenderer(Double.class, this);
+        table.setDefaultRenderer(Date.class, this);
+    }
+
+    @Override
+    protected void setValue(Object value) {
+        if (value instanceof Double) {
+            setText(String.format("$%.2f", value));
+        } else if (value instanceof Date) {
+            setText(dateFormat.format((Date) value));
+        } else {
+            super.setValue(value);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package ui;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+// ============= LAZY DASHBOARD TABS =============
+// Builds each dashboard tab the first time it is selected instead of at login, so only the
+// visible tab queries the database while the window opens. Selecting a tab again reloads it
+// when its data is older than ims.ui.tabStaleSec seconds (default 30).
+class LazyTabs {
+
+    // Panels whose data can be reloaded in place
+    interface Refreshable {
+        void refresh();
+    }
+
+    private static final long STALE_MS = Long.getLong("ims.ui.tabStaleSec", 30L) * 1000;
+
+    private final JTabbedPane tabbedPane;
+    private final List<Tab> tabs = new ArrayList<>();
+
+    LazyTabs(JTabbedPane tabbedPane) {
+        this.tabbedPane = tabbedPane;
+        tabbedPane.addChangeListener(e -> showSelected());
+    }
+
+    void addTab(String title, Supplier<JComponent> factory) {
+        tabs.add(new Tab(factory));
+        // Placeholder until the tab is first shown
+        tabbedPane.addTab(title, new JPanel(new BorderLayout()));
+    }
+
+    // Build or refresh the selected tab
+    void showSelected() {
+        int index = tabbedPane.getSelectedIndex();
+        if (index < 0 || index >= tabs.size()) {
+            return;
+        }
+        Tab tab = tabs.get(index);
+        long now = System.currentTimeMillis();
+        if (tab.component == null) {
+            tab.component = tab.factory.get();
+            tab.loadedAt = now;
+            tabbedPane.setComponentAt(index, tab.component);
+        } else if (tab.component instanceof Refreshable && now - tab.loadedAt >= STALE_MS) {
+            tab.loadedAt = now;
+            ((Refreshable) tab.component).refresh();
+        }
+    }
+
+    private static class Tab {
+        final Supplier<JComponent> factory;
+        JComponent component;
+        long loadedAt;
+
+        Tab(Supplier<JComponent> factory) {
+            this.factory = factory;
+        }
+    }
+}
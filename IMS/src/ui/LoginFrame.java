@@ -3,6 +3,7 @@ package ui;
 import models.*;
 import database.UserDAO;
 import utils.ElegantMessageDialog;
+import utils.StartupTimer;
 import javax.swing.*;
 import java.awt.*;
 
@@ -303,6 +304,7 @@ public class LoginFrame extends JFrame {
         }
 
         // Authenticate user
+        StartupTimer.markLogin();
         User user = UserDAO.authenticate(username, password);
 
         if (user != null) {
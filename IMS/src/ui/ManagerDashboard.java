@@ -5,10 +5,13 @@ import database.NotificationDAO;
 import utils.ElegantMessageDialog;
 import javax.swing.*;
 import java.awt.*;
+import utils.AsyncLoader;
+import utils.StartupTimer;
 
 public class ManagerDashboard extends JFrame {
     private Manager currentUser;
     private JTabbedPane tabbedPane;
+    private final AsyncLoader badgeLoader = new AsyncLoader(getRootPane());
 
     public ManagerDashboard(Manager user) {
         this.currentUser = user;
@@ -48,14 +51,19 @@ public class ManagerDashboard extends JFrame {
         tabbedPane.setFont(new Font("Arial", Font.BOLD, tabFontSize));
 
         // Placeholder tabs for now - we'll implement each one
-        tabbedPane.addTab("Dashboard", new ManagerDashboardPanel(currentUser));
-        tabbedPane.addTab("Request Cashier", new RequestCashierPanel(currentUser));
-        tabbedPane.addTab("Add Stock", new AddStockPanel(currentUser));
-        tabbedPane.addTab("View Inventory", new ManagerInventoryPanel(currentUser));
-        tabbedPane.addTab("Add Expenses", new AddExpensePanel(currentUser));
-        tabbedPane.addTab("View Cashiers", new ViewCashiersPanel(currentUser));
+        // Each tab is built when first selected
+        LazyTabs lazyTabs = new LazyTabs(tabbedPane);
+        lazyTabs.addTab("Dashboard", () -> new ManagerDashboardPanel(currentUser));
+        lazyTabs.addTab("Request Cashier", () -> new RequestCashierPanel(currentUser));
+        lazyTabs.addTab("Add Stock", () -> new AddStockPanel(currentUser));
+        lazyTabs.addTab("View Inventory", () -> new ManagerInventoryPanel(currentUser));
+        lazyTabs.addTab("Add Expenses", () -> new AddExpensePanel(currentUser));
+        lazyTabs.addTab("View Cashiers", () -> new ViewCashiersPanel(currentUser));
 
         add(tabbedPane, BorderLayout.CENTER);
+        lazyTabs.showSelected();
+
+        StartupTimer.reportWhenInteractive(this, "Manager");
     }
 
     private JPanel createHeader() {
@@ -120,13 +128,7 @@ public class ManagerDashboard extends JFrame {
             NotificationDialog dialog = new NotificationDialog(this, currentUser);
             dialog.setVisible(true);
             // Update badge after dialog closes (setVisible blocks until closed)
-            int unreadCount = NotificationDAO.getUnreadCount(currentUser.getId());
-            if (unreadCount > 0) {
-                notificationButton.setText("NOTIFICATIONS (" + unreadCount + ")");
-            } else {
-                notificationButton.setText("NOTIFICATIONS");
-            }
-            notificationButton.repaint();
+            updateNotificationBadge(notificationButton);
         });
 
         rightPanel.add(userLabel);
@@ -182,11 +184,17 @@ public class ManagerDashboard extends JFrame {
         return button;
     }
     
+    // Show the unread count on the notification button once it has been loaded
+    private void updateNotificationBadge(JButton button) {
+        int userId = currentUser.getId();
+        badgeLoader.load(() -> NotificationDAO.getUnreadCount(userId), unreadCount -> {
+            button.setText(unreadCount > 0 ? "NOTIFICATIONS (" + unreadCount + ")" : "NOTIFICATIONS");
+            button.repaint();
+        });
+    }
+
     private JButton createNotificationButton() {
-        int unreadCount = NotificationDAO.getUnreadCount(currentUser.getId());
-        String bellText = unreadCount > 0 ? "NOTIFICATIONS (" + unreadCount + ")" : "NOTIFICATIONS";
-        
-        JButton button = new JButton(bellText) {
+        JButton button = new JButton("NOTIFICATIONS") {
             @Override
             protected void paintComponent(Graphics g) {
                 Graphics2D g2 = (Graphics2D) g;
@@ -219,6 +227,7 @@ public class ManagerDashboard extends JFrame {
             }
         });
 
+        updateNotificationBadge(button);
         return button;
     }
     
@@ -4,12 +4,14 @@ import javax.swing.*;
 import java.awt.*;
 import models.Manager;
 import database.ManagerDAO;
+import utils.AsyncLoader;
 
 // ============= MANAGER DASHBOARD OVERVIEW PANEL =============
-class ManagerDashboardPanel extends JPanel {
+class ManagerDashboardPanel extends JPanel implements LazyTabs.Refreshable {
     private Manager currentUser;
     private JLabel totalCashiersLabel, totalProductsLabel, lowStockLabel, pendingRequestsLabel;
     private JLabel totalRevenueLabel, totalExpensesLabel, netProfitLabel;
+    private final AsyncLoader loader = new AsyncLoader(this);
 
     public ManagerDashboardPanel(Manager user) {
         this.currentUser = user;
@@ -37,7 +39,7 @@ class ManagerDashboardPanel extends JPanel {
         buttonPanel.setBorder(BorderFactory.createEmptyBorder(15, 0, 0, 0));
         JButton refreshButton = createStyledButton("Refresh", new Color(23, 162, 184), Color.WHITE);
         refreshButton.setPreferredSize(new Dimension(180, 48));
-        refreshButton.addActionListener(e -> loadDashboardData());
+        refreshButton.addActionListener(e -> loadDashboardData(true));
 
         buttonPanel.add(refreshButton);
         add(buttonPanel, BorderLayout.SOUTH);
@@ -128,22 +130,34 @@ class ManagerDashboardPanel extends JPanel {
         return card;
     }
 
+    // Called when the tab is reselected after its data went stale
+    @Override
+    public void refresh() {
+        loadDashboardData();
+    }
+
     private void loadDashboardData() {
+        loadDashboardData(false);
+    }
+
+    // One query for all cards; the Refresh button bypasses the short-lived stats cache
+    private void loadDashboardData(boolean forceRefresh) {
+        int managerId = currentUser.getId();
+        loader.load(() -> ManagerDAO.getManagerStats(managerId, forceRefresh), this::showDashboardData);
+    }
+
+    private void showDashboardData(ManagerDAO.ManagerStats stats) {
         // Load cashiers count
-        int cashiersCount = ManagerDAO.getCashiersCount(currentUser.getId());
-        totalCashiersLabel.setText(String.valueOf(cashiersCount));
+        totalCashiersLabel.setText(String.valueOf(stats.getCashiersCount()));
 
         // Load inventory stats
-        int productsCount = ManagerDAO.getProductsCount(currentUser.getId());
-        totalProductsLabel.setText(String.valueOf(productsCount));
+        totalProductsLabel.setText(String.valueOf(stats.getProductsCount()));
 
         // Load financial data
-        double totalRevenue = ManagerDAO.getManagerRevenue(currentUser.getId());
-        double totalExpenses = ManagerDAO.getManagerExpenses(currentUser.getId());
-        double netProfit = totalRevenue - totalExpenses;
+        double netProfit = stats.getNetProfit();
 
-        totalRevenueLabel.setText(String.format("$%.2f", totalRevenue));
-        totalExpensesLabel.setText(String.format("$%.2f", totalExpenses));
+        totalRevenueLabel.setText(String.format("$%.2f", stats.getRevenue()));
+        totalExpensesLabel.setText(String.format("$%.2f", stats.getExpenses()));
 
         // Color code profit (green for profit, red for loss)
         if (netProfit >= 0) {
@@ -154,11 +168,8 @@ class ManagerDashboardPanel extends JPanel {
         netProfitLabel.setText(String.format("$%.2f", netProfit));
 
         // Load low stock count
-        int lowStockCount = ManagerDAO.getLowStockCount(currentUser.getId());
-        lowStockLabel.setText(String.valueOf(lowStockCount));
+        lowStockLabel.setText(String.valueOf(stats.getLowStockCount()));
 
         // Removed automatic warning messages - user can check dashboard stats instead
     }
-
 }
-
@@ -8,13 +8,15 @@ import java.text.SimpleDateFormat;
 import models.Manager;
 import models.ManagerInventory;
 import database.ManagerInventoryDAO;
+import utils.AsyncLoader;
 
 // ============= MANAGER INVENTORY PANEL =============
-class ManagerInventoryPanel extends JPanel {
+class ManagerInventoryPanel extends JPanel implements LazyTabs.Refreshable {
     private Manager currentUser;
     private JTable inventoryTable;
     private DefaultTableModel tableModel;
     private JButton refreshButton;
+    private final AsyncLoader loader = new AsyncLoader(this);
 
     public ManagerInventoryPanel(Manager user) {
         this.currentUser = user;
@@ -165,34 +167,41 @@ class ManagerInventoryPanel extends JPanel {
         return panel;
     }
 
+    // Called when the tab is reselected after its data went stale
+    @Override
+    public void refresh() {
+        loadInventory();
+    }
+
     private void loadInventory() {
-        tableModel.setRowCount(0);
-        java.util.List<ManagerInventory> inventory = ManagerInventoryDAO.getManagerInventory(currentUser.getId());
+        int managerId = currentUser.getId();
         SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd HH:mm");
 
-        int totalProducts = 0;
-        int lowStockCount = 0;
+        int[] totalProducts = {0};
+        int[] lowStockCount = {0};
 
-        for (ManagerInventory item : inventory) {
-            String status = item.getStockStatus();
-            if (item.isLowStock()) {
-                lowStockCount++;
+        loader.loadRows(() -> ManagerInventoryDAO.getManagerInventory(managerId), () -> tableModel.setRowCount(0), inventory -> {
+            for (ManagerInventory item : inventory) {
+                String status = item.getStockStatus();
+                if (item.isLowStock()) {
+                    lowStockCount[0]++;
+                }
+                totalProducts[0]++;
+
+                tableModel.addRow(new Object[]{
+                        item.getProductName(),
+                        String.format("$%.2f", item.getBuyingPrice()),
+                        String.format("$%.2f", item.getSellingPrice()),
+                        item.getCurrentQuantity(),
+                        item.getMinStockLevel(),
+                        status,
+                        sdf.format(item.getLastUpdated())
+                });
             }
-            totalProducts++;
-
-            tableModel.addRow(new Object[]{
-                    item.getProductName(),
-                    String.format("$%.2f", item.getBuyingPrice()),
-                    String.format("$%.2f", item.getSellingPrice()),
-                    item.getCurrentQuantity(),
-                    item.getMinStockLevel(),
-                    status,
-                    sdf.format(item.getLastUpdated())
-            });
-        }
-
-        // Update summary panel
-        updateSummaryPanel(totalProducts, lowStockCount);
+        }, () -> {
+            // Update summary panel
+            updateSummaryPanel(totalProducts[0], lowStockCount[0]);
+        });
     }
 
     private void updateSummaryPanel(int totalProducts, int lowStockCount) {
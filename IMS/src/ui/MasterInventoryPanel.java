@@ -1,22 +1,22 @@
 package ui;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableCellRenderer;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
-import java.text.SimpleDateFormat;
-import java.util.List;
+import java.util.Date;
 import models.CEO;
 import models.CEOInventory;
+import database.CEODAO;
 import database.InventoryDAO;
 import utils.ElegantMessageDialog;
 
 // ============= MASTER INVENTORY PANEL =============
-class MasterInventoryPanel extends JPanel {
+class MasterInventoryPanel extends JPanel implements LazyTabs.Refreshable {
     private CEO currentUser;
     private JTable inventoryTable;
-    private DefaultTableModel tableModel;
+    private BlockTableModel<CEOInventory> tableModel;
     private JButton addButton, refreshButton, editButton, deleteButton;
+    // Set by the row count query, shown once the count arrives
+    private volatile int lowStockCount;
 
     public MasterInventoryPanel(CEO user) {
         this.currentUser = user;
@@ -62,14 +62,28 @@ class MasterInventoryPanel extends JPanel {
         headerPanel.add(buttonPanel, BorderLayout.EAST);
         add(headerPanel, BorderLayout.NORTH);
 
-        // Table
+        // Table: products are fetched block by block as they scroll into view. The product
+        // and low stock counts come from one summary query.
         String[] columns = {"ID", "Product Name", "Buying Price", "Quantity", "Min Stock", "Status", "Created Date"};
-        tableModel = new DefaultTableModel(columns, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        Class<?>[] types = {Integer.class, String.class, Double.class, Integer.class, Integer.class, String.class, Date.class};
+        tableModel = new BlockTableModel<>(this, columns, types,
+                () -> {
+                    CEODAO.CEOSummary summary = CEODAO.getCEOSummary(true);
+                    lowStockCount = summary.getLowStockCount();
+                    return summary.getProductsCount();
+                },
+                InventoryDAO::getCEOInventoryPage,
+                (item, column) -> {
+                    switch (column) {
+                        case 0: return item.getId();
+                        case 1: return item.getProductName();
+                        case 2: return item.getBuyingPrice();
+                        case 3: return item.getTotalQuantity();
+                        case 4: return item.getMinStockLevel();
+                        case 5: return item.getStockStatus();
+                        default: return item.getCreatedDate();
+                    }
+                });
         inventoryTable = new JTable(tableModel);
         inventoryTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
         inventoryTable.setFont(new Font("Arial", Font.PLAIN, 14));
@@ -98,7 +112,7 @@ class MasterInventoryPanel extends JPanel {
         });
 
         // Color code rows based on stock status
-        inventoryTable.setDefaultRenderer(Object.class, new DefaultTableCellRenderer() {
+        new FormattedCellRenderer("yyyy-MM-dd") {
             @Override
             public Component getTableCellRendererComponent(JTable table, Object value,
                                                            boolean isSelected, boolean hasFocus, int row, int column) {
@@ -119,7 +133,7 @@ class MasterInventoryPanel extends JPanel {
 
                 return c;
             }
-        });
+        }.installOn(inventoryTable);
 
         JScrollPane scrollPane = new JScrollPane(inventoryTable);
         scrollPane.setBorder(BorderFactory.createEmptyBorder(20, 0, 0, 0));
@@ -148,39 +162,24 @@ class MasterInventoryPanel extends JPanel {
         return panel;
     }
 
-    private void loadInventory() {
-        tableModel.setRowCount(0);
-        List<CEOInventory> inventory = InventoryDAO.getAllCEOInventory();
-        SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd");
-
-        int lowStockCount = 0;
+    // Called when the tab is reselected after its data went stale
+    @Override
+    public void refresh() {
+        loadInventory();
+    }
 
-        for (CEOInventory item : inventory) {
-            String status = item.getStockStatus();
-            if (item.isLowStock()) {
-                lowStockCount++;
+    private void loadInventory() {
+        tableModel.reload(() -> {
+            // Update warning panel
+            updateWarningPanel(lowStockCount);
+
+            if (tableModel.getRowCount() == 0) {
+                ElegantMessageDialog.showMessage(this,
+                        "No products in inventory. Add some products to get started.",
+                        "Empty Inventory",
+                        JOptionPane.INFORMATION_MESSAGE);
             }
-
-            tableModel.addRow(new Object[]{
-                    item.getId(),
-                    item.getProductName(),
-                    String.format("$%.2f", item.getBuyingPrice()),
-                    item.getTotalQuantity(),
-                    item.getMinStockLevel(),
-                    status,
-                    sdf.format(item.getCreatedDate())
-            });
-        }
-
-        // Update warning panel
-        updateWarningPanel(lowStockCount);
-
-        if (inventory.isEmpty()) {
-            ElegantMessageDialog.showMessage(this,
-                    "No products in inventory. Add some products to get started.",
-                    "Empty Inventory",
-                    JOptionPane.INFORMATION_MESSAGE);
-        }
+        });
     }
 
     private void updateWarningPanel(int lowStockCount) {
@@ -343,11 +342,15 @@ class MasterInventoryPanel extends JPanel {
             return;
         }
 
-        int productId = (int) tableModel.getValueAt(selectedRow, 0);
-        String currentName = (String) tableModel.getValueAt(selectedRow, 1);
-        String currentPrice = ((String) tableModel.getValueAt(selectedRow, 2)).substring(1); // Remove $ sign
-        int currentQuantity = (int) tableModel.getValueAt(selectedRow, 3);
-        int currentMinStock = (int) tableModel.getValueAt(selectedRow, 4);
+        CEOInventory item = tableModel.getRow(selectedRow);
+        if (item == null) {
+            return; // Still loading
+        }
+        int productId = item.getId();
+        String currentName = item.getProductName();
+        String currentPrice = String.format("%.2f", item.getBuyingPrice());
+        int currentQuantity = item.getTotalQuantity();
+        int currentMinStock = item.getMinStockLevel();
 
         // Similar to add dialog but pre-filled with current values
         showEditProductDialog(productId, currentName, currentPrice, currentQuantity, currentMinStock);
@@ -497,8 +500,12 @@ class MasterInventoryPanel extends JPanel {
             return;
         }
 
-        int productId = (int) tableModel.getValueAt(selectedRow, 0);
-        String productName = (String) tableModel.getValueAt(selectedRow, 1);
+        CEOInventory item = tableModel.getRow(selectedRow);
+        if (item == null) {
+            return; // Still loading
+        }
+        int productId = item.getId();
+        String productName = item.getProductName();
 
         int confirm = ElegantMessageDialog.showConfirm(this,
                 "Are you sure you want to delete product: " + productName + "?<br>This action cannot be undone.",
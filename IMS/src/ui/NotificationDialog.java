@@ -9,9 +9,11 @@ import java.time.format.DateTimeFormatter;
 import java.util.List;
 import models.Notification;
 import models.Bill;
+import models.BillItemDetail;
 import database.NotificationDAO;
 import database.BillDAO;
 import models.User;
+import utils.AsyncLoader;
 
 public class NotificationDialog extends JDialog {
     private User currentUser;
@@ -19,6 +21,8 @@ public class NotificationDialog extends JDialog {
     private JLabel unreadCountLabel;
     private DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMM dd, yyyy HH:mm");
     private Color roleColor;
+    private final AsyncLoader loader = new AsyncLoader(getRootPane());
+    private final AsyncLoader detailsLoader = new AsyncLoader(getRootPane());
 
     public NotificationDialog(Frame parent, User user) {
         super(parent, "Notifications", true);
@@ -151,11 +155,17 @@ public class NotificationDialog extends JDialog {
     }
 
     public void loadNotifications() {
+        int userId = currentUser.getId();
+        loader.load(() -> new NotificationData(NotificationDAO.getAllNotifications(userId, 50),
+                NotificationDAO.getUnreadCount(userId)), this::showNotifications);
+    }
+
+    private void showNotifications(NotificationData data) {
+        List<Notification> notifications = data.notifications;
+        int unreadCount = data.unreadCount;
+
         notificationListPanel.removeAll();
         
-        List<Notification> notifications = NotificationDAO.getAllNotifications(currentUser.getId(), 50);
-        int unreadCount = NotificationDAO.getUnreadCount(currentUser.getId());
-        
         unreadCountLabel.setText(unreadCount > 0 ? "(" + unreadCount + " unread)" : "");
         
         if (notifications.isEmpty()) {
@@ -319,8 +329,13 @@ public class NotificationDialog extends JDialog {
     }
 
     private void showBillDetails(String billNumber) {
+        detailsLoader.load(() -> new BillDetails(BillDAO.getBillByNumber(billNumber), BillDAO.getBillItems(billNumber)),
+                details -> showBillDetails(billNumber, details));
+    }
+
+    private void showBillDetails(String billNumber, BillDetails details) {
         // Get bill info
-        Bill bill = BillDAO.getBillByNumber(billNumber);
+        Bill bill = details.bill;
         if (bill == null) {
             JOptionPane.showMessageDialog(this, 
                 "Bill not found", 
@@ -330,7 +345,7 @@ public class NotificationDialog extends JDialog {
         }
         
         // Get bill items
-        var billItems = BillDAO.getBillItems(billNumber);
+        List<BillItemDetail> billItems = details.items;
         
         if (billItems.isEmpty()) {
             JOptionPane.showMessageDialog(this, 
@@ -451,4 +466,26 @@ public class NotificationDialog extends JDialog {
         dialog.add(mainPanel);
         dialog.setVisible(true);
     }
+
+    // Latest notifications and the unread total, loaded together off the EDT
+    private static class NotificationData {
+        final List<Notification> notifications;
+        final int unreadCount;
+
+        NotificationData(List<Notification> notifications, int unreadCount) {
+            this.notifications = notifications;
+            this.unreadCount = unreadCount;
+        }
+    }
+
+    // A bill and its line items, loaded together off the EDT
+    private static class BillDetails {
+        final Bill bill;
+        final List<BillItemDetail> items;
+
+        BillDetails(Bill bill, List<BillItemDetail> items) {
+            this.bill = bill;
+            this.items = items;
+        }
+    }
 }
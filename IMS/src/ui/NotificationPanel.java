@@ -7,9 +7,11 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 import models.Notification;
+import models.BillItemDetail;
 import database.NotificationDAO;
 import database.BillDAO;
 import models.User;
+import utils.AsyncLoader;
 
 public class NotificationPanel extends JPanel {
     private User currentUser;
@@ -17,6 +19,8 @@ public class NotificationPanel extends JPanel {
     private JLabel unreadCountLabel;
     private DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMM dd, yyyy HH:mm");
     private Color roleColor;
+    private final AsyncLoader loader = new AsyncLoader(this);
+    private final AsyncLoader detailsLoader = new AsyncLoader(this);
 
     public NotificationPanel(User user) {
         this.currentUser = user;
@@ -102,11 +106,17 @@ public class NotificationPanel extends JPanel {
     }
 
     public void loadNotifications() {
+        int userId = currentUser.getId();
+        loader.load(() -> new NotificationData(NotificationDAO.getAllNotifications(userId, 50),
+                NotificationDAO.getUnreadCount(userId)), this::showNotifications);
+    }
+
+    private void showNotifications(NotificationData data) {
+        List<Notification> notifications = data.notifications;
+        int unreadCount = data.unreadCount;
+
         notificationListPanel.removeAll();
         
-        List<Notification> notifications = NotificationDAO.getAllNotifications(currentUser.getId(), 50);
-        int unreadCount = NotificationDAO.getUnreadCount(currentUser.getId());
-        
         unreadCountLabel.setText(unreadCount > 0 ? "(" + unreadCount + " unread)" : "");
         
         if (notifications.isEmpty()) {
@@ -235,8 +245,10 @@ public class NotificationPanel extends JPanel {
 
     private void showBillDetails(String billNumber) {
         // Get bill items
-        var billItems = BillDAO.getBillItems(billNumber);
-        
+        detailsLoader.load(() -> BillDAO.getBillItems(billNumber), billItems -> showBillDetails(billNumber, billItems));
+    }
+
+    private void showBillDetails(String billNumber, List<BillItemDetail> billItems) {
         if (billItems.isEmpty()) {
             JOptionPane.showMessageDialog(this, 
                 "Bill details not found", 
@@ -320,4 +332,15 @@ public class NotificationPanel extends JPanel {
     public static int getUnreadCount(int userId) {
         return NotificationDAO.getUnreadCount(userId);
     }
+
+    // Latest notifications and the unread total, loaded together off the EDT
+    private static class NotificationData {
+        final List<Notification> notifications;
+        final int unreadCount;
+
+        NotificationData(List<Notification> notifications, int unreadCount) {
+            this.notifications = notifications;
+            this.unreadCount = unreadCount;
+        }
+    }
 }
@@ -11,8 +11,9 @@ import database.SalaryDAO;
 import database.NotificationDAO;
 import models.SalaryPayment;
 import models.User;
+import utils.AsyncLoader;
 
-public class SalaryManagementPanel extends JPanel {
+public class SalaryManagementPanel extends JPanel implements LazyTabs.Refreshable {
     private User currentUser;
     private JTable salaryTable;
     private DefaultTableModel tableModel;
@@ -20,6 +21,7 @@ public class SalaryManagementPanel extends JPanel {
     private JComboBox<String> monthComboBox;
     private JButton processSalariesButton;
     private static final Color CEO_COLOR = new Color(0, 102, 204);
+    private final AsyncLoader loader = new AsyncLoader(this);
 
     public SalaryManagementPanel(User user) {
         this.currentUser = user;
@@ -175,23 +177,34 @@ public class SalaryManagementPanel extends JPanel {
         return panel;
     }
 
+    // Called when the tab is reselected after its data went stale
+    @Override
+    public void refresh() {
+        loadSalaryData();
+    }
+
     private void loadSalaryData() {
-        tableModel.setRowCount(0);
-        
         String selectedMonth = getSelectedMonth();
         if (selectedMonth == null) return;
 
+        loader.load(() -> fetchSalaryData(selectedMonth), this::showSalaryData);
+    }
+
+    // Runs off the EDT: the month's payments, or the employees still to be paid
+    private static SalaryData fetchSalaryData(String selectedMonth) {
+        SalaryData data = new SalaryData();
+
         // Check if salaries are already paid for this month
-        boolean isPaid = SalaryDAO.areSalariesPaidForMonth(selectedMonth);
+        data.paid = SalaryDAO.areSalariesPaidForMonth(selectedMonth);
         
-        if (isPaid) {
+        if (data.paid) {
             // Load existing payment records
             java.util.List<SalaryPayment> payments = SalaryDAO.getSalaryPaymentsByMonth(selectedMonth);
             
             for (SalaryPayment payment : payments) {
                 // Get joining date for the user
                 String joiningDate = database.UserDAO.getJoiningDate(payment.getUserId());
-                tableModel.addRow(new Object[]{
+                data.rows.add(new Object[]{
                     payment.getUserId(),
                     payment.getUserName(),
                     payment.getUserRole(),
@@ -201,18 +214,13 @@ public class SalaryManagementPanel extends JPanel {
                     payment.getStatus()
                 });
             }
-            
-            statusLabel.setText("Salaries processed (" + payments.size() + " employees)");
-            statusLabel.setForeground(new Color(0, 150, 0));
-            processSalariesButton.setEnabled(false);
-            processSalariesButton.setText("Already Processed");
         } else {
             // Load pending employees
             java.util.List<SalaryDAO.UserSalaryInfo> pendingEmployees = 
                 SalaryDAO.getPendingEmployeesForMonth(selectedMonth);
             
             for (SalaryDAO.UserSalaryInfo emp : pendingEmployees) {
-                tableModel.addRow(new Object[]{
+                data.rows.add(new Object[]{
                     emp.getId(),
                     emp.getName(),
                     emp.getRole(),
@@ -222,17 +230,30 @@ public class SalaryManagementPanel extends JPanel {
                     "NOT PAID"
                 });
             }
-            
-            if (pendingEmployees.isEmpty()) {
-                statusLabel.setText("No employees with salary configured");
-                statusLabel.setForeground(new Color(150, 150, 150));
-                processSalariesButton.setEnabled(false);
-            } else {
-                statusLabel.setText(pendingEmployees.size() + " employees pending payment");
-                statusLabel.setForeground(new Color(255, 140, 0));
-                processSalariesButton.setEnabled(true);
-                processSalariesButton.setText("Process Monthly Salaries");
-            }
+        }
+        return data;
+    }
+
+    private void showSalaryData(SalaryData data) {
+        tableModel.setRowCount(0);
+        for (Object[] row : data.rows) {
+            tableModel.addRow(row);
+        }
+
+        if (data.paid) {
+            statusLabel.setText("Salaries processed (" + data.rows.size() + " employees)");
+            statusLabel.setForeground(new Color(0, 150, 0));
+            processSalariesButton.setEnabled(false);
+            processSalariesButton.setText("Already Processed");
+        } else if (data.rows.isEmpty()) {
+            statusLabel.setText("No employees with salary configured");
+            statusLabel.setForeground(new Color(150, 150, 150));
+            processSalariesButton.setEnabled(false);
+        } else {
+            statusLabel.setText(data.rows.size() + " employees pending payment");
+            statusLabel.setForeground(new Color(255, 140, 0));
+            processSalariesButton.setEnabled(true);
+            processSalariesButton.setText("Process Monthly Salaries");
         }
     }
 
@@ -384,4 +405,10 @@ public class SalaryManagementPanel extends JPanel {
             }
         }
     }
+
+    // Table rows for the selected month, built off the EDT
+    private static class SalaryData {
+        boolean paid;
+        final java.util.List<Object[]> rows = new java.util.ArrayList<>();
+    }
 }
@@ -9,14 +9,16 @@ import models.Manager;
 import models.Cashier;
 import models.CashierRequest;
 import database.ManagerDAO;
+import utils.AsyncLoader;
 
 // ============= VIEW CASHIERS PANEL =============
-class ViewCashiersPanel extends JPanel {
+class ViewCashiersPanel extends JPanel implements LazyTabs.Refreshable {
     private Manager currentUser;
     private JTable cashiersTable;
     private DefaultTableModel tableModel;
     private JButton refreshButton;
     private JComboBox<String> statusFilterCombo;
+    private final AsyncLoader loader = new AsyncLoader(this);
 
     public ViewCashiersPanel(Manager user) {
         this.currentUser = user;
@@ -195,12 +197,21 @@ class ViewCashiersPanel extends JPanel {
         return panel;
     }
 
-    private void loadCashiers() {
-        tableModel.setRowCount(0);
+    // Called when the tab is reselected after its data went stale
+    @Override
+    public void refresh() {
+        loadCashiers();
+    }
 
+    private void loadCashiers() {
         String selectedStatus = (String) statusFilterCombo.getSelectedItem();
-        java.util.List<Cashier> allCashiers = ManagerDAO.getApprovedCashiers(currentUser.getId());
-        java.util.List<CashierRequest> pendingRequests = ManagerDAO.getPendingCashierRequests(currentUser.getId());
+        int managerId = currentUser.getId();
+        loader.load(() -> new CashierLists(ManagerDAO.getApprovedCashiers(managerId),
+                ManagerDAO.getPendingCashierRequests(managerId)), lists -> showCashiers(lists, selectedStatus));
+    }
+
+    private void showCashiers(CashierLists lists, String selectedStatus) {
+        tableModel.setRowCount(0);
 
         SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd");
 
@@ -209,7 +220,7 @@ class ViewCashiersPanel extends JPanel {
         int pendingCount = 0;
 
         // Add active cashiers
-        for (Cashier cashier : allCashiers) {
+        for (Cashier cashier : lists.cashiers) {
             if (!"All".equals(selectedStatus) && !"ACTIVE".equals(selectedStatus)) {
                 continue;
             }
@@ -228,7 +239,7 @@ class ViewCashiersPanel extends JPanel {
         }
 
         // Add pending requests
-        for (CashierRequest request : pendingRequests) {
+        for (CashierRequest request : lists.pendingRequests) {
             if (!"All".equals(selectedStatus) && !"PENDING_APPROVAL".equals(selectedStatus)) {
                 continue;
             }
@@ -262,5 +273,15 @@ class ViewCashiersPanel extends JPanel {
             pendingLabel.setText("Pending: " + pending);
         }
     }
-}
 
+    // Both lists shown in the table, loaded together off the EDT
+    private static class CashierLists {
+        final java.util.List<Cashier> cashiers;
+        final java.util.List<CashierRequest> pendingRequests;
+
+        CashierLists(java.util.List<Cashier> cashiers, java.util.List<CashierRequest> pendingRequests) {
+            this.cashiers = cashiers;
+            this.pendingRequests = pendingRequests;
+        }
+    }
+}
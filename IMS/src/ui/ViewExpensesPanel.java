@@ -1,19 +1,21 @@
 package ui;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableCellRenderer;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
-import java.text.SimpleDateFormat;
+import java.util.Date;
 import models.Expense;
 import database.ExpenseDAO;
+import utils.AsyncLoader;
 
 // ============= VIEW EXPENSES PANEL =============
-class ViewExpensesPanel extends JPanel {
+class ViewExpensesPanel extends JPanel implements LazyTabs.Refreshable {
     private JTable expensesTable;
-    private DefaultTableModel tableModel;
+    private BlockTableModel<Expense> tableModel;
     private JButton refreshButton;
     private JComboBox<String> filterCombo;
+    // Category being listed (null for all); read by the block queries off the EDT
+    private volatile String category;
+    private final AsyncLoader totalsLoader = new AsyncLoader(this);
 
     public ViewExpensesPanel() {
         initializeUI();
@@ -54,14 +56,23 @@ class ViewExpensesPanel extends JPanel {
         headerPanel.add(controlPanel, BorderLayout.EAST);
         add(headerPanel, BorderLayout.NORTH);
 
-        // Table
+        // Table: expenses are fetched block by block as they scroll into view
         String[] columns = {"ID", "Description", "Amount", "Category", "Manager", "Expense Date", "Recorded Date"};
-        tableModel = new DefaultTableModel(columns, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        Class<?>[] types = {Integer.class, String.class, Double.class, String.class, String.class, Date.class, Date.class};
+        tableModel = new BlockTableModel<>(this, columns, types,
+                () -> ExpenseDAO.getExpenseTotals(category).getCount(),
+                (after, offset, limit) -> ExpenseDAO.getExpensesPage(category, after, offset, limit),
+                (expense, column) -> {
+                    switch (column) {
+                        case 0: return expense.getId();
+                        case 1: return expense.getDescription();
+                        case 2: return expense.getAmount();
+                        case 3: return expense.getCategory();
+                        case 4: return expense.getManagerName();
+                        case 5: return expense.getExpenseDate();
+                        default: return expense.getRecordedDate();
+                    }
+                });
         expensesTable = new JTable(tableModel);
         expensesTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
         expensesTable.setFont(new Font("Arial", Font.PLAIN, 14));
@@ -90,7 +101,7 @@ class ViewExpensesPanel extends JPanel {
         });
 
         // Color code rows based on category
-        expensesTable.setDefaultRenderer(Object.class, new DefaultTableCellRenderer() {
+        new FormattedCellRenderer("yyyy-MM-dd") {
             @Override
             public Component getTableCellRendererComponent(JTable table, Object value,
                                                            boolean isSelected, boolean hasFocus, int row, int column) {
@@ -108,6 +119,9 @@ class ViewExpensesPanel extends JPanel {
             }
 
             private Color getCategoryColor(String category) {
+                if (category == null) {
+                    return Color.WHITE; // Row still loading
+                }
                 switch (category) {
                     case "UTILITIES": return new Color(255, 255, 200); // Light yellow
                     case "SALARIES": return new Color(255, 200, 200); // Light red
@@ -117,7 +131,7 @@ class ViewExpensesPanel extends JPanel {
                     default: return Color.WHITE;
                 }
             }
-        });
+        }.installOn(expensesTable);
 
         JScrollPane scrollPane = new JScrollPane(expensesTable);
         scrollPane.setBorder(BorderFactory.createEmptyBorder(20, 0, 0, 0));
@@ -180,36 +194,20 @@ class ViewExpensesPanel extends JPanel {
 
         return button;
     }
-    private void loadExpenses() {
-        tableModel.setRowCount(0);
-        java.util.List<Expense> expenses = ExpenseDAO.getAllExpenses();
-
-        String selectedFilter = (String) filterCombo.getSelectedItem();
-        SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd");
-
-        double totalAmount = 0;
-
-        for (Expense expense : expenses) {
-            // Apply filter
-            if (!"All".equals(selectedFilter) && !selectedFilter.equals(expense.getCategory())) {
-                continue;
-            }
+    // Called when the tab is reselected after its data went stale
+    @Override
+    public void refresh() {
+        loadExpenses();
+    }
 
-            tableModel.addRow(new Object[]{
-                    expense.getId(),
-                    expense.getDescription(),
-                    String.format("$%.2f", expense.getAmount()),
-                    expense.getCategory(),
-                    expense.getManagerName(),
-                    sdf.format(expense.getExpenseDate()),
-                    sdf.format(expense.getRecordedDate())
-            });
-
-            totalAmount += expense.getAmount();
-        }
+    private void loadExpenses() {
+        String category = selectedCategory();
+        this.category = category;
+        tableModel.reload(null);
 
-        // Update summary
-        updateSummaryPanel(totalAmount);
+        // The total covers every expense of the filter, not just the pages loaded so far
+        totalsLoader.load(() -> ExpenseDAO.getExpenseTotals(category),
+                totals -> updateSummaryPanel(totals.getAmount()));
 
 //        if (expenses.isEmpty()) {
 //            JOptionPane.showMessageDialog(this,
@@ -219,6 +217,12 @@ class ViewExpensesPanel extends JPanel {
 //        }
     }
 
+    // Category to filter on in the query; null for "All"
+    private String selectedCategory() {
+        String selectedFilter = (String) filterCombo.getSelectedItem();
+        return "All".equals(selectedFilter) ? null : selectedFilter;
+    }
+
     private void updateSummaryPanel(double totalAmount) {
         Component[] components = ((JPanel)getComponent(2)).getComponents();
         if (components.length > 0 && components[0] instanceof JLabel) {
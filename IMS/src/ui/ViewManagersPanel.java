@@ -3,15 +3,16 @@ package ui;
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
-import java.util.List;
 import models.Manager;
 import database.UserDAO;
+import utils.AsyncLoader;
 
 // View Managers Panel
-class ViewManagersPanel extends JPanel {
+class ViewManagersPanel extends JPanel implements LazyTabs.Refreshable {
     private JTable managersTable;
     private DefaultTableModel tableModel;
     private JButton refreshButton;
+    private final AsyncLoader loader = new AsyncLoader(this);
 
     public ViewManagersPanel() {
         initializeUI();
@@ -115,21 +116,25 @@ class ViewManagersPanel extends JPanel {
 
         return button;
     }
+    // Called when the tab is reselected after its data went stale
+    @Override
+    public void refresh() {
+        loadManagers();
+    }
+
     private void loadManagers() {
-        tableModel.setRowCount(0);
-        List<Manager> managers = UserDAO.getAllManagers();
-
-        for (Manager manager : managers) {
-            tableModel.addRow(new Object[]{
-                    manager.getId(),
-                    manager.getName(),
-                    manager.getUsername(),
-                    manager.getPhone(),
-                    manager.getCnic(),
-                    String.format("%,.2f", manager.getSalary()),
-                    manager.getStatus()
-            });
-        }
+        loader.loadRows(UserDAO::getAllManagers, () -> tableModel.setRowCount(0), managers -> {
+            for (Manager manager : managers) {
+                tableModel.addRow(new Object[]{
+                        manager.getId(),
+                        manager.getName(),
+                        manager.getUsername(),
+                        manager.getPhone(),
+                        manager.getCnic(),
+                        String.format("%,.2f", manager.getSalary()),
+                        manager.getStatus()
+                });
+            }
+        }, null);
     }
 }
-
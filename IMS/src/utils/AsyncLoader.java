@@ -0,0 +1,206 @@
+package utils;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+
+/**
+ * Runs a panel's DAO queries off the Event Dispatch Thread so the window stays responsive
+ * while large tables load.
+ *
+ * One loader belongs to one panel (or one independently refreshed area of a panel). Starting
+ * a new load supersedes the previous one: its results are dropped even if its query is still
+ * running, so quickly switching filters only ever shows the latest selection. While a load is
+ * running the panel shows a wait cursor and, if a status label was given, a loading message.
+ *
+ * All methods must be called on the EDT; all callbacks run on the EDT.
+ */
+public class AsyncLoader {
+
+    /** Rows handed to the table model per EDT update */
+    public static final int CHUNK_SIZE = 200;
+
+    private static final String BUSY_KEY = "AsyncLoader.busy";
+
+    // Loads in progress across all loaders (EDT only)
+    private static int activeLoads;
+
+    private final JComponent owner;
+    private JLabel statusLabel;
+    private String statusText;
+
+    // Incremented by every load; a worker only delivers results while it is still current
+    private int generation;
+    private SwingWorker<?, ?> current;
+
+    public AsyncLoader(JComponent owner) {
+        this.owner = owner;
+    }
+
+    /**
+     * Show "Loading..." in this label while a load runs; its previous text is put back when
+     * the load finishes (before the completion callback, which may set its own text).
+     */
+    public AsyncLoader withStatusLabel(JLabel label) {
+        this.statusLabel = label;
+        return this;
+    }
+
+    /**
+     * Run query in the background and pass its result to onLoaded, unless a newer load was
+     * started in the meantime.
+     */
+    public <T> void load(Callable<T> query, Consumer<T> onLoaded) {
+        int gen = begin();
+        SwingWorker<T, Void> worker = new SwingWorker<T, Void>() {
+            @Override
+            protected T doInBackground() throws Exception {
+                return query.call();
+            }
+
+            @Override
+            protected void done() {
+                if (gen != generation) {
+                    return; // Superseded
+                }
+                T result = result(this);
+                finish();
+                if (result != null) {
+                    onLoaded.accept(result);
+                }
+            }
+        };
+        start(worker);
+    }
+
+    /**
+     * Run query in the background and hand its rows to the EDT in chunks of CHUNK_SIZE, so
+     * a large result never blocks repainting for long. onStart runs first (typically clearing
+     * the table), then onChunk for every chunk, then onDone. A superseded load stops
+     * delivering chunks.
+     */
+    public <T> void loadRows(Callable<List<T>> query, Runnable onStart, Consumer<List<T>> onChunk, Runnable onDone) {
+        int gen = begin();
+        SwingWorker<Void, List<T>> worker = new SwingWorker<Void, List<T>>() {
+            private boolean started;
+
+            @Override
+            protected Void doInBackground() throws Exception {
+                List<T> rows = query.call();
+                if (rows == null) {
+                    return null;
+                }
+                for (int from = 0; from < rows.size() && !isCancelled(); from += CHUNK_SIZE) {
+                    publish(rows.subList(from, Math.min(rows.size(), from + CHUNK_SIZE)));
+                }
+                return null;
+            }
+
+            @Override
+            protected void process(List<List<T>> chunks) {
+                if (gen != generation) {
+                    return;
+                }
+                startOnce();
+                for (List<T> chunk : chunks) {
+                    onChunk.accept(chunk);
+                }
+            }
+
+            @Override
+            protected void done() {
+                if (gen != generation) {
+                    return;
+                }
+                result(this);
+                startOnce();
+                finish();
+                if (onDone != null) {
+                    onDone.run();
+                }
+            }
+
+            private void startOnce() {
+                if (!started) {
+                    started = true;
+                    if (onStart != null) {
+                        onStart.run();
+                    }
+                }
+            }
+        };
+        start(worker);
+    }
+
+    /** Drop the running load, if any, and leave the loading state */
+    public void cancel() {
+        if (current != null) {
+            generation++;
+            current.cancel(false);
+            current = null;
+            finish();
+        }
+    }
+
+    public boolean isLoading() {
+        return current != null;
+    }
+
+    /** Number of loads still running in the whole application */
+    public static int getActiveLoadCount() {
+        return activeLoads;
+    }
+
+    private int begin() {
+        if (current != null) {
+            // Not interrupted: the JDBC call finishes and its result is ignored
+            current.cancel(false);
+        } else {
+            setBusy(1);
+            if (statusLabel != null) {
+                statusText = statusLabel.getText();
+                statusLabel.setText("Loading...");
+            }
+        }
+        return ++generation;
+    }
+
+    private void start(SwingWorker<?, ?> worker) {
+        current = worker;
+        worker.execute();
+    }
+
+    private void finish() {
+        current = null;
+        setBusy(-1);
+        if (statusLabel != null) {
+            statusLabel.setText(statusText);
+        }
+    }
+
+    // Several loaders may share an owner; the wait cursor stays until the last one finishes
+    private void setBusy(int delta) {
+        activeLoads = Math.max(0, activeLoads + delta);
+        Integer busy = (Integer) owner.getClientProperty(BUSY_KEY);
+        int count = Math.max(0, (busy != null ? busy : 0) + delta);
+        owner.putClientProperty(BUSY_KEY, count);
+        owner.setCursor(count > 0 ? Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR) : Cursor.getDefaultCursor());
+    }
+
+    // The worker's result, or null if its query failed
+    private static <T> T result(SwingWorker<T, ?> worker) {
+        try {
+            return worker.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            e.getCause().printStackTrace();
+        } catch (java.util.concurrent.CancellationException e) {
+            // Cancelled; nothing to deliver
+        }
+        return null;
+    }
+}
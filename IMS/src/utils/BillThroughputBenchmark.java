@@ -0,0 +1,264 @@
+package utils;
+
+import database.CashierInventoryDAO;
+import database.DatabaseConnection;
+import models.BillItem;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bill throughput with several checkout terminals. N terminal threads place bills against one
+ * store at the same time; the benchmark reports bills per second and the p50/p99 time a
+ * terminal waits for placeBill, for each way the database can take writes:
+ *  - ROLLBACK: rollback journal, every terminal writes on its own pooled connection
+ *  - WAL: one writer thread, one transaction per bill
+ *  - WAL + group commit: one writer thread, concurrent bills share a transaction
+ * The storage mode and group commit are fixed when the classes load, so each mode runs in a
+ * fresh JVM on its own scratch database. Fails if any bill could not be written or the bills
+ * on disk do not add up.
+ *
+ * Usage: java utils.BillThroughputBenchmark [terminals] [billsPerTerminal] [itemsPerBill]
+ */
+public class BillThroughputBenchmark {
+
+    private static final String[][] MODES = {
+            {"ROLLBACK", "-Dims.db.storageMode=ROLLBACK"},
+            {"WAL", "-Dims.db.storageMode=WAL", "-Dims.bill.groupCommit.enabled=false"},
+            {"WAL + group commit", "-Dims.db.storageMode=WAL", "-Dims.bill.groupCommit.enabled=true"},
+    };
+    private static final String ROW = "ROW ";
+    private static final int PRODUCTS = 200;
+    private static final int WARM_UP_BILLS = 20;
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length > 0 && args[0].equals("--run")) {
+            runMode(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+
+        int terminals = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        int billsPerTerminal = args.length > 1 ? Integer.parseInt(args[1]) : 250;
+        int itemsPerBill = args.length > 2 ? Integer.parseInt(args[2]) : 3;
+        System.out.printf("%d terminals x %d bills x %d items, one store%n%n", terminals, billsPerTerminal, itemsPerBill);
+        System.out.printf("%-20s %10s %10s %10s %8s%n", "Mode", "Bills/s", "p50 ms", "p99 ms", "Failed");
+
+        boolean ok = true;
+        for (String[] mode : MODES) {
+            // Same JVM and classpath, plus the mode's settings
+            List<String> command = new ArrayList<>();
+            command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+            command.add("-cp");
+            command.add(System.getProperty("java.class.path"));
+            command.addAll(Arrays.asList(mode).subList(1, mode.length));
+            command.add(BillThroughputBenchmark.class.getName());
+            command.add("--run");
+            command.add(mode[0]);
+            command.add(String.valueOf(terminals));
+            command.add(String.valueOf(billsPerTerminal));
+            command.add(String.valueOf(itemsPerBill));
+
+            Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+            List<String> output = new ArrayList<>();
+            String row = null;
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    output.add(line);
+                    if (line.startsWith(ROW)) {
+                        row = line.substring(ROW.length());
+                    }
+                }
+            }
+            if (process.waitFor() != 0 || row == null) {
+                System.out.println(mode[0] + " FAILED:");
+                output.forEach(System.out::println);
+                ok = false;
+            } else {
+                System.out.println(row);
+            }
+        }
+
+        System.out.println(ok ? "PASS" : "FAIL");
+        if (!ok) {
+            System.exit(1);
+        }
+    }
+
+    // One mode, in the child JVM
+    private static void runMode(String[] args) throws IOException, InterruptedException {
+        String mode = args[0];
+        int terminals = Integer.parseInt(args[1]);
+        int billsPerTerminal = Integer.parseInt(args[2]);
+        int itemsPerBill = Integer.parseInt(args[3]);
+
+        File dbFile = File.createTempFile("ims-bill-benchmark", ".sqlite");
+        dbFile.delete();
+        System.setProperty("ims.db.path", dbFile.getAbsolutePath());
+        InitializeDatabase.initialize();
+
+        int[] ids = DatabaseConnection.executeWrite(() -> generate(terminals), null);
+        if (ids == null) {
+            System.err.println("Could not generate the dataset.");
+            System.exit(1);
+        }
+        int managerId = ids[0];
+        int[] cashierIds = Arrays.copyOfRange(ids, 1, 1 + terminals);
+        int[] shelfIds = Arrays.copyOfRange(ids, 1 + terminals, ids.length);
+
+        // Warm up the pool, statement caches and JIT, then time every terminal's bills
+        place(managerId, cashierIds, shelfIds, WARM_UP_BILLS, itemsPerBill, null, new AtomicInteger());
+        long[] latencies = new long[terminals * billsPerTerminal];
+        AtomicInteger failed = new AtomicInteger();
+        long start = System.nanoTime();
+        place(managerId, cashierIds, shelfIds, billsPerTerminal, itemsPerBill, latencies, failed);
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        int expectedBills = terminals * (WARM_UP_BILLS + billsPerTerminal) - failed.get();
+        int bills = countBills(managerId);
+
+        Arrays.sort(latencies);
+        System.out.printf("%s%-20s %10.0f %10.2f %10.2f %8d%n", ROW, mode, latencies.length / seconds,
+                percentile(latencies, 0.50), percentile(latencies, 0.99), failed.get());
+
+        DatabaseConnection.shutdown();
+        dbFile.delete();
+        new File(dbFile.getPath() + "-wal").delete();
+        new File(dbFile.getPath() + "-shm").delete();
+        if (failed.get() > 0 || bills != expectedBills) {
+            System.out.println("MISMATCH: " + bills + " bills written, expected " + expectedBills);
+            System.exit(1);
+        }
+    }
+
+    // Every terminal places its bills at the same time; latencies[terminal * bills + i] in ns
+    private static void place(int managerId, int[] cashierIds, int[] shelfIds, int bills, int itemsPerBill,
+                              long[] latencies, AtomicInteger failed) throws InterruptedException {
+        CountDownLatch go = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < cashierIds.length; t++) {
+            int terminal = t;
+            threads.add(new Thread(() -> {
+                Random random = new Random(terminal);
+                try {
+                    go.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int b = 0; b < bills; b++) {
+                    List<BillItem> items = new ArrayList<>();
+                    double total = 0;
+                    for (int i = 0; i < itemsPerBill; i++) {
+                        BillItem item = new BillItem(shelfIds[random.nextInt(shelfIds.length)], 1 + random.nextInt(3), 10);
+                        items.add(item);
+                        total += item.getSubtotal();
+                    }
+                    long begin = System.nanoTime();
+                    boolean placed = CashierInventoryDAO.placeBill(cashierIds[terminal], managerId, items, total).isSuccess();
+                    if (latencies != null) {
+                        latencies[terminal * bills + b] = System.nanoTime() - begin;
+                    }
+                    if (!placed) {
+                        failed.incrementAndGet();
+                    }
+                }
+            }, "Terminal-" + t));
+        }
+        for (Thread t : threads) {
+            t.start();
+        }
+        go.countDown();
+        for (Thread t : threads) {
+            t.join();
+        }
+    }
+
+    // One manager, a cashier per terminal, and PRODUCTS products on the shelf with enough stock
+    // for every bill. Returns {managerId, cashierIds..., shelfIds...}.
+    private static int[] generate(int terminals) throws SQLException {
+        Connection conn = DatabaseConnection.getConnection();
+        try {
+            conn.setAutoCommit(false);
+            int[] ids = new int[1 + terminals + PRODUCTS];
+            ids[0] = insertUser(conn, "MANAGER", "bench_manager");
+            for (int t = 0; t < terminals; t++) {
+                ids[1 + t] = insertUser(conn, "CASHIER", "bench_cashier_" + t);
+            }
+            try (PreparedStatement product = conn.prepareStatement(
+                    "INSERT INTO ceo_inventory (product_name, buying_price, total_quantity, min_stock_level) " +
+                    "VALUES (?, 8, 0, 10)", Statement.RETURN_GENERATED_KEYS);
+                 PreparedStatement shelf = conn.prepareStatement(
+                    "INSERT INTO manager_inventory (manager_id, ceo_inventory_id, selling_price, current_quantity) " +
+                    "VALUES (?, ?, 10, 1000000)", Statement.RETURN_GENERATED_KEYS)) {
+                for (int p = 0; p < PRODUCTS; p++) {
+                    product.setString(1, "Benchmark product " + p);
+                    product.executeUpdate();
+                    shelf.setInt(1, ids[0]);
+                    shelf.setInt(2, generatedKey(product));
+                    shelf.executeUpdate();
+                    ids[1 + terminals + p] = generatedKey(shelf);
+                }
+            }
+            conn.commit();
+            return ids;
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            DatabaseConnection.closeResources(null, null, conn);
+        }
+    }
+
+    private static int insertUser(Connection conn, String role, String username) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(
+                "INSERT INTO users (username, password, role, name, cnic, status) VALUES (?, 'x', ?, ?, ?, 'ACTIVE')",
+                Statement.RETURN_GENERATED_KEYS)) {
+            ps.setString(1, username);
+            ps.setString(2, role);
+            ps.setString(3, username);
+            ps.setString(4, "cnic-" + username);
+            ps.executeUpdate();
+            return generatedKey(ps);
+        }
+    }
+
+    private static int generatedKey(PreparedStatement ps) throws SQLException {
+        try (ResultSet keys = ps.getGeneratedKeys()) {
+            keys.next();
+            return keys.getInt(1);
+        }
+    }
+
+    private static int countBills(int managerId) {
+        Connection conn = null;
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+
+        try {
+            conn = DatabaseConnection.getConnection();
+            ps = conn.prepareStatement("SELECT COUNT(*) FROM bills WHERE manager_id = ?");
+            ps.setInt(1, managerId);
+            rs = ps.executeQuery();
+            return rs.next() ? rs.getInt(1) : -1;
+        } catch (SQLException e) {
+            e.printStackTrace();
+        } finally {
+            DatabaseConnection.closeResources(rs, ps, conn);
+        }
+        return -1;
+    }
+
+    // In milliseconds, from sorted nanosecond latencies
+    private static double percentile(long[] sorted, double p) {
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,55 @@
+package utils;
+
+import database.DaoMetrics;
+
+/**
+ * Measures what DAO metrics add to every DAO call (caller lookup, timing, histogram update)
+ * and checks it against a per-call budget. No database is needed.
+ *
+ * Usage: java utils.DaoMetricsBenchmark [iterations] [budgetMicros]
+ */
+public class DaoMetricsBenchmark {
+
+    public static void main(String[] args) {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        double budgetMicros = args.length > 1 ? Double.parseDouble(args[1]) : 5.0;
+
+        if (!DaoMetrics.isEnabled()) {
+            System.out.println("DAO metrics are disabled (ims.db.metrics.enabled=false); nothing to measure.");
+            return;
+        }
+
+        // Warm up the JIT before timing
+        run(iterations / 10);
+        DaoMetrics.getInstance().reset();
+
+        long start = System.nanoTime();
+        run(iterations);
+        long elapsed = System.nanoTime() - start;
+
+        double perCallMicros = elapsed / 1000.0 / iterations;
+        System.out.printf("%d calls in %d ms: %.3f us per call (budget %.1f us)%n",
+                iterations, elapsed / 1_000_000, perCallMicros, budgetMicros);
+        System.out.println(DaoMetrics.getInstance().getReport());
+        System.out.println(perCallMicros <= budgetMicros ? "PASS" : "FAIL");
+        if (perCallMicros > budgetMicros) {
+            System.exit(1);
+        }
+    }
+
+    private static void run(int iterations) {
+        for (int i = 0; i < iterations; i++) {
+            fakeDaoCall();
+        }
+    }
+
+    // Stands in for a DAO method: borrow, read a few rows, close
+    private static void fakeDaoCall() {
+        DaoMetrics.Call call = DaoMetrics.begin();
+        call.connectionAcquired();
+        for (int row = 0; row < 5; row++) {
+            call.addRow();
+        }
+        call.finish();
+    }
+}
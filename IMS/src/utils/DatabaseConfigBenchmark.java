@@ -0,0 +1,49 @@
+package utils;
+
+import database.DatabaseConfig;
+
+/**
+ * Compares resolving the database configuration on every call (probing the candidate
+ * database paths, reading ims.properties and loading the driver class, as every query used
+ * to do) with reading the configuration cached at startup.
+ *
+ * Usage: java utils.DatabaseConfigBenchmark [iterations]
+ */
+public class DatabaseConfigBenchmark {
+
+    public static void main(String[] args) {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+
+        long startup = System.nanoTime();
+        DatabaseConfig config = DatabaseConfig.get();
+        long startupNanos = System.nanoTime() - startup;
+        System.out.println("Configuration: " + config);
+        System.out.printf("Startup resolution: %.3f ms%n", startupNanos / 1_000_000.0);
+
+        // Warm up both paths
+        measure(iterations / 10, true);
+        measure(iterations / 10, false);
+
+        double uncached = measure(iterations, true);
+        double cached = measure(iterations, false);
+
+        System.out.printf("Resolve per call:  %10.0f ns%n", uncached);
+        System.out.printf("Cached per call:   %10.1f ns%n", cached);
+        System.out.printf("Saved per call:    %10.0f ns (%.0fx faster)%n", uncached - cached, uncached / Math.max(cached, 0.1));
+    }
+
+    // Average nanoseconds per lookup of the connection URL
+    private static double measure(int iterations, boolean resolveEachTime) {
+        int sink = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            DatabaseConfig c = resolveEachTime ? DatabaseConfig.resolve() : DatabaseConfig.get();
+            sink += c.getUrl().length();
+        }
+        long elapsed = System.nanoTime() - start;
+        if (sink == 42) {
+            System.out.println(); // Keeps the loop from being optimized away
+        }
+        return (double) elapsed / iterations;
+    }
+}
@@ -2,7 +2,7 @@ package utils;
 
 import database.DatabaseConnection;
 import java.sql.Connection;
-import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 
@@ -13,13 +13,14 @@ public class DatabaseReset {
 
     public static void resetDatabase() {
         System.out.println("Starting database reset...");
-        try (Connection conn = DatabaseConnection.getConnection()) {
+        try (Connection conn = DatabaseConnection.getConnection();
+             Statement stmt = conn.createStatement()) {
             conn.setAutoCommit(false);
-            Statement stmt = conn.createStatement();
 
             // Clear tables (SQLite uses DELETE FROM instead of TRUNCATE)
             String[] tables = {
-                "bill_items", "bills", "expenses", 
+                "bill_items", "bills", "daily_sales_summary", "product_daily_sales", "expenses",
+                "inventory_movements", "inventory_snapshots", "inventory_snapshot_runs",
                 "manager_inventory", "cashier_manager", 
                 "manager_ceo", "ceo_inventory"
             };
@@ -36,7 +37,10 @@ public class DatabaseReset {
             stmt.executeUpdate("DELETE FROM users WHERE role != 'CEO'");
 
             // Check if CEO exists
-            boolean ceoExists = conn.createStatement().executeQuery("SELECT count(*) FROM users WHERE role = 'CEO'").getInt(1) > 0;
+            boolean ceoExists;
+            try (ResultSet rs = stmt.executeQuery("SELECT count(*) FROM users WHERE role = 'CEO'")) {
+                ceoExists = rs.next() && rs.getInt(1) > 0;
+            }
 
             if (ceoExists) {
                 System.out.println("Updating CEO user...");
@@ -21,6 +21,7 @@ public class InitializeDatabase {
             // Check if database is already initialized
             if (isDatabaseInitialized(conn)) {
                 System.out.println("[InitializeDatabase] Database already initialized.");
+                MigrateDatabase.upgrade(conn);
                 return;
             }
 
@@ -110,6 +111,7 @@ public class InitializeDatabase {
                 br.close();
             }
 
+            MigrateDatabase.upgrade(conn);
             System.out.println("[InitializeDatabase] Database initialization completed!");
 
         } catch (Exception e) {
@@ -0,0 +1,46 @@
+package utils;
+
+import database.InventoryLedgerDAO;
+import java.util.Timer;
+import java.util.TimerTask;
+
+/**
+ * Background service that keeps the stock ledger's snapshots current, so a stock as-of-date
+ * query never replays much more than one snapshot interval of movements
+ */
+public class InventorySnapshotService {
+    private static Timer timer;
+    private static final long CHECK_INTERVAL = 6 * 60 * 60 * 1000; // Check every 6 hours
+
+    /**
+     * Start the snapshot service
+     */
+    public static void startService() {
+        if (timer != null) {
+            return; // Already running
+        }
+
+        timer = new Timer("InventorySnapshotService", true); // Daemon thread
+
+        // Run immediately on start, then every 6 hours; a snapshot is only taken when due
+        timer.scheduleAtFixedRate(new TimerTask() {
+            @Override
+            public void run() {
+                int rows = InventoryLedgerDAO.takeSnapshotIfDue();
+                if (rows > 0) {
+                    System.out.println("Inventory snapshot written (" + rows + " rows)");
+                }
+            }
+        }, 0, CHECK_INTERVAL);
+    }
+
+    /**
+     * Stop the snapshot service
+     */
+    public static void stopService() {
+        if (timer != null) {
+            timer.cancel();
+            timer = null;
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package utils;
+
+import database.CashierInventoryDAO;
+import database.DatabaseConnection;
+import database.EnhancedProfitDAO;
+import database.ExpenseDAO;
+import database.InventoryDAO;
+import database.LocalDay;
+import database.ManagerInventoryDAO;
+import database.SalaryDAO;
+import database.SalesSummaryDAO;
+import models.BillItem;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.sql.*;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Check that every day column uses the same local calendar. In a time zone where the local
+ * date and the UTC date differ right now (by default one picked so that it is about 20 minutes
+ * from local midnight), it places a bill, adds a manual expense dated today and pays a salary,
+ * all at the same moment, then checks that bill_day, both expense_day values, the rollups'
+ * sale_day and the ledger's movement_day are all today's local day and that a report for today
+ * counts all three. It then sets the columns to the UTC days earlier versions wrote, runs the
+ * schema upgrade and checks again. The zone has to be fixed when the JVM starts, so the check
+ * runs in a child JVM on its own scratch database.
+ *
+ * Usage: java utils.LocalDayCheck [timeZone]
+ */
+public class LocalDayCheck {
+
+    private static final String ROW = "ROW ";
+    private static final double PRICE = 40;
+    private static final int QUANTITY = 3;
+    private static final double EXPENSE = 50;
+    private static final double SALARY = 30000;
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length > 0 && args[0].equals("--run")) {
+            System.exit(run() ? 0 : 1);
+        }
+
+        String zone = args.length > 0 ? args[0] : zoneNearMidnight();
+        List<String> command = new ArrayList<>();
+        command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add("-Duser.timezone=" + zone);
+        command.add(LocalDayCheck.class.getName());
+        command.add("--run");
+
+        System.out.println("Time zone " + zone);
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        List<String> output = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                output.add(line);
+                if (line.startsWith(ROW)) {
+                    System.out.println(line.substring(ROW.length()));
+                }
+            }
+        }
+        boolean ok = process.waitFor() == 0;
+        if (!ok) {
+            output.forEach(System.out::println);
+        }
+
+        System.out.println(ok ? "PASS" : "FAIL");
+        if (!ok) {
+            System.exit(1);
+        }
+    }
+
+    // A fixed offset at which it is now about 20 minutes after (or before) local midnight and
+    // the local date is not the UTC date
+    private static String zoneNearMidnight() {
+        ZonedDateTime utc = ZonedDateTime.now(ZoneOffset.UTC);
+        int minuteOfDay = utc.getHour() * 60 + utc.getMinute();
+        int offset = minuteOfDay >= 10 * 60 + 30 ? 24 * 60 - minuteOfDay + 20 : -(minuteOfDay + 20);
+        return String.format("GMT%s%02d:%02d", offset < 0 ? "-" : "+", Math.abs(offset) / 60, Math.abs(offset) % 60);
+    }
+
+    // In the child JVM
+    private static boolean run() throws IOException {
+        File dbFile = File.createTempFile("ims-local-day-check", ".sqlite");
+        dbFile.delete();
+        System.setProperty("ims.db.path", dbFile.getAbsolutePath());
+        InitializeDatabase.initialize();
+
+        long today = LocalDay.today();
+        long utcToday = LocalDate.now(ZoneOffset.UTC).toEpochDay();
+        row(String.format("Local now %s, local day %d, UTC day %d%s", ZonedDateTime.now().toLocalDateTime(),
+                today, utcToday, today == utcToday ? " (same day: this zone does not split it now)" : ""));
+
+        // One store with a product on the shelf and a salaried cashier
+        int managerId = insertUser("MANAGER", "day_manager", 0);
+        int cashierId = insertUser("CASHIER", "day_cashier", SALARY);
+        String productName = "Local day check product";
+        InventoryDAO.addProductToCEOInventory(productName, 10, 1000, 10);
+        int productId = queryInt("SELECT id FROM ceo_inventory WHERE product_name = '" + productName + "'");
+        ManagerInventoryDAO.addOrUpdateManagerInventory(managerId, productId, 100, PRICE);
+        int rowId = ManagerInventoryDAO.getProductByManagerAndCEOId(managerId, productId).getId();
+
+        // The same moment: a bill, an expense dated today as the UI passes it, a salary payment
+        List<BillItem> items = Collections.singletonList(new BillItem(rowId, QUANTITY, PRICE));
+        boolean ok = CashierInventoryDAO.placeBill(cashierId, managerId, items, QUANTITY * PRICE).isSuccess();
+        ok &= ExpenseDAO.addExpense(managerId, "Local day check", EXPENSE, "OTHER", new java.util.Date());
+        ok &= SalaryDAO.processSingleSalary(managerId, cashierId, YearMonth.now().toString());
+        if (!ok) {
+            row("Could not write the bill, expense or salary");
+            return false;
+        }
+        if (LocalDay.today() != today) {
+            row("Local midnight passed during the check; run it again");
+            return false;
+        }
+
+        ok = check("Written", managerId, today);
+
+        // Days as earlier versions wrote them (UTC) with rollups to match, then the upgrade
+        try (Connection conn = DatabaseConnection.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("UPDATE bills SET bill_day = " + utcToday);
+            stmt.executeUpdate("UPDATE expenses SET expense_day = " + utcToday);
+            stmt.executeUpdate("UPDATE inventory_movements SET movement_day = " + utcToday);
+            SalesSummaryDAO.rebuild(conn);
+            stmt.executeUpdate("PRAGMA user_version = 0");
+            MigrateDatabase.upgrade(conn);
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return false;
+        }
+        ok &= check("Upgraded", managerId, today);
+
+        DatabaseConnection.shutdown();
+        dbFile.delete();
+        new File(dbFile.getPath() + "-wal").delete();
+        new File(dbFile.getPath() + "-shm").delete();
+        return ok;
+    }
+
+    // Every day column of the store's rows is today, and a report for today counts them all
+    private static boolean check(String stage, int managerId, long today) {
+        long[][] days = {
+                queryDays("SELECT bill_day FROM bills WHERE manager_id = " + managerId),
+                queryDays("SELECT expense_day FROM expenses WHERE manager_id = " + managerId + " AND category = 'OTHER'"),
+                queryDays("SELECT expense_day FROM expenses WHERE manager_id = " + managerId + " AND category = 'SALARIES'"),
+                queryDays("SELECT sale_day FROM daily_sales_summary WHERE manager_id = " + managerId),
+                queryDays("SELECT sale_day FROM product_daily_sales WHERE manager_id = " + managerId),
+                queryDays("SELECT movement_day FROM inventory_movements WHERE manager_id = " + managerId
+                        + " AND movement_type = 'SALE'"),
+        };
+        String[] labels = {"bill_day", "expense_day (manual)", "expense_day (salary)",
+                "daily_sales_summary.sale_day", "product_daily_sales.sale_day", "movement_day (sale)"};
+
+        boolean ok = true;
+        for (int i = 0; i < days.length; i++) {
+            boolean same = days[i].length == 1 && days[i][0] == today;
+            row(String.format("%-9s %-30s %-12s %s", stage, labels[i], Arrays.toString(days[i]),
+                    same ? "ok" : "MISMATCH, expected [" + today + "]"));
+            ok &= same;
+        }
+
+        Date day = Date.valueOf(LocalDate.ofEpochDay(today));
+        double revenue = 0;
+        double expenses = 0;
+        for (EnhancedProfitDAO.ManagerPerformance perf : EnhancedProfitDAO.getManagerPerformanceByDateRange(day, day)) {
+            if (perf.getManagerId() == managerId) {
+                revenue = perf.getTotalRevenue();
+                expenses = perf.getTotalExpenses();
+            }
+        }
+        boolean counted = revenue == QUANTITY * PRICE && expenses == EXPENSE + SALARY;
+        row(String.format("%-9s %-30s revenue %.2f, expenses %.2f %s", stage, "report for today", revenue, expenses,
+                counted ? "ok" : "MISMATCH, expected " + QUANTITY * PRICE + ", " + (EXPENSE + SALARY)));
+        return ok && counted;
+    }
+
+    private static void row(String line) {
+        System.out.println(ROW + line);
+    }
+
+    private static int insertUser(String role, String username, double salary) {
+        return DatabaseConnection.executeWrite(() -> {
+            Connection conn = DatabaseConnection.getConnection();
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "INSERT INTO users (username, password, role, name, cnic, salary, status) " +
+                    "VALUES (?, 'x', ?, ?, ?, ?, 'ACTIVE')",
+                    Statement.RETURN_GENERATED_KEYS)) {
+                ps.setString(1, username);
+                ps.setString(2, role);
+                ps.setString(3, username);
+                ps.setString(4, "cnic-" + username);
+                ps.setDouble(5, salary);
+                ps.executeUpdate();
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    keys.next();
+                    return keys.getInt(1);
+                }
+            } finally {
+                DatabaseConnection.closeResources(null, null, conn);
+            }
+        }, -1);
+    }
+
+    private static int queryInt(String sql) {
+        long[] values = queryDays(sql);
+        return values.length > 0 ? (int) values[0] : -1;
+    }
+
+    private static long[] queryDays(String sql) {
+        Connection conn = null;
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+        List<Long> values = new ArrayList<>();
+
+        try {
+            conn = DatabaseConnection.getConnection();
+            ps = conn.prepareStatement(sql);
+            rs = ps.executeQuery();
+            while (rs.next()) {
+                values.add(rs.getLong(1));
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        } finally {
+            DatabaseConnection.closeResources(rs, ps, conn);
+        }
+        return values.stream().mapToLong(Long::longValue).toArray();
+    }
+}
@@ -1,52 +1,36 @@
 package utils;
 
 import database.DatabaseConnection;
+import database.InventoryLedgerDAO;
+import database.LocalDay;
+import database.ProductSalesDAO;
+import database.SalesSummaryDAO;
 import java.sql.*;
 
 public class MigrateDatabase {
+
+    // PRAGMA user_version once every day column holds local days (see LocalDay)
+    private static final int LOCAL_DAYS_VERSION = 1;
+
     public static void main(String[] args) {
         Connection conn = null;
         Statement stmt = null;
-        
+
         try {
             conn = DatabaseConnection.getConnection();
-            stmt = conn.createStatement();
-            
-            // Check if joining_date column exists
-            ResultSet rs = stmt.executeQuery("PRAGMA table_info(users)");
-            boolean hasJoiningDate = false;
-            
-            while (rs.next()) {
-                String columnName = rs.getString("name");
-                if ("joining_date".equals(columnName)) {
-                    hasJoiningDate = true;
-                    break;
-                }
-            }
-            rs.close();
-            
-            if (!hasJoiningDate) {
-                System.out.println("Adding joining_date column to users table...");
-                stmt.executeUpdate("ALTER TABLE users ADD COLUMN joining_date DATE");
-                System.out.println("Successfully added joining_date column!");
-                
-                // Update existing users with today's date
-                stmt.executeUpdate("UPDATE users SET joining_date = date('now') WHERE joining_date IS NULL");
-                System.out.println("Updated existing users with current date!");
-            } else {
-                System.out.println("joining_date column already exists!");
-            }
-            
+            upgrade(conn);
+
             // Verify the column
+            stmt = conn.createStatement();
             System.out.println("\nVerifying users table structure:");
-            rs = stmt.executeQuery("PRAGMA table_info(users)");
+            ResultSet rs = stmt.executeQuery("PRAGMA table_info(users)");
             while (rs.next()) {
                 System.out.println("  - " + rs.getString("name") + " (" + rs.getString("type") + ")");
             }
             rs.close();
-            
+
             System.out.println("\nMigration completed successfully!");
-            
+
         } catch (SQLException e) {
             System.err.println("Migration failed: " + e.getMessage());
             e.printStackTrace();
@@ -59,4 +43,242 @@ public class MigrateDatabase {
             }
         }
     }
+
+    /**
+     * Bring an existing database up to the current schema.
+     * Every step is idempotent, so this runs on each startup.
+     */
+    public static void upgrade(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            addJoiningDate(stmt);
+            createBillSequence(stmt);
+            createDashboardIndexes(stmt);
+            // The rollup backfills read bills.bill_day, so it must exist and be filled first
+            addDayColumns(stmt);
+            fillLocalDays(stmt, conn);
+            createDailySalesSummary(stmt, conn);
+            createProductDailySales(stmt, conn);
+            createPagingIndexes(stmt);
+            createInventoryLedger(stmt, conn);
+            addTransferProduct(stmt);
+        }
+    }
+
+    private static void addJoiningDate(Statement stmt) throws SQLException {
+        if (!hasColumn(stmt, "users", "joining_date")) {
+            System.out.println("Adding joining_date column to users table...");
+            stmt.executeUpdate("ALTER TABLE users ADD COLUMN joining_date DATE");
+            System.out.println("Successfully added joining_date column!");
+
+            // Update existing users with today's date
+            stmt.executeUpdate("UPDATE users SET joining_date = date('now') WHERE joining_date IS NULL");
+            System.out.println("Updated existing users with current date!");
+        }
+    }
+
+    // Blocks of bill numbers reserved per manager (see BillNumberAllocator)
+    private static void createBillSequence(Statement stmt) throws SQLException {
+        stmt.executeUpdate("CREATE TABLE IF NOT EXISTS bill_sequence (" +
+                "manager_id INTEGER PRIMARY KEY, " +
+                "next_value INTEGER NOT NULL DEFAULT 1)");
+    }
+
+    // Covering indexes so the manager dashboard sums read the index instead of the tables
+    private static void createDashboardIndexes(Statement stmt) throws SQLException {
+        stmt.executeUpdate("CREATE INDEX IF NOT EXISTS idx_bills_manager_status_total " +
+                "ON bills(manager_id, status, total_amount)");
+        stmt.executeUpdate("CREATE INDEX IF NOT EXISTS idx_expenses_manager_amount " +
+                "ON expenses(manager_id, amount)");
+    }
+
+    // Daily sales rollup (see SalesSummaryDAO), filled from the existing bills when first created.
+    // Table and backfill commit together: the step is skipped once the table exists, so a table
+    // left empty by a failed backfill would never be filled.
+    private static void createDailySalesSummary(Statement stmt, Connection conn) throws SQLException {
+        if (hasTable(stmt, "daily_sales_summary")) {
+            return;
+        }
+        System.out.println("Creating daily_sales_summary table...");
+        conn.setAutoCommit(false);
+        try {
+            stmt.executeUpdate("CREATE TABLE daily_sales_summary (" +
+                    "sale_day INTEGER NOT NULL, " +
+                    "manager_id INTEGER NOT NULL, " +
+                    "cashier_id INTEGER NOT NULL, " +
+                    "revenue DECIMAL(12,2) NOT NULL DEFAULT 0, " +
+                    "cogs DECIMAL(12,2) NOT NULL DEFAULT 0, " +
+                    "bill_count INTEGER NOT NULL DEFAULT 0, " +
+                    "units INTEGER NOT NULL DEFAULT 0, " +
+                    "PRIMARY KEY (sale_day, manager_id, cashier_id))");
+            stmt.executeUpdate("CREATE INDEX IF NOT EXISTS idx_daily_sales_summary_manager_day " +
+                    "ON daily_sales_summary(manager_id, sale_day)");
+            int rows = SalesSummaryDAO.rebuild(conn);
+            conn.commit();
+            System.out.println("Filled daily_sales_summary with " + rows + " rows from existing bills!");
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+
+    // Daily sales per product and store (see ProductSalesDAO), filled from the existing bills.
+    // Table and backfill commit together, like daily_sales_summary.
+    private static void createProductDailySales(Statement stmt, Connection conn) throws SQLException {
+        if (hasTable(stmt, "product_daily_sales")) {
+            return;
+        }
+        System.out.println("Creating product_daily_sales table...");
+        conn.setAutoCommit(false);
+        try {
+            stmt.executeUpdate("CREATE TABLE product_daily_sales (" +
+                    "sale_day INTEGER NOT NULL, " +
+                    "manager_id INTEGER NOT NULL, " +
+                    "ceo_inventory_id INTEGER NOT NULL, " +
+                    "units INTEGER NOT NULL DEFAULT 0, " +
+                    "revenue DECIMAL(12,2) NOT NULL DEFAULT 0, " +
+                    "cost DECIMAL(12,2) NOT NULL DEFAULT 0, " +
+                    "PRIMARY KEY (sale_day, manager_id, ceo_inventory_id))");
+            stmt.executeUpdate("CREATE INDEX IF NOT EXISTS idx_product_daily_sales_manager_day " +
+                    "ON product_daily_sales(manager_id, sale_day)");
+            int rows = ProductSalesDAO.rebuild(conn);
+            conn.commit();
+            System.out.println("Filled product_daily_sales with " + rows + " rows from existing bills!");
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+
+    // Integer epoch-day columns so date ranges become index range scans instead of
+    // DATE(...) calls on every row; filled by fillLocalDays
+    private static void addDayColumns(Statement stmt) throws SQLException {
+        if (!hasColumn(stmt, "bills", "bill_day")) {
+            System.out.println("Adding bill_day column to bills table...");
+            stmt.executeUpdate("ALTER TABLE bills ADD COLUMN bill_day INTEGER");
+        }
+        stmt.executeUpdate("CREATE INDEX IF NOT EXISTS idx_bills_manager_day ON bills(manager_id, bill_day)");
+
+        if (!hasColumn(stmt, "expenses", "expense_day")) {
+            System.out.println("Adding expense_day column to expenses table...");
+            stmt.executeUpdate("ALTER TABLE expenses ADD COLUMN expense_day INTEGER");
+        }
+        stmt.executeUpdate("CREATE INDEX IF NOT EXISTS idx_expenses_manager_day " +
+                "ON expenses(manager_id, expense_day, amount)");
+    }
+
+    // Once per database: compute every day column from its stored date in local time. Earlier
+    // versions left them empty or wrote UTC days, so the rollups are rebuilt from the corrected
+    // bill_day and the stock snapshots (taken on UTC days) dropped; the next one is taken when due.
+    private static void fillLocalDays(Statement stmt, Connection conn) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery("PRAGMA user_version")) {
+            if (rs.next() && rs.getInt(1) >= LOCAL_DAYS_VERSION) {
+                return;
+            }
+        }
+        System.out.println("Filling day columns with local days...");
+        conn.setAutoCommit(false);
+        try {
+            int bills = LocalDay.backfill(conn, "bills", "bill_date", "bill_day");
+            int expenses = LocalDay.backfill(conn, "expenses", "expense_date", "expense_day");
+            if (hasTable(stmt, "inventory_movements")) {
+                LocalDay.backfill(conn, "inventory_movements", "moved_at", "movement_day");
+            }
+            if (hasTable(stmt, "inventory_snapshots")) {
+                stmt.executeUpdate("DELETE FROM inventory_snapshots");
+                stmt.executeUpdate("DELETE FROM inventory_snapshot_runs");
+            }
+            if (hasTable(stmt, "daily_sales_summary")) {
+                SalesSummaryDAO.rebuild(conn);
+            }
+            if (hasTable(stmt, "product_daily_sales")) {
+                ProductSalesDAO.rebuild(conn);
+            }
+            stmt.executeUpdate("PRAGMA user_version = " + LOCAL_DAYS_VERSION);
+            conn.commit();
+            System.out.println("Set local days for " + bills + " bills and " + expenses + " expenses!");
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+
+    // Indexes that let the paged bill and expense listings seek to the next page
+    private static void createPagingIndexes(Statement stmt) throws SQLException {
+        stmt.executeUpdate("CREATE INDEX IF NOT EXISTS idx_bills_cashier_date ON bills(cashier_id, bill_date)");
+        stmt.executeUpdate("CREATE INDEX IF NOT EXISTS idx_expenses_day ON expenses(expense_day)");
+        stmt.executeUpdate("CREATE INDEX IF NOT EXISTS idx_expenses_category_day ON expenses(category, expense_day)");
+        stmt.executeUpdate("CREATE INDEX IF NOT EXISTS idx_daily_sales_summary_cashier ON daily_sales_summary(cashier_id)");
+    }
+
+    // Append-only stock movement ledger and its snapshots (see InventoryLedgerDAO), opened with
+    // the quantities in stock today
+    private static void createInventoryLedger(Statement stmt, Connection conn) throws SQLException {
+        if (!hasTable(stmt, "inventory_movements")) {
+            System.out.println("Creating inventory_movements ledger...");
+            stmt.executeUpdate("CREATE TABLE inventory_movements (" +
+                    "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                    "manager_id INTEGER NOT NULL, " +
+                    "ceo_inventory_id INTEGER NOT NULL, " +
+                    "quantity_change INTEGER NOT NULL, " +
+                    "movement_type TEXT NOT NULL CHECK(movement_type IN " +
+                    "('OPENING', 'RECEIPT', 'TRANSFER', 'SALE', 'ADJUSTMENT', 'RETURN')), " +
+                    "reference TEXT, " +
+                    "moved_at DATETIME DEFAULT CURRENT_TIMESTAMP, " +
+                    "movement_day INTEGER NOT NULL)");
+            stmt.executeUpdate("CREATE INDEX IF NOT EXISTS idx_inventory_movements_day " +
+                    "ON inventory_movements(movement_day)");
+            stmt.executeUpdate("CREATE INDEX IF NOT EXISTS idx_inventory_movements_location_day " +
+                    "ON inventory_movements(manager_id, movement_day)");
+        }
+        if (!hasTable(stmt, "inventory_snapshots")) {
+            stmt.executeUpdate("CREATE TABLE inventory_snapshots (" +
+                    "snapshot_day INTEGER NOT NULL, " +
+                    "manager_id INTEGER NOT NULL, " +
+                    "ceo_inventory_id INTEGER NOT NULL, " +
+                    "quantity INTEGER NOT NULL, " +
+                    "PRIMARY KEY (snapshot_day, manager_id, ceo_inventory_id))");
+            stmt.executeUpdate("CREATE TABLE IF NOT EXISTS inventory_snapshot_runs (" +
+                    "snapshot_day INTEGER PRIMARY KEY, " +
+                    "created_at DATETIME DEFAULT CURRENT_TIMESTAMP)");
+        }
+        // Also covers a fresh database, whose sample stock was inserted by schema.sql
+        int rows = InventoryLedgerDAO.recordOpeningBalances(conn);
+        if (rows > 0) {
+            System.out.println("Recorded " + rows + " opening stock balances in the ledger!");
+        }
+    }
+
+    // Branch-to-branch transfers (see StockTransferDAO) refer to the product by id
+    private static void addTransferProduct(Statement stmt) throws SQLException {
+        if (!hasColumn(stmt, "stock_transfer", "ceo_inventory_id")) {
+            System.out.println("Adding ceo_inventory_id column to stock_transfer table...");
+            stmt.executeUpdate("ALTER TABLE stock_transfer ADD COLUMN ceo_inventory_id INTEGER");
+        }
+        stmt.executeUpdate("CREATE INDEX IF NOT EXISTS idx_stock_transfer_from_status ON stock_transfer(from_manager_id, status)");
+        stmt.executeUpdate("CREATE INDEX IF NOT EXISTS idx_stock_transfer_to_status ON stock_transfer(to_manager_id, status)");
+    }
+
+    private static boolean hasTable(Statement stmt, String table) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery(
+                "SELECT 1 FROM sqlite_master WHERE type = 'table' AND name = '" + table + "'")) {
+            return rs.next();
+        }
+    }
+
+    private static boolean hasColumn(Statement stmt, String table, String column) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery("PRAGMA table_info(" + table + ")")) {
+            while (rs.next()) {
+                if (column.equals(rs.getString("name"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
 }
@@ -0,0 +1,359 @@
+package utils;
+
+import database.DatabaseConnection;
+import database.EnhancedProfitDAO;
+import database.SalesSummaryDAO;
+import java.io.File;
+import java.io.IOException;
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Regression benchmark for the manager profit report. Generates a dataset with known
+ * per-manager totals in a scratch database, then runs the old single-join report query
+ * (bills x bill items x expenses) and EnhancedProfitDAO against it. It prints the
+ * numbers and timings of both and fails if EnhancedProfitDAO does not match the known totals.
+ *
+ * Usage: java utils.ProfitReportBenchmark [managers] [billsPerManager] [itemsPerBill] [expensesPerManager]
+ */
+public class ProfitReportBenchmark {
+
+    // The report query before the rewrite, kept here to show what it returned
+    private static final String LEGACY_SQL = "SELECT " +
+            "m.id as manager_id, " +
+            "COALESCE(SUM(b.total_amount), 0) as total_revenue, " +
+            "COALESCE(SUM(bi.quantity * ci.buying_price), 0) as total_cogs, " +
+            "COALESCE(SUM(e.amount), 0) as total_expenses, " +
+            "COUNT(DISTINCT b.id) as total_bills " +
+            "FROM users m " +
+            "LEFT JOIN bills b ON m.id = b.manager_id AND b.status = 'COMPLETED' " +
+            "LEFT JOIN bill_items bi ON b.id = bi.bill_id " +
+            "LEFT JOIN manager_inventory mi ON bi.manager_inventory_id = mi.id " +
+            "LEFT JOIN ceo_inventory ci ON mi.ceo_inventory_id = ci.id " +
+            "LEFT JOIN expenses e ON m.id = e.manager_id " +
+            "WHERE m.role = 'MANAGER' AND m.status = 'ACTIVE' " +
+            "GROUP BY m.id";
+
+    private static final int PRODUCTS = 200;
+    private static final int DAYS = 365;
+    private static final int RANGE_DAYS = 30;
+    private static final int RUNS = 5;
+
+    public static void main(String[] args) throws IOException {
+        int managers = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        int billsPerManager = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+        int itemsPerBill = args.length > 2 ? Integer.parseInt(args[2]) : 3;
+        int expensesPerManager = args.length > 3 ? Integer.parseInt(args[3]) : 40;
+
+        // Scratch database; must be set before the first connection is opened
+        File dbFile = File.createTempFile("ims-profit-benchmark", ".sqlite");
+        dbFile.delete();
+        System.setProperty("ims.db.path", dbFile.getAbsolutePath());
+        InitializeDatabase.initialize();
+
+        LocalDate today = LocalDate.now();
+        long toDay = today.toEpochDay();
+        long fromDay = toDay - RANGE_DAYS + 1;
+
+        System.out.printf("Generating %d managers x %d bills x %d items, %d expenses each...%n",
+                managers, billsPerManager, itemsPerBill, expensesPerManager);
+        Map<Integer, Totals> allTime = new HashMap<>();
+        Map<Integer, Totals> inRange = new HashMap<>();
+        boolean generated = DatabaseConnection.executeWrite(() -> generate(managers, billsPerManager, itemsPerBill,
+                expensesPerManager, fromDay, toDay, allTime, inRange), false);
+        if (!generated) {
+            System.err.println("Could not generate the dataset.");
+            System.exit(1);
+        }
+        SalesSummaryDAO.rebuild();
+
+        // Old query: one run is enough to see both the time and the inflated numbers
+        long start = System.nanoTime();
+        Map<Integer, Totals> legacy = runLegacy();
+        double legacyMs = (System.nanoTime() - start) / 1_000_000.0;
+
+        EnhancedProfitDAO.getManagerPerformanceReport(); // Warm up
+        List<EnhancedProfitDAO.ManagerPerformance> report = null;
+        start = System.nanoTime();
+        for (int i = 0; i < RUNS; i++) {
+            report = EnhancedProfitDAO.getManagerPerformanceReport();
+        }
+        double reportMs = (System.nanoTime() - start) / 1_000_000.0 / RUNS;
+
+        start = System.nanoTime();
+        List<EnhancedProfitDAO.ManagerPerformance> rangeReport = null;
+        for (int i = 0; i < RUNS; i++) {
+            rangeReport = EnhancedProfitDAO.getManagerPerformanceByDateRange(
+                    Date.valueOf(LocalDate.ofEpochDay(fromDay)), Date.valueOf(today));
+        }
+        double rangeMs = (System.nanoTime() - start) / 1_000_000.0 / RUNS;
+
+        EnhancedProfitDAO.SystemTotals systemTotals = EnhancedProfitDAO.getSystemTotals();
+
+        System.out.println();
+        System.out.printf("%-8s %14s %14s %14s %14s %14s %14s%n", "Manager",
+                "Revenue", "Old revenue", "Expenses", "Old expenses", "COGS", "Old COGS");
+        boolean ok = true;
+        Totals expectedSystem = new Totals();
+        for (EnhancedProfitDAO.ManagerPerformance perf : report) {
+            Totals expected = allTime.get(perf.getManagerId());
+            Totals old = legacy.getOrDefault(perf.getManagerId(), new Totals());
+            System.out.printf("%-8d %14.2f %14.2f %14.2f %14.2f %14.2f %14.2f%n", perf.getManagerId(),
+                    perf.getTotalRevenue(), old.revenue, perf.getTotalExpenses(), old.expenses,
+                    perf.getTotalCostOfGoodsSold(), old.cogs);
+            ok &= check("all time, manager " + perf.getManagerId(), expected, perf);
+            expectedSystem.add(expected);
+        }
+        for (EnhancedProfitDAO.ManagerPerformance perf : rangeReport) {
+            ok &= check("last " + RANGE_DAYS + " days, manager " + perf.getManagerId(),
+                    inRange.get(perf.getManagerId()), perf);
+        }
+        ok &= report.size() == managers && rangeReport.size() == managers;
+        ok &= near(systemTotals.getTotalRevenue(), expectedSystem.revenue)
+                && near(systemTotals.getTotalCOGS(), expectedSystem.cogs)
+                && near(systemTotals.getTotalExpenses(), expectedSystem.expenses);
+
+        System.out.println();
+        System.out.printf("Old report query:        %10.1f ms%n", legacyMs);
+        System.out.printf("Report (all time):       %10.1f ms (%.0fx faster)%n", reportMs, legacyMs / Math.max(reportMs, 0.01));
+        System.out.printf("Report (last %d days):   %10.1f ms%n", RANGE_DAYS, rangeMs);
+        System.out.printf("System totals: revenue %.2f, COGS %.2f, expenses %.2f (expected %.2f, %.2f, %.2f)%n",
+                systemTotals.getTotalRevenue(), systemTotals.getTotalCOGS(), systemTotals.getTotalExpenses(),
+                expectedSystem.revenue, expectedSystem.cogs, expectedSystem.expenses);
+
+        DatabaseConnection.shutdown();
+        dbFile.delete();
+        new File(dbFile.getPath() + "-wal").delete();
+        new File(dbFile.getPath() + "-shm").delete();
+
+        System.out.println(ok ? "PASS" : "FAIL");
+        if (!ok) {
+            System.exit(1);
+        }
+    }
+
+    // Write the dataset in one transaction and record what every report should return
+    private static boolean generate(int managers, int billsPerManager, int itemsPerBill, int expensesPerManager,
+                                    long fromDay, long toDay,
+                                    Map<Integer, Totals> allTime, Map<Integer, Totals> inRange) throws SQLException {
+        Random random = new Random(42);
+        Connection conn = DatabaseConnection.getConnection();
+        try {
+            conn.setAutoCommit(false);
+
+            int[] productIds = new int[PRODUCTS];
+            double[] buyingPrices = new double[PRODUCTS];
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "INSERT INTO ceo_inventory (product_name, buying_price, total_quantity, min_stock_level) " +
+                    "VALUES (?, ?, 1000000, 10)", Statement.RETURN_GENERATED_KEYS)) {
+                for (int p = 0; p < PRODUCTS; p++) {
+                    buyingPrices[p] = 1 + random.nextInt(5000) / 100.0;
+                    ps.setString(1, "Benchmark product " + p);
+                    ps.setDouble(2, buyingPrices[p]);
+                    ps.executeUpdate();
+                    productIds[p] = generatedKey(ps);
+                }
+            }
+
+            for (int m = 0; m < managers; m++) {
+                int managerId = insertUser(conn, "MANAGER", "bench_manager_" + m);
+                int cashierId = insertUser(conn, "CASHIER", "bench_cashier_" + m);
+                Totals total = new Totals();
+                Totals recent = new Totals();
+                allTime.put(managerId, total);
+                inRange.put(managerId, recent);
+
+                int[] shelfIds = new int[PRODUCTS];
+                try (PreparedStatement ps = conn.prepareStatement(
+                        "INSERT INTO manager_inventory (manager_id, ceo_inventory_id, selling_price, current_quantity) " +
+                        "VALUES (?, ?, ?, 1000)", Statement.RETURN_GENERATED_KEYS)) {
+                    for (int p = 0; p < PRODUCTS; p++) {
+                        ps.setInt(1, managerId);
+                        ps.setInt(2, productIds[p]);
+                        ps.setDouble(3, buyingPrices[p] * 1.25);
+                        ps.executeUpdate();
+                        shelfIds[p] = generatedKey(ps);
+                    }
+                }
+
+                try (PreparedStatement bill = conn.prepareStatement(
+                        "INSERT INTO bills (bill_number, cashier_id, manager_id, total_amount, bill_date, bill_day) " +
+                        "VALUES (?, ?, ?, ?, ?, ?)", Statement.RETURN_GENERATED_KEYS);
+                     PreparedStatement item = conn.prepareStatement(
+                        "INSERT INTO bill_items (bill_id, manager_inventory_id, quantity, unit_price, subtotal) " +
+                        "VALUES (?, ?, ?, ?, ?)")) {
+                    for (int b = 0; b < billsPerManager; b++) {
+                        // bill_date is UTC timestamp text, like CURRENT_TIMESTAMP writes it
+                        long day = toDay - random.nextInt(DAYS);
+                        int[] products = new int[itemsPerBill];
+                        int[] quantities = new int[itemsPerBill];
+                        double amount = 0;
+                        double cogs = 0;
+                        int units = 0;
+                        for (int i = 0; i < itemsPerBill; i++) {
+                            products[i] = random.nextInt(PRODUCTS);
+                            quantities[i] = 1 + random.nextInt(5);
+                            amount += quantities[i] * buyingPrices[products[i]] * 1.25;
+                            cogs += quantities[i] * buyingPrices[products[i]];
+                            units += quantities[i];
+                        }
+
+                        bill.setString(1, "BENCH-" + managerId + "-" + b);
+                        bill.setInt(2, cashierId);
+                        bill.setInt(3, managerId);
+                        bill.setDouble(4, amount);
+                        bill.setString(5, LocalDate.ofEpochDay(day) + " 12:00:00");
+                        bill.setLong(6, day);
+                        bill.executeUpdate();
+                        int billId = generatedKey(bill);
+
+                        for (int i = 0; i < itemsPerBill; i++) {
+                            double price = buyingPrices[products[i]] * 1.25;
+                            item.setInt(1, billId);
+                            item.setInt(2, shelfIds[products[i]]);
+                            item.setInt(3, quantities[i]);
+                            item.setDouble(4, price);
+                            item.setDouble(5, quantities[i] * price);
+                            item.addBatch();
+                        }
+                        item.executeBatch();
+
+                        total.addSale(amount, cogs, units);
+                        if (day >= fromDay && day <= toDay) {
+                            recent.addSale(amount, cogs, units);
+                        }
+                    }
+                }
+
+                try (PreparedStatement ps = conn.prepareStatement(
+                        "INSERT INTO expenses (manager_id, description, amount, category, expense_date, expense_day) " +
+                        "VALUES (?, 'Benchmark expense', ?, 'OTHER', ?, ?)")) {
+                    for (int e = 0; e < expensesPerManager; e++) {
+                        // Bound as java.sql.Date, like ExpenseDAO.addExpense
+                        long day = toDay - random.nextInt(DAYS);
+                        double amount = 10 + random.nextInt(100000) / 100.0;
+                        ps.setInt(1, managerId);
+                        ps.setDouble(2, amount);
+                        ps.setDate(3, Date.valueOf(LocalDate.ofEpochDay(day)));
+                        ps.setLong(4, day);
+                        ps.addBatch();
+                        total.expenses += amount;
+                        if (day >= fromDay && day <= toDay) {
+                            recent.expenses += amount;
+                        }
+                    }
+                    ps.executeBatch();
+                }
+            }
+
+            conn.commit();
+            return true;
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            DatabaseConnection.closeResources(null, null, conn);
+        }
+    }
+
+    private static int insertUser(Connection conn, String role, String username) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(
+                "INSERT INTO users (username, password, role, name, cnic, status) VALUES (?, 'x', ?, ?, ?, 'ACTIVE')",
+                Statement.RETURN_GENERATED_KEYS)) {
+            ps.setString(1, username);
+            ps.setString(2, role);
+            ps.setString(3, username);
+            ps.setString(4, "cnic-" + username);
+            ps.executeUpdate();
+            return generatedKey(ps);
+        }
+    }
+
+    private static int generatedKey(PreparedStatement ps) throws SQLException {
+        try (ResultSet keys = ps.getGeneratedKeys()) {
+            keys.next();
+            return keys.getInt(1);
+        }
+    }
+
+    private static Map<Integer, Totals> runLegacy() {
+        Map<Integer, Totals> result = new HashMap<>();
+        Connection conn = null;
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+
+        try {
+            conn = DatabaseConnection.getConnection();
+            ps = conn.prepareStatement(LEGACY_SQL);
+            rs = ps.executeQuery();
+            while (rs.next()) {
+                Totals t = new Totals();
+                t.revenue = rs.getDouble("total_revenue");
+                t.cogs = rs.getDouble("total_cogs");
+                t.expenses = rs.getDouble("total_expenses");
+                t.bills = rs.getInt("total_bills");
+                result.put(rs.getInt("manager_id"), t);
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        } finally {
+            DatabaseConnection.closeResources(rs, ps, conn);
+        }
+        return result;
+    }
+
+    private static boolean check(String what, Totals expected, EnhancedProfitDAO.ManagerPerformance actual) {
+        boolean ok = expected != null
+                && near(actual.getTotalRevenue(), expected.revenue)
+                && near(actual.getTotalCostOfGoodsSold(), expected.cogs)
+                && near(actual.getTotalExpenses(), expected.expenses)
+                && actual.getTotalBills() == expected.bills
+                && actual.getTotalProductsSold() == expected.units;
+        if (!ok) {
+            System.out.println("MISMATCH " + what + ": expected " + expected + ", got revenue "
+                    + actual.getTotalRevenue() + ", COGS " + actual.getTotalCostOfGoodsSold()
+                    + ", expenses " + actual.getTotalExpenses() + ", bills " + actual.getTotalBills()
+                    + ", units " + actual.getTotalProductsSold());
+        }
+        return ok;
+    }
+
+    // Sums of doubles in a different order differ in the last digits
+    private static boolean near(double a, double b) {
+        return Math.abs(a - b) <= 0.005 * Math.max(1, Math.abs(b) / 1000);
+    }
+
+    // What one manager's report row should contain
+    private static class Totals {
+        double revenue;
+        double cogs;
+        double expenses;
+        int bills;
+        int units;
+
+        void addSale(double amount, double cost, int quantity) {
+            revenue += amount;
+            cogs += cost;
+            bills++;
+            units += quantity;
+        }
+
+        void add(Totals other) {
+            revenue += other.revenue;
+            cogs += other.cogs;
+            expenses += other.expenses;
+            bills += other.bills;
+            units += other.units;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("revenue %.2f, COGS %.2f, expenses %.2f, bills %d, units %d",
+                    revenue, cogs, expenses, bills, units);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package utils;
+
+import database.DatabaseConnection;
+import database.SalesSummaryDAO;
+
+/**
+ * Recomputes the daily sales rollups (daily_sales_summary and product_daily_sales) from the raw bills.
+ * Use it after bills were edited outside the application or to pick up changed buying prices.
+ *
+ * Usage: java utils.RebuildSalesSummary
+ */
+public class RebuildSalesSummary {
+    public static void main(String[] args) {
+        System.out.println("Rebuilding sales rollups from bills...");
+        long start = System.nanoTime();
+        int rows = SalesSummaryDAO.rebuild();
+        long ms = (System.nanoTime() - start) / 1_000_000;
+        DatabaseConnection.shutdown();
+
+        if (rows < 0) {
+            System.err.println("Rebuild failed; the previous rollup was kept.");
+            System.exit(1);
+        }
+        System.out.println("Rebuilt " + rows + " day rows in " + ms + " ms.");
+    }
+}
@@ -92,23 +92,15 @@ public class SalaryReminderService {
      * Check if a notification of given type has been sent to user today
      */
     private static boolean hasNotificationBeenSentToday(int userId, String notificationType) {
-        try {
-            java.sql.Connection conn = database.DatabaseConnection.getConnection();
-            String sql = "SELECT COUNT(*) FROM notifications WHERE user_id = ? AND notification_type = ? " +
-                        "AND DATE(created_at) = DATE('now')";
-            java.sql.PreparedStatement ps = conn.prepareStatement(sql);
+        String sql = "SELECT COUNT(*) FROM notifications WHERE user_id = ? AND notification_type = ? " +
+                    "AND DATE(created_at) = DATE('now')";
+        try (java.sql.Connection conn = database.DatabaseConnection.getConnection();
+             java.sql.PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setInt(1, userId);
             ps.setString(2, notificationType);
-            java.sql.ResultSet rs = ps.executeQuery();
-            
-            boolean exists = rs.next() && rs.getInt(1) > 0;
-            
-            rs.close();
-            ps.close();
-            conn.close();
-            
-            return exists;
-            
+            try (java.sql.ResultSet rs = ps.executeQuery()) {
+                return rs.next() && rs.getInt(1) > 0;
+            }
         } catch (Exception e) {
             e.printStackTrace();
             return false;
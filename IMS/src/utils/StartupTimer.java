@@ -0,0 +1,63 @@
+package utils;
+
+import javax.swing.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Measures login-to-usable time for each role: from the moment the login button is pressed
+ * until the dashboard window is showing and the data of its first tab has finished loading.
+ * Each result is printed and kept for the session.
+ */
+public class StartupTimer {
+
+    private static long loginStartNanos;
+    private static final Map<String, Long> timings = Collections.synchronizedMap(new LinkedHashMap<>());
+
+    /**
+     * Start the clock (called when the user submits the login form)
+     */
+    public static void markLogin() {
+        loginStartNanos = System.nanoTime();
+    }
+
+    /**
+     * Report once the frame is open and no AsyncLoader is still loading
+     */
+    public static void reportWhenInteractive(JFrame frame, String role) {
+        if (loginStartNanos == 0) {
+            return;
+        }
+        long start = loginStartNanos;
+        loginStartNanos = 0;
+        frame.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowOpened(WindowEvent e) {
+                long shownMs = (System.nanoTime() - start) / 1_000_000;
+                Timer poll = new Timer(10, null);
+                poll.addActionListener(ev -> {
+                    if (AsyncLoader.getActiveLoadCount() == 0) {
+                        poll.stop();
+                        long interactiveMs = (System.nanoTime() - start) / 1_000_000;
+                        timings.put(role, interactiveMs);
+                        System.out.println("[Startup] " + role + " dashboard shown after " + shownMs
+                                + " ms, interactive after " + interactiveMs + " ms");
+                    }
+                });
+                poll.start();
+            }
+        });
+    }
+
+    /**
+     * Last measured time to first interactive per role, in milliseconds
+     */
+    public static Map<String, Long> getTimings() {
+        synchronized (timings) {
+            return new LinkedHashMap<>(timings);
+        }
+    }
+}
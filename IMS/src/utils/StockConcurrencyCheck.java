@@ -0,0 +1,233 @@
+package utils;
+
+import database.CashierInventoryDAO;
+import database.DatabaseConnection;
+import database.InventoryDAO;
+import database.ManagerInventoryDAO;
+import database.StockTransferDAO;
+import models.BillItem;
+import java.io.File;
+import java.io.IOException;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency check for a store's stock row. Seller threads place bills and restock threads add
+ * stock (ManagerInventoryDAO.addOrUpdateManagerInventory and StockTransferDAO.transferStockFromCEO,
+ * both the ON CONFLICT upsert) against the same manager_inventory row at the same time. Afterwards
+ * the row must hold start + restocked - sold, matching the movement ledger, and the CEO stock
+ * must have dropped by exactly what was transferred. Runs once in WAL mode and once in
+ * ROLLBACK mode (where writers use separate connections), each on a fresh scratch database.
+ *
+ * Usage: java utils.StockConcurrencyCheck [sellers] [restockers] [operationsPerThread]
+ */
+public class StockConcurrencyCheck {
+
+    private static final int START_QUANTITY = 1000;
+    private static final int CEO_QUANTITY = 1000000;
+    private static final double PRICE = 12.5;
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int sellers = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        int restockers = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        int operations = args.length > 2 ? Integer.parseInt(args[2]) : 200;
+
+        boolean ok = true;
+        for (String mode : new String[] {"WAL", "ROLLBACK"}) {
+            ok &= run(mode, sellers, restockers, operations);
+        }
+
+        System.out.println(ok ? "PASS" : "FAIL");
+        if (!ok) {
+            System.exit(1);
+        }
+    }
+
+    private static boolean run(String mode, int sellers, int restockers, int operations)
+            throws IOException, InterruptedException {
+        // Scratch database in the given storage mode
+        File dbFile = File.createTempFile("ims-stock-check", ".sqlite");
+        dbFile.delete();
+        System.setProperty("ims.db.path", dbFile.getAbsolutePath());
+        System.setProperty("ims.db.storageMode", mode);
+        DatabaseConnection.reloadConfig();
+        InitializeDatabase.initialize();
+
+        int managerId = insertUser("MANAGER", "check_manager");
+        int cashierId = insertUser("CASHIER", "check_cashier");
+        String productName = "Concurrency check product " + System.nanoTime();
+        InventoryDAO.addProductToCEOInventory(productName, 10, CEO_QUANTITY, 10);
+        int productId = productId(productName);
+        ManagerInventoryDAO.addOrUpdateManagerInventory(managerId, productId, START_QUANTITY, PRICE);
+        int rowId = ManagerInventoryDAO.getProductByManagerAndCEOId(managerId, productId).getId();
+
+        AtomicInteger sold = new AtomicInteger();
+        AtomicInteger restocked = new AtomicInteger();
+        AtomicInteger transferred = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        CountDownLatch go = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+
+        for (int t = 0; t < sellers; t++) {
+            Random random = new Random(t);
+            threads.add(new Thread(() -> {
+                await(go);
+                for (int i = 0; i < operations; i++) {
+                    int quantity = 1 + random.nextInt(3);
+                    List<BillItem> items = Collections.singletonList(new BillItem(rowId, quantity, PRICE));
+                    if (CashierInventoryDAO.placeBill(cashierId, managerId, items, quantity * PRICE).isSuccess()) {
+                        sold.addAndGet(quantity);
+                    } else {
+                        failed.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        for (int t = 0; t < restockers; t++) {
+            Random random = new Random(100 + t);
+            boolean fromCeo = t % 2 == 1;
+            threads.add(new Thread(() -> {
+                await(go);
+                for (int i = 0; i < operations; i++) {
+                    int quantity = 1 + random.nextInt(5);
+                    if (fromCeo) {
+                        if (StockTransferDAO.transferStockFromCEO(managerId, productId, quantity, PRICE)) {
+                            transferred.addAndGet(quantity);
+                        } else {
+                            failed.incrementAndGet();
+                        }
+                    } else if (ManagerInventoryDAO.addOrUpdateManagerInventory(managerId, productId, quantity, PRICE)) {
+                        restocked.addAndGet(quantity);
+                    } else {
+                        failed.incrementAndGet();
+                    }
+                }
+            }));
+        }
+
+        long start = System.nanoTime();
+        for (Thread t : threads) {
+            t.start();
+        }
+        go.countDown();
+        for (Thread t : threads) {
+            t.join();
+        }
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        long[] totals = readTotals(managerId, productId, rowId);
+        long expected = START_QUANTITY + restocked.get() + transferred.get() - sold.get();
+        long expectedCeo = CEO_QUANTITY - transferred.get();
+
+        System.out.println();
+        System.out.printf("%s: %d sellers, %d restockers x %d operations in %.1f s (%d calls failed)%n",
+                mode, sellers, restockers, operations, seconds, failed.get());
+        System.out.printf("  Store row:   %d (expected %d = %d + %d restocked + %d transferred - %d sold), ledger %d%n",
+                totals[0], expected, START_QUANTITY, restocked.get(), transferred.get(), sold.get(), totals[1]);
+        System.out.printf("  CEO stock:   %d (expected %d), ledger %d%n", totals[2], expectedCeo, totals[3]);
+        System.out.printf("  Units billed: %d (expected %d)%n", totals[4], sold.get());
+
+        boolean ok = totals[0] == expected && totals[1] == expected
+                && totals[2] == expectedCeo && totals[3] == expectedCeo
+                && totals[4] == sold.get();
+        if (!ok) {
+            System.out.println("  MISMATCH in " + mode + " mode");
+        }
+
+        DatabaseConnection.shutdown();
+        dbFile.delete();
+        new File(dbFile.getPath() + "-wal").delete();
+        new File(dbFile.getPath() + "-shm").delete();
+        return ok;
+    }
+
+    private static void await(CountDownLatch go) {
+        try {
+            go.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static int insertUser(String role, String username) {
+        return DatabaseConnection.executeWrite(() -> {
+            Connection conn = DatabaseConnection.getConnection();
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "INSERT INTO users (username, password, role, name, cnic, status) VALUES (?, 'x', ?, ?, ?, 'ACTIVE')",
+                    Statement.RETURN_GENERATED_KEYS)) {
+                ps.setString(1, username);
+                ps.setString(2, role);
+                ps.setString(3, username);
+                ps.setString(4, "cnic-" + username);
+                ps.executeUpdate();
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    keys.next();
+                    return keys.getInt(1);
+                }
+            } finally {
+                DatabaseConnection.closeResources(null, null, conn);
+            }
+        }, -1);
+    }
+
+    private static int productId(String productName) {
+        Connection conn = null;
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+
+        try {
+            conn = DatabaseConnection.getConnection();
+            ps = conn.prepareStatement("SELECT id FROM ceo_inventory WHERE product_name = ?");
+            ps.setString(1, productName);
+            rs = ps.executeQuery();
+            return rs.next() ? rs.getInt(1) : -1;
+        } catch (SQLException e) {
+            e.printStackTrace();
+        } finally {
+            DatabaseConnection.closeResources(rs, ps, conn);
+        }
+        return -1;
+    }
+
+    // Store quantity, store ledger sum, CEO quantity, warehouse ledger sum, units billed
+    private static long[] readTotals(int managerId, int productId, int rowId) {
+        long[] totals = new long[5];
+        Connection conn = null;
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+
+        try {
+            conn = DatabaseConnection.getConnection();
+            ps = conn.prepareStatement("SELECT " +
+                    "(SELECT current_quantity FROM manager_inventory WHERE id = ?), " +
+                    "(SELECT COALESCE(SUM(quantity_change), 0) FROM inventory_movements " +
+                    "WHERE manager_id = ? AND ceo_inventory_id = ?), " +
+                    "(SELECT total_quantity FROM ceo_inventory WHERE id = ?), " +
+                    "(SELECT COALESCE(SUM(quantity_change), 0) FROM inventory_movements " +
+                    "WHERE manager_id = 0 AND ceo_inventory_id = ?), " +
+                    "(SELECT COALESCE(SUM(quantity), 0) FROM bill_items WHERE manager_inventory_id = ?)");
+            ps.setInt(1, rowId);
+            ps.setInt(2, managerId);
+            ps.setInt(3, productId);
+            ps.setInt(4, productId);
+            ps.setInt(5, productId);
+            ps.setInt(6, rowId);
+            rs = ps.executeQuery();
+            if (rs.next()) {
+                for (int i = 0; i < totals.length; i++) {
+                    totals[i] = rs.getLong(i + 1);
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        } finally {
+            DatabaseConnection.closeResources(rs, ps, conn);
+        }
+        return totals;
+    }
+}
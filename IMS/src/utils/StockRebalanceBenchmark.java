@@ -0,0 +1,165 @@
+package utils;
+
+import database.StockRebalancer;
+import database.StockTransferDAO;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Benchmark for StockRebalancer. Generates branches x products of stock and sales in memory,
+ * times the planner on one thread and on all cores, and checks the plan: the same on both,
+ * within the budget, no donor below its target, and the projected stockouts it reports match
+ * a recount after applying its moves.
+ *
+ * Usage: java utils.StockRebalanceBenchmark [branches] [products] [transferBudget]
+ */
+public class StockRebalanceBenchmark {
+
+    private static final int HORIZON_DAYS = 7;
+    private static final int RUNS = 5;
+
+    public static void main(String[] args) throws InterruptedException, ExecutionException {
+        int branches = args.length > 0 ? Integer.parseInt(args[0]) : 50;
+        int products = args.length > 1 ? Integer.parseInt(args[1]) : 20000;
+        int budget = args.length > 2 ? Integer.parseInt(args[2]) : 500000;
+
+        System.out.printf("Generating %d branches x %d products...%n", branches, products);
+        int[] managerIds = new int[branches];
+        for (int b = 0; b < branches; b++) {
+            managerIds[b] = 1000 + b;
+        }
+        StockRebalancer.ProductStock[] stock = generate(branches, products);
+
+        // Warm up, then time on all cores and on one worker thread
+        StockRebalancer.plan(managerIds, stock, HORIZON_DAYS, budget);
+        StockRebalancer.Plan plan = null;
+        long start = System.nanoTime();
+        for (int i = 0; i < RUNS; i++) {
+            plan = StockRebalancer.plan(managerIds, stock, HORIZON_DAYS, budget);
+        }
+        double parallelMs = (System.nanoTime() - start) / 1_000_000.0 / RUNS;
+
+        ForkJoinPool single = new ForkJoinPool(1);
+        StockRebalancer.Plan singlePlan = null;
+        start = System.nanoTime();
+        for (int i = 0; i < RUNS; i++) {
+            singlePlan = single.submit(() -> StockRebalancer.plan(managerIds, stock, HORIZON_DAYS, budget)).get();
+        }
+        double singleMs = (System.nanoTime() - start) / 1_000_000.0 / RUNS;
+        single.shutdown();
+
+        boolean ok = sameMoves(plan.getMoves(), singlePlan.getMoves());
+        if (!ok) {
+            System.out.println("MISMATCH: plans differ between one and all threads");
+        }
+        ok &= check(managerIds, stock, plan, budget);
+
+        System.out.println();
+        System.out.printf("Moves: %d, units moved: %d (budget %d)%n", plan.getMoves().size(), plan.getUnitsMoved(), budget);
+        System.out.printf("Projected stockout units (%d days): %d before, %d after%n",
+                HORIZON_DAYS, plan.getStockoutUnitsBefore(), plan.getStockoutUnitsAfter());
+        System.out.printf("Plan, 1 thread:            %10.1f ms%n", singleMs);
+        System.out.printf("Plan, %2d cores:            %10.1f ms (%.1fx)%n",
+                Runtime.getRuntime().availableProcessors(), parallelMs, singleMs / Math.max(parallelMs, 0.01));
+
+        System.out.println(ok ? "PASS" : "FAIL");
+        if (!ok) {
+            System.exit(1);
+        }
+    }
+
+    // Skewed sales (a few fast movers per branch), stock between empty and several weeks' worth
+    private static StockRebalancer.ProductStock[] generate(int branches, int products) {
+        Random random = new Random(42);
+        StockRebalancer.ProductStock[] stock = new StockRebalancer.ProductStock[products];
+        for (int p = 0; p < products; p++) {
+            double popularity = Math.pow(random.nextDouble(), 3) * 20;
+            int[] quantities = new int[branches];
+            double[] dailySales = new double[branches];
+            boolean[] carried = new boolean[branches];
+            for (int b = 0; b < branches; b++) {
+                carried[b] = random.nextInt(10) != 0;
+                if (carried[b]) {
+                    dailySales[b] = popularity * random.nextDouble() * 2;
+                    quantities[b] = (int) (dailySales[b] * random.nextInt(30)) + random.nextInt(15);
+                }
+            }
+            stock[p] = new StockRebalancer.ProductStock(10000 + p, 5 + random.nextInt(16),
+                    quantities, dailySales, carried);
+        }
+        return stock;
+    }
+
+    // Apply the moves to a copy of the stock and recount
+    private static boolean check(int[] managerIds, StockRebalancer.ProductStock[] stock,
+                                 StockRebalancer.Plan plan, int budget) {
+        Map<Integer, Integer> branchIndex = new HashMap<>();
+        for (int b = 0; b < managerIds.length; b++) {
+            branchIndex.put(managerIds[b], b);
+        }
+        Map<Integer, Integer> productIndex = new HashMap<>();
+        int[][] after = new int[stock.length][];
+        for (int p = 0; p < stock.length; p++) {
+            productIndex.put(stock[p].getCeoInventoryId(), p);
+            after[p] = stock[p].getQuantities().clone();
+        }
+
+        boolean ok = true;
+        int units = 0;
+        for (StockTransferDAO.BranchMove move : plan.getMoves()) {
+            int p = productIndex.get(move.getCeoInventoryId());
+            after[p][branchIndex.get(move.getFromManagerId())] -= move.getQuantity();
+            after[p][branchIndex.get(move.getToManagerId())] += move.getQuantity();
+            units += move.getQuantity();
+            ok &= move.getQuantity() > 0 && move.getFromManagerId() != move.getToManagerId();
+        }
+        if (units != plan.getUnitsMoved() || units > budget) {
+            System.out.println("MISMATCH: moves add up to " + units + " units, plan says "
+                    + plan.getUnitsMoved() + ", budget " + budget);
+            ok = false;
+        }
+
+        long stockoutBefore = 0;
+        long stockoutAfter = 0;
+        for (int p = 0; p < stock.length; p++) {
+            int[] before = stock[p].getQuantities();
+            double[] dailySales = stock[p].getDailySales();
+            for (int b = 0; b < managerIds.length; b++) {
+                int demand = StockRebalancer.projectedDemand(dailySales[b], HORIZON_DAYS);
+                int target = Math.max(stock[p].getMinStockLevel(), demand);
+                stockoutBefore += Math.max(0, demand - before[b]);
+                stockoutAfter += Math.max(0, demand - after[p][b]);
+                if (after[p][b] < before[b] && after[p][b] < target) {
+                    System.out.println("MISMATCH: product " + stock[p].getCeoInventoryId() + " at manager "
+                            + managerIds[b] + " gave stock below its target of " + target);
+                    ok = false;
+                }
+            }
+        }
+        if (stockoutBefore != plan.getStockoutUnitsBefore() || stockoutAfter != plan.getStockoutUnitsAfter()) {
+            System.out.println("MISMATCH: recounted stockouts " + stockoutBefore + " -> " + stockoutAfter
+                    + ", plan says " + plan.getStockoutUnitsBefore() + " -> " + plan.getStockoutUnitsAfter());
+            ok = false;
+        }
+        return ok;
+    }
+
+    private static boolean sameMoves(List<StockTransferDAO.BranchMove> a, List<StockTransferDAO.BranchMove> b) {
+        if (a.size() != b.size()) {
+            return false;
+        }
+        for (int i = 0; i < a.size(); i++) {
+            StockTransferDAO.BranchMove x = a.get(i);
+            StockTransferDAO.BranchMove y = b.get(i);
+            if (x.getFromManagerId() != y.getFromManagerId() || x.getToManagerId() != y.getToManagerId()
+                    || x.getCeoInventoryId() != y.getCeoInventoryId() || x.getQuantity() != y.getQuantity()) {
+                return false;
+            }
+        }
+        return true;
+    }
+}